@@ -0,0 +1,12 @@
+-- Resumen diario de reservas (entity/ResumenDiarioReserva).
+-- El esquema se gestiona fuera de la aplicación (ddl-auto=none): aplicar antes de desplegar.
+-- Mientras la tabla no exista, el dashboard calcula sobre la tabla reservas.
+CREATE TABLE IF NOT EXISTS resumen_diario_reservas (
+    dia DATE NOT NULL,
+    id_espacio BIGINT NOT NULL,
+    id_tipo_espacio BIGINT NOT NULL,
+    id_estado BIGINT NOT NULL,
+    num_reservas BIGINT NOT NULL,
+    minutos_reservados BIGINT NOT NULL,
+    PRIMARY KEY (dia, id_espacio, id_tipo_espacio, id_estado)
+);
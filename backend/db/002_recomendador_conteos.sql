@@ -0,0 +1,11 @@
+-- Conteos del recomendador por frecuencias (entity/ConteoRecomendacion).
+-- El esquema se gestiona fuera de la aplicación (ddl-auto=none): aplicar antes de desplegar.
+-- dia_semana sigue EXTRACT(DOW) de PostgreSQL: 0 = domingo
+CREATE TABLE IF NOT EXISTS recomendador_conteos (
+    id_usuario BIGINT NOT NULL,
+    dia_semana INTEGER NOT NULL,
+    hora INTEGER NOT NULL,
+    id_espacio BIGINT NOT NULL,
+    reservas BIGINT NOT NULL,
+    PRIMARY KEY (id_usuario, dia_semana, hora, id_espacio)
+);
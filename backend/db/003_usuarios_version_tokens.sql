@@ -0,0 +1,4 @@
+-- Versión de los tokens de cada usuario (entity/Usuario.versionTokens, security/RevocacionTokens).
+-- El esquema se gestiona fuera de la aplicación (ddl-auto=none): aplicar antes de desplegar.
+-- Un token con "ver" menor que la del usuario está revocado; los emitidos antes de la columna equivalen a 0
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS version_tokens INTEGER NOT NULL DEFAULT 0;
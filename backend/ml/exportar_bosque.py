@@ -0,0 +1,90 @@
+import os
+import sys
+import json
+import joblib
+import pandas as pd
+
+# Exporta el RandomForestClassifier de modelo.pkl a arrays planos que carga el motor Java
+# (BosqueAleatorio). Con --paridad escribe además las recomendaciones que da el predictor
+# Python para una rejilla de entradas, que el test de paridad compara con las de Java.
+#
+# Con --test escribe en src/test/resources/ml un bosque reducido (los primeros ARBOLES_TEST árboles)
+# y sus casos de paridad: son los ficheros que usa BosqueAleatorioTest en cada build.
+#
+# Uso: python ml/exportar_bosque.py [--paridad | --test]
+
+RUTA_MODELO = "modelo.pkl"
+RUTA_BOSQUE = "ml/modelo_bosque.json"
+RUTA_PARIDAD = "ml/paridad_bosque.json"
+RUTA_BOSQUE_TEST = "src/test/resources/ml/modelo_bosque.json"
+RUTA_PARIDAD_TEST = "src/test/resources/ml/paridad_bosque.json"
+ARBOLES_TEST = 10
+CARACTERISTICAS = ["usuario_id", "hora", "dia_semana"]
+TOP_N = 3
+
+
+def exportar(modelo, ruta=RUTA_BOSQUE):
+    arboles = []
+    for estimador in modelo.estimators_:
+        arbol = estimador.tree_
+        # Igual que DecisionTreeClassifier.predict_proba: cada nodo normalizado a suma 1
+        valores = arbol.value[:, 0, :]
+        sumas = valores.sum(axis=1)[:, None]
+        sumas[sumas == 0.0] = 1.0
+        arboles.append({
+            "izquierda": arbol.children_left.tolist(),
+            "derecha": arbol.children_right.tolist(),
+            "caracteristica": arbol.feature.tolist(),
+            "umbral": arbol.threshold.tolist(),
+            "valores": (valores / sumas).tolist()
+        })
+
+    # Se escribe en un temporal y se renombra: quien lo lea verá el bosque anterior o el nuevo, nunca uno a medias
+    temporal = ruta + ".tmp"
+    with open(temporal, "w") as f:
+        json.dump({
+            "caracteristicas": CARACTERISTICAS,
+            "clases": [int(c) for c in modelo.classes_],
+            "arboles": arboles
+        }, f)
+    os.replace(temporal, ruta)
+
+
+def paridad(modelo, ruta=RUTA_PARIDAD):
+    casos = []
+    for usuario_id in range(1, 21):
+        for dia_semana in range(7):
+            for hora in [-1, 8, 10, 12, 14, 16, 18, 20]:
+                entrada = pd.DataFrame([[usuario_id, hora, dia_semana]], columns=CARACTERISTICAS)
+                probabilidades = modelo.predict_proba(entrada)[0]
+                # Mismo criterio que predictor_postgresql.py
+                top_indices = sorted(range(len(probabilidades)), key=lambda i: -probabilidades[i])[:TOP_N]
+                casos.append({
+                    "usuario_id": usuario_id,
+                    "dia_semana": dia_semana,
+                    "hora": hora,
+                    "recomendaciones": [
+                        {"espacio_id": int(modelo.classes_[i]), "probabilidad": float(probabilidades[i])}
+                        for i in top_indices
+                    ]
+                })
+
+    with open(ruta, "w") as f:
+        json.dump(casos, f)
+
+
+if __name__ == "__main__":
+    modelo = joblib.load(RUTA_MODELO)
+    if "--test" in sys.argv:
+        # predict_proba promedia sobre estimators_, así que recortarlo da un bosque válido más pequeño
+        modelo.estimators_ = modelo.estimators_[:ARBOLES_TEST]
+        modelo.n_estimators = ARBOLES_TEST
+        exportar(modelo, RUTA_BOSQUE_TEST)
+        paridad(modelo, RUTA_PARIDAD_TEST)
+        print("Bosque y casos de paridad de test escritos en '%s' y '%s'" % (RUTA_BOSQUE_TEST, RUTA_PARIDAD_TEST))
+        sys.exit(0)
+    exportar(modelo)
+    print("Bosque exportado a '%s'" % RUTA_BOSQUE)
+    if "--paridad" in sys.argv:
+        paridad(modelo)
+        print("Casos de paridad escritos en '%s'" % RUTA_PARIDAD)
@@ -1,9 +1,11 @@
 import os
+import json
 import pandas as pd
 import joblib
 import psycopg2
 from psycopg2.extras import RealDictCursor
 from sklearn.ensemble import RandomForestClassifier
+from exportar_bosque import exportar
 
 # 1. Leemos la configuración desde variables de entorno
 db_config = {
@@ -18,52 +20,51 @@ db_config = {
 conexion = psycopg2.connect(**db_config)
 cursor = conexion.cursor()
 
-# 3. Consultamos SOLO las reservas completadas no usadas
+# 3. Consultamos los conteos acumulados por (usuario, día, hora, espacio).
+#    La aplicación los mantiene al día con solo las reservas completadas nuevas
+#    (EstadisticasRecomendador), así que el modelo conserva todo el histórico
 query = """
 SELECT
-    r.id_reserva,
-    r.id_usuario AS usuario_id,
-    EXTRACT(HOUR FROM r.fecha_inicio) AS hora,
-    EXTRACT(DOW FROM r.fecha_inicio) AS dia_semana,
-    r.id_espacio AS espacio_id
-FROM reservas r
-WHERE r.id_estado = 4 AND r.usadaenmodelo = FALSE
+    c.id_usuario AS usuario_id,
+    c.hora,
+    c.dia_semana,
+    c.id_espacio AS espacio_id,
+    c.reservas
+FROM recomendador_conteos c
 """
 
 df = pd.read_sql(query, conexion)
+print("Conteos leídos: %d filas" % len(df), flush=True)
 
-# 4. Validamos si hay nuevas reservas para entrenar
+# 4. Validamos si hay datos para entrenar
 if df.empty:
     print("No hay nuevas reservas para entrenar. El modelo no se ha actualizado.")
     conexion.close()
     exit(0)
 
-# 5. Limpieza de datos
-df["hora"] = df["hora"].fillna(-1)
-
-# 6. Separamos las features y las etiquetas
+# 5. Separamos las features y las etiquetas; cada fila pesa tantas reservas como agrupa
 X = df[["usuario_id", "hora", "dia_semana"]]
 y = df["espacio_id"]
 
-# 7. Entrenamos el modelo
+# 6. Entrenamos el modelo
+print("Entrenando con %d reservas" % int(df["reservas"].sum()), flush=True)
 modelo = RandomForestClassifier(n_estimators=100, random_state=42)
-modelo.fit(X, y)
+modelo.fit(X, y, sample_weight=df["reservas"])
 
-# 8. Guardamos el modelo
-joblib.dump(modelo, "modelo.pkl")
+# 7. Guardamos el modelo y su exportación para el motor Java. Cada fichero se escribe en un temporal
+#    y se renombra, así los procesos que lo recargan nunca leen uno a medias
+joblib.dump(modelo, "modelo.pkl.tmp")
+os.replace("modelo.pkl.tmp", "modelo.pkl")
+exportar(modelo)
 
-# 9. Marcamos las reservas como ya utilizadas
-ids_usados = df["id_reserva"].tolist()
-marca_query = f"""
-UPDATE reservas
-SET usadaenmodelo = TRUE
-WHERE id_reserva IN ({','.join(['%s'] * len(ids_usados))})
-"""
-cursor.execute(marca_query, ids_usados)
+# 8. Marca con cuántas reservas de los conteos se ha entrenado: la aplicación no reentrena mientras
+#    el total de recomendador_conteos no cambie (reservas.recomendador.marca-modelo)
+with open("ml/modelo_entrenado.json.tmp", "w") as f:
+    json.dump({"reservas": int(df["reservas"].sum())}, f)
+os.replace("ml/modelo_entrenado.json.tmp", "ml/modelo_entrenado.json")
 
-# 10. Cerramos la conexión
-conexion.commit()
+# 9. Cerramos la conexión
 cursor.close()
 conexion.close()
 
-print("Modelo entrenado con nuevas reservas y guardado como 'modelo.pkl'")
+print("Modelo entrenado con %d reservas y guardado como 'modelo.pkl'" % int(df["reservas"].sum()))
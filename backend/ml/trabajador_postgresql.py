@@ -0,0 +1,77 @@
+import sys
+import os
+import json
+import pandas as pd
+import joblib
+
+# Proceso persistente del recomendador: carga el modelo una sola vez y atiende peticiones
+# JSON, una por línea, por stdin. Cada respuesta se escribe en una línea de stdout con el
+# mismo "id" que la petición. No accede a la base de datos: nombres y registro los hace la aplicación.
+#
+#   {"id": 1, "tipo": "puntuar_lote", "top": 6, "consultas": [{"usuario_id": 5, "dia_semana": 2, "hora": 10}, ...]}
+#   {"id": 2, "tipo": "ping"}
+
+RUTA_MODELO = "modelo.pkl"
+TOP_N = 3
+
+modelo = None
+modelo_mtime = None
+
+
+def cargar_modelo():
+    # Se recarga si el entrenamiento ha sustituido modelo.pkl
+    global modelo, modelo_mtime
+    mtime = os.path.getmtime(RUTA_MODELO)
+    if modelo is None or mtime != modelo_mtime:
+        modelo = joblib.load(RUTA_MODELO)
+        modelo_mtime = mtime
+    return modelo
+
+
+def puntuar_lote(consultas, top):
+    # Una sola llamada a predict_proba para todo el lote. Los nombres y el registro en
+    # recomendaciones los resuelve la aplicación con una consulta y una inserción en lote
+    modelo_actual = cargar_modelo()
+    entrada = pd.DataFrame([[int(c["usuario_id"]), int(c.get("hora", -1)), int(c["dia_semana"])] for c in consultas],
+                           columns=["usuario_id", "hora", "dia_semana"])
+
+    resultados = []
+    for probabilidades in modelo_actual.predict_proba(entrada):
+        top_indices = sorted(range(len(probabilidades)), key=lambda i: -probabilidades[i])[:top]
+        resultados.append([
+            {"espacio_id": int(modelo_actual.classes_[i]), "probabilidad": round(float(probabilidades[i]), 3)}
+            for i in top_indices
+        ])
+    return resultados
+
+
+def atender(peticion):
+    tipo = peticion.get("tipo")
+    if tipo == "ping":
+        return {"pong": True}
+    if tipo == "puntuar_lote":
+        return puntuar_lote(peticion["consultas"], int(peticion.get("top", TOP_N)))
+    raise ValueError("Tipo de petición desconocido: %s" % tipo)
+
+
+def responder(respuesta):
+    sys.stdout.write(json.dumps(respuesta) + "\n")
+    sys.stdout.flush()
+
+
+# Carga anticipada para que la primera petición no pague la importación del modelo
+cargar_modelo()
+responder({"id": 0, "ok": True, "resultado": {"listo": True}})
+
+for linea in sys.stdin:
+    linea = linea.strip()
+    if not linea:
+        continue
+    id_peticion = None
+    try:
+        peticion = json.loads(linea)
+        id_peticion = peticion.get("id")
+        responder({"id": id_peticion, "ok": True, "resultado": atender(peticion)})
+    except Exception as e:
+        print("Error atendiendo petición: %s" % e, file=sys.stderr, flush=True)
+        responder({"id": id_peticion, "ok": False, "error": str(e)})
@@ -0,0 +1,29 @@
+package com.gestion.reservas.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+// Timeout asíncrono propio de una petición. Sirve para StreamingResponseBody, que siempre usa el timeout global:
+// el controlador lo fija con establecer() y se aplica justo antes de pasar la respuesta a otro hilo
+public class TimeoutAsincrono implements CallableProcessingInterceptor {
+
+    private static final String ATRIBUTO = TimeoutAsincrono.class.getName() + ".timeout";
+
+    public static void establecer(HttpServletRequest request, Duration timeout) {
+        request.setAttribute(ATRIBUTO, timeout);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        Object timeout = request.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST);
+        if (timeout instanceof Duration duracion && request instanceof AsyncWebRequest peticionAsincrona) {
+            peticionAsincrona.setTimeout(duracion.toMillis());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.gestion.reservas.controller;
+
+import com.gestion.reservas.service.CatalogosReferencia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/catalogos")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class CatalogoController {
+
+    private final CatalogosReferencia catalogos;
+
+    // Tamaño de cada tabla de referencia y última recarga
+    @GetMapping("/estado")
+    public Map<String, Object> estado() {
+        return catalogos.estado();
+    }
+
+    // Tras modificar estados, tipos, roles o equipamientos directamente en la base de datos. Solo administradores
+    @PostMapping("/refrescar")
+    @PreAuthorize("hasRole('Administrador')")
+    public Map<String, Object> refrescar() {
+        catalogos.refrescar();
+        return catalogos.estado();
+    }
+}
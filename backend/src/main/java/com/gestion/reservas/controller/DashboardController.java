@@ -7,6 +7,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -25,4 +26,10 @@ public class DashboardController {
 
         return dashboardService.obtenerDatosDashboard(fechaInicio, fechaFin, tipoSala, estado);
     }
-}
\ No newline at end of file
+
+    // Aciertos, fallos e invalidaciones de la caché del dashboard
+    @GetMapping("/cache")
+    public Map<String, Object> estadisticasCache() {
+        return dashboardService.estadisticasCache();
+    }
+}
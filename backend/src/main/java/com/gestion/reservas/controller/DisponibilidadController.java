@@ -0,0 +1,39 @@
+package com.gestion.reservas.controller;
+
+import com.gestion.reservas.dto.BusquedaDisponibilidadDTO;
+import com.gestion.reservas.dto.BusquedaHuecosDTO;
+import com.gestion.reservas.dto.EspacioResponseDTO;
+import com.gestion.reservas.dto.HuecoLibreDTO;
+import com.gestion.reservas.service.DisponibilidadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/disponibilidad")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class DisponibilidadController {
+
+    private final DisponibilidadService disponibilidadService;
+
+    @PostMapping("/espacios")
+    public ResponseEntity<List<EspacioResponseDTO>> buscarEspaciosLibres(@RequestBody BusquedaDisponibilidadDTO filtro) {
+        try {
+            return ResponseEntity.ok(disponibilidadService.buscarEspaciosLibres(filtro));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/huecos")
+    public ResponseEntity<List<HuecoLibreDTO>> buscarHuecosLibres(@RequestBody BusquedaHuecosDTO filtro) {
+        try {
+            return ResponseEntity.ok(disponibilidadService.buscarHuecosLibres(filtro));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
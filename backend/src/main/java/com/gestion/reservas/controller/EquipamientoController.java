@@ -19,17 +19,18 @@ import java.util.List;
 public class EquipamientoController {
 
     private final EquipamientoService equipamientoService;
+    private final RespuestaCatalogo respuestaCatalogo;
 
 
     @GetMapping
     public ResponseEntity<List<EquipamientoDTO>> getAllEquipamientos() {
-        return ResponseEntity.ok(equipamientoService.findAll());
+        return respuestaCatalogo.conEtag(equipamientoService.findAll());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<EquipamientoDTO> getEquipamientoById(@PathVariable Long id) {
         return equipamientoService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(respuestaCatalogo::conEtag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
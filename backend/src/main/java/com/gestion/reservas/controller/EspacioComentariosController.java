@@ -1,14 +1,12 @@
 package com.gestion.reservas.controller;
 
 
+import com.gestion.reservas.dto.ComentarioDTO;
 import com.gestion.reservas.dto.EspacioComentariosDTO;
 import com.gestion.reservas.service.EspacioComentariosService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
@@ -24,5 +22,28 @@ public class EspacioComentariosController {
     public ResponseEntity<List<EspacioComentariosDTO>> obtenerEspaciosConComentarios() {
         return ResponseEntity.ok(espacioComentariosService.obtenerResumenComentarios());
     }
-}
 
+    // Cargar más comentarios aprobados de un espacio, del más reciente al más antiguo
+    @GetMapping("/{idEspacio}/comentarios")
+    public ResponseEntity<List<ComentarioDTO>> obtenerComentariosEspacio(
+            @PathVariable Long idEspacio,
+            @RequestParam(required = false) Integer desde,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(espacioComentariosService.obtenerComentariosEspacio(idEspacio, desde, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Recalcula desde cero las valoraciones agregadas de todos los espacios
+    @PostMapping("/comentarios/reconstruir-valoraciones")
+    public ResponseEntity<?> reconstruirValoraciones() {
+        try {
+            int espacios = espacioComentariosService.reconstruirValoraciones();
+            return ResponseEntity.ok("Valoraciones reconstruidas para " + espacios + " espacios");
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
+        }
+    }
+}
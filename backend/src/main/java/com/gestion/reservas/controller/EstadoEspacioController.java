@@ -17,18 +17,19 @@ import java.util.List;
 public class EstadoEspacioController {
 
     private final EstadoEspacioService estadoEspacioService;
+    private final RespuestaCatalogo respuestaCatalogo;
 
 
     @GetMapping
     public ResponseEntity<List<EstadoEspacio>> getAllEstadosEspacio() {
-        return ResponseEntity.ok(estadoEspacioService.findAll());
+        return respuestaCatalogo.conEtag(estadoEspacioService.findAll());
     }
 
 
     @GetMapping("/{id}")
     public ResponseEntity<EstadoEspacio> getRolById(@PathVariable Long id) {
         return estadoEspacioService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(respuestaCatalogo::conEtag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -15,18 +15,19 @@ import java.util.List;
 public class EstadoReservaController {
 
     private final EstadoReservaService estadoReservaService;
+    private final RespuestaCatalogo respuestaCatalogo;
 
 
     @GetMapping
     public ResponseEntity<List<EstadoReserva>> getAllEstadosReserva() {
-        return ResponseEntity.ok(estadoReservaService.findAll());
+        return respuestaCatalogo.conEtag(estadoReservaService.findAll());
     }
 
 
     @GetMapping("/{id}")
     public ResponseEntity<EstadoReserva> getRolById(@PathVariable Long id) {
         return estadoReservaService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(respuestaCatalogo::conEtag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
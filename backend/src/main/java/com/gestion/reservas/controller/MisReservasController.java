@@ -1,14 +1,18 @@
 package com.gestion.reservas.controller;
 
 import com.gestion.reservas.dto.MisReservasDTO;
+import com.gestion.reservas.dto.FiltroReservasDTO;
+import com.gestion.reservas.dto.PaginaDTO;
 import com.gestion.reservas.dto.ReservaDTO;
 import com.gestion.reservas.dto.ReservaDisponibilidadDTO;
 import com.gestion.reservas.service.MisReservasService;
 import com.gestion.reservas.service.ReservaService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +28,31 @@ public class MisReservasController {
         return reservaService.findAll();
     }
 
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<MisReservasDTO>> getPagina(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) Long idUsuario,
+            @RequestParam(required = false) Long idEspacio,
+            @RequestParam(required = false) Long idEstado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+
+        FiltroReservasDTO filtro = FiltroReservasDTO.builder()
+                .idUsuario(idUsuario)
+                .idEspacio(idEspacio)
+                .idEstado(idEstado)
+                .desde(desde)
+                .hasta(hasta)
+                .build();
+
+        try {
+            return ResponseEntity.ok(reservaService.buscarPagina(filtro, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MisReservasDTO> getById(@PathVariable Long id) {
         return reservaService.findById(id)
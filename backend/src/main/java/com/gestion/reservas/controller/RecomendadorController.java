@@ -1,13 +1,20 @@
 package com.gestion.reservas.controller;
 
+import com.gestion.reservas.dto.EntrenamientoDTO;
 import com.gestion.reservas.dto.RecomendacionRequestDTO;
 
 import com.gestion.reservas.dto.RecomendacionResponseDTO;
+import com.gestion.reservas.exception.RecomendadorNoDisponibleException;
 import com.gestion.reservas.service.RecomendadorService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/recomendador")
 @CrossOrigin(origins = "*")
@@ -20,25 +27,54 @@ public class RecomendadorController {
     public ResponseEntity<RecomendacionResponseDTO> recomendar(@RequestBody RecomendacionRequestDTO request) {
         try {
 
-             RecomendacionResponseDTO response = recomendadorService.obtenerRecomendaciones(
-                    request.getUsuarioId(),
-                    request.getDiaSemana(),
-                    request.getHora()
-            );
+             RecomendacionResponseDTO response = recomendadorService.obtenerRecomendaciones(request);
             return ResponseEntity.ok(response);
+        } catch (RecomendadorNoDisponibleException e) {
+            // Todos los procesos ocupados o caídos: el cliente puede reintentar
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
-    @PostMapping("/entrenar")
-    public ResponseEntity<?> entrenarModelo() {
+    // Varias consultas en una sola llamada: [{usuarioId, diaSemana, hora}, ...]
+    @PostMapping("/lote")
+    public ResponseEntity<List<RecomendacionResponseDTO>> recomendarLote(@RequestBody List<RecomendacionRequestDTO> consultas) {
         try {
-
-            String resultado = recomendadorService.entrenarModelo();
-            return ResponseEntity.ok(resultado);
+            return ResponseEntity.ok(recomendadorService.obtenerRecomendaciones(consultas));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RecomendadorNoDisponibleException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
+            return ResponseEntity.internalServerError().build();
         }
     }
+
+    // Lanza el entrenamiento en segundo plano (o devuelve el que ya está en curso) sin esperar a que termine
+    @PostMapping("/entrenar")
+    public ResponseEntity<EntrenamientoDTO> entrenarModelo() {
+        EntrenamientoDTO trabajo = recomendadorService.entrenarModelo();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/recomendador/entrenamientos/" + trabajo.getId()))
+                .body(trabajo);
+    }
+
+    @GetMapping("/entrenamientos/{id}")
+    public ResponseEntity<EntrenamientoDTO> consultarEntrenamiento(@PathVariable String id) {
+        return recomendadorService.consultarEntrenamiento(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/entrenamientos")
+    public List<EntrenamientoDTO> entrenamientosRecientes() {
+        return recomendadorService.entrenamientosRecientes();
+    }
+
+    // Procesos del recomendador arrancados y peticiones en curso
+    @GetMapping("/estado")
+    public Map<String, Object> estado() {
+        return recomendadorService.estadoPredictor();
+    }
 }
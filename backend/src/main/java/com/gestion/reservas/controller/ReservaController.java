@@ -1,13 +1,23 @@
 package com.gestion.reservas.controller;
 
+import com.gestion.reservas.config.TimeoutAsincrono;
 import com.gestion.reservas.dto.ReservaCalendarioDTO;
+import com.gestion.reservas.dto.FiltroReservasDTO;
+import com.gestion.reservas.dto.PaginaDTO;
 import com.gestion.reservas.dto.ReservaDTO;
+import com.gestion.reservas.service.FormatoExportacion;
 import com.gestion.reservas.service.ReservaService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -19,11 +29,67 @@ public class ReservaController {
 
     private final ReservaService reservaService;
 
+    // Las exportaciones se escriben fuera del hilo de la petición y pueden durar minutos; solo ellas tienen este timeout
+    @Value("${reservas.exportacion.timeout-ms:1800000}")
+    private long timeoutExportacion;
+
     @GetMapping
     public List<ReservaDTO> getAll() {
         return reservaService.findAll();
     }
 
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<ReservaDTO>> getPagina(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) Long idUsuario,
+            @RequestParam(required = false) Long idEspacio,
+            @RequestParam(required = false) Long idEstado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+
+        FiltroReservasDTO filtro = FiltroReservasDTO.builder()
+                .idUsuario(idUsuario)
+                .idEspacio(idEspacio)
+                .idEstado(idEstado)
+                .desde(desde)
+                .hasta(hasta)
+                .build();
+
+        try {
+            return ResponseEntity.ok(reservaService.buscarPagina(filtro, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Historial completo en CSV o NDJSON, escrito en la respuesta según se lee de la base de datos
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) Long tipoEspacioId,
+            @RequestParam(required = false) Long estadoId,
+            HttpServletRequest request) {
+
+        FormatoExportacion formatoExportacion;
+        try {
+            formatoExportacion = FormatoExportacion.desde(formato);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TimeoutAsincrono.establecer(request, Duration.ofMillis(timeoutExportacion));
+        StreamingResponseBody cuerpo = salida ->
+                reservaService.exportar(fechaInicio, fechaFin, tipoEspacioId, estadoId, formatoExportacion, salida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacion.getTipoContenido() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservas." + formatoExportacion.getExtension() + "\"")
+                .body(cuerpo);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ReservaDTO> getById(@PathVariable Long id) {
         return reservaService.findById(id)
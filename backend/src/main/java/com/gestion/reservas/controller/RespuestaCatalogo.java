@@ -0,0 +1,38 @@
+package com.gestion.reservas.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Respuestas de las tablas de referencia con ETag igual al SHA-256 del contenido en JSON, serializado con el
+// ObjectMapper de la aplicación (el mismo que escribe el cuerpo). Spring contesta 304 sin cuerpo cuando el
+// If-None-Match de la petición coincide; no-cache obliga al cliente a revalidar en cada uso
+@Component
+@RequiredArgsConstructor
+class RespuestaCatalogo {
+
+    private final ObjectMapper objectMapper;
+
+    <T> ResponseEntity<T> conEtag(T cuerpo) {
+        return ResponseEntity.ok()
+                .eTag("\"" + resumen(cuerpo) + "\"")
+                .cacheControl(CacheControl.noCache())
+                .body(cuerpo);
+    }
+
+    private String resumen(Object cuerpo) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(cuerpo));
+            return HexFormat.of().formatHex(hash);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
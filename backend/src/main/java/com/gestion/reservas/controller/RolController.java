@@ -17,18 +17,19 @@ import com.gestion.reservas.service.RolService;
 public class RolController {
 
     private final RolService rolService;
+    private final RespuestaCatalogo respuestaCatalogo;
 
 
     @GetMapping
     public ResponseEntity<List<Rol>> getAllRoles() {
-        return ResponseEntity.ok(rolService.findAll());
+        return respuestaCatalogo.conEtag(rolService.findAll());
     }
 
 
     @GetMapping("/{id}")
     public ResponseEntity<Rol> getRolById(@PathVariable Long id) {
         return rolService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(respuestaCatalogo::conEtag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -0,0 +1,31 @@
+package com.gestion.reservas.controller;
+
+import com.gestion.reservas.security.CachePrincipales;
+import com.gestion.reservas.security.JwtService;
+import com.gestion.reservas.security.RevocacionTokens;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/seguridad")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class SeguridadController {
+
+    private final JwtService jwtService;
+    private final CachePrincipales cachePrincipales;
+    private final RevocacionTokens revocacionTokens;
+
+    // Aciertos y fallos de las cachés de tokens verificados y de usuarios autenticados, y revocaciones del modo sin estado
+    @GetMapping("/cache")
+    public Map<String, Object> estadisticasCache() {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("tokens", jwtService.estadisticasCache());
+        estadisticas.put("usuarios", cachePrincipales.estadisticas());
+        estadisticas.put("revocaciones", revocacionTokens.estadisticas());
+        return estadisticas;
+    }
+}
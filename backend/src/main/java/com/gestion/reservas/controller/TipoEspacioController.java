@@ -19,18 +19,19 @@ import java.util.List;
 public class TipoEspacioController {
 
     private final TipoEspacioService tipoEspacioService;
+    private final RespuestaCatalogo respuestaCatalogo;
 
 
     @GetMapping
     public ResponseEntity<List<TipoEspacio>> getAllTiposEspacio() {
-        return ResponseEntity.ok(tipoEspacioService.findAll());
+        return respuestaCatalogo.conEtag(tipoEspacioService.findAll());
     }
 
 
     @GetMapping("/{id}")
     public ResponseEntity<TipoEspacio> getRolById(@PathVariable Long id) {
         return tipoEspacioService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(respuestaCatalogo::conEtag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -0,0 +1,21 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaDisponibilidadDTO {
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private Integer capacidad;         // capacidad mínima
+    private Long idTipoEspacio;        // opcional
+    private List<Long> equipamientos;  // IDs requeridos
+}
@@ -0,0 +1,21 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaHuecosDTO {
+    private List<Long> espacios;        // si está vacío se buscan todos los espacios disponibles
+    private Integer duracionMinutos;
+    private LocalDateTime desde;        // por defecto, ahora
+    private Integer horizonteDias;      // por defecto, 7
+    private Integer maxResultados;      // huecos por espacio, por defecto 5
+}
@@ -0,0 +1,26 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Estado de un entrenamiento del recomendador lanzado en segundo plano
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntrenamientoDTO {
+    private String id;
+    private String origen;      // manual o programado
+    private String estado;      // EN_CURSO, COMPLETADO o FALLIDO
+    private String fase;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private Long duracionMs;
+    private String resultado;
+    private List<String> log;
+}
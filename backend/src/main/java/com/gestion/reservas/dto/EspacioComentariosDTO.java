@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -18,6 +19,8 @@ public class EspacioComentariosDTO {
     private String imagen;
     private Double valoracionPromedio;
     private Long cantidadResenas;
+    // Número de valoraciones aprobadas por estrellas (1 a 5)
+    private Map<Integer, Long> distribucionValoraciones;
 
     private List<ComentarioDTO> comentarios;
 
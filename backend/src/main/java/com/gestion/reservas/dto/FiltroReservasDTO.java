@@ -0,0 +1,20 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroReservasDTO {
+    private Long idUsuario;
+    private Long idEspacio;
+    private Long idEstado;
+    private LocalDateTime desde;
+    private LocalDateTime hasta;
+}
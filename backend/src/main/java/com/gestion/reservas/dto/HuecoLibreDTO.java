@@ -0,0 +1,19 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HuecoLibreDTO {
+    private Long idEspacio;
+    private String nombreEspacio;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+}
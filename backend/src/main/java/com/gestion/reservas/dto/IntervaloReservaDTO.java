@@ -0,0 +1,17 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntervaloReservaDTO {
+    private Long idReserva;
+    private Long idEspacio;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+}
@@ -0,0 +1,21 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcupacionDTO {
+    private long minutosReservados;
+    private long minutosDisponibles;
+
+    // Porcentaje redondeado de minutos reservados sobre minutos de apertura
+    public int getPorcentaje() {
+        if (minutosDisponibles <= 0) return 0;
+        return (int) Math.round((double) minutosReservados / minutosDisponibles * 100);
+    }
+}
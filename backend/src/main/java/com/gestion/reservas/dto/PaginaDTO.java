@@ -0,0 +1,57 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+
+    public static final int LIMITE_DEFECTO = 50;
+    public static final int LIMITE_MAXIMO = 200;
+
+    private List<T> contenido;
+    private String siguienteCursor; // null si no hay más páginas
+
+    // Página por keyset: consulta recibe el id anterior (o null) y cuántas filas traer, ordenadas por id descendente.
+    // Se pide una fila de más para saber si hay página siguiente
+    public static <E, T> PaginaDTO<T> buscar(String cursor, Integer limite,
+                                             BiFunction<Long, Integer, List<E>> consulta,
+                                             Function<E, Long> id, Function<E, T> mapeo) {
+        int tamano = limite == null || limite <= 0 ? LIMITE_DEFECTO : Math.min(limite, LIMITE_MAXIMO);
+
+        List<E> filas = consulta.apply(decodificarCursor(cursor), tamano + 1);
+        boolean hayMas = filas.size() > tamano;
+        List<E> pagina = hayMas ? filas.subList(0, tamano) : filas;
+
+        return new PaginaDTO<>(
+                pagina.stream().map(mapeo).toList(),
+                hayMas ? codificarCursor(id.apply(pagina.get(pagina.size() - 1))) : null
+        );
+    }
+
+    // El cursor es el último idReserva devuelto, codificado para que el cliente lo trate como opaco
+    public static String codificarCursor(Long idReserva) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(idReserva).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor no válido");
+        }
+    }
+}
@@ -2,9 +2,15 @@ package com.gestion.reservas.dto;
 
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
 public class RecomendacionRequestDTO {
     private Long usuarioId;
     private int diaSemana;
     private int hora = -1;  // por defecto -1 si no se envía
-}
\ No newline at end of file
+    // Opcionales: franja concreta a comprobar (si no, la próxima con ese día y hora) y aforo necesario
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private Integer personas;
+}
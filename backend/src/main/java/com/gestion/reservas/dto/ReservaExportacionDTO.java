@@ -0,0 +1,25 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Fila plana de la exportación de reservas: solo columnas, sin entidades asociadas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaExportacionDTO {
+    private Long idReserva;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private Integer ocupantes;
+    private Long idUsuario;
+    private String usuario;
+    private String email;
+    private Long idEspacio;
+    private String espacio;
+    private String tipoEspacio;
+    private String estado;
+}
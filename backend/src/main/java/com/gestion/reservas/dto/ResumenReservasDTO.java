@@ -0,0 +1,14 @@
+package com.gestion.reservas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenReservasDTO {
+    private long totalReservas;
+    private long usuariosActivos;
+    private long minutosReservados;
+}
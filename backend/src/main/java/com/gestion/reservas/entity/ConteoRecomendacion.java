@@ -0,0 +1,20 @@
+package com.gestion.reservas.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Reservas completadas por usuario, día de la semana, hora de inicio y espacio:
+// el estadístico suficiente del recomendador, que solo crece con las reservas nuevas
+@Entity
+@Table(name = "recomendador_conteos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConteoRecomendacion {
+
+    @EmbeddedId
+    private ConteoRecomendacionId id;
+
+    private Long reservas;
+}
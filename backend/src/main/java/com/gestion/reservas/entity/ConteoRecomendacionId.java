@@ -0,0 +1,28 @@
+package com.gestion.reservas.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteoRecomendacionId implements Serializable {
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    // Como EXTRACT(DOW) de PostgreSQL: 0 = domingo
+    @Column(name = "dia_semana")
+    private Integer diaSemana;
+
+    private Integer hora;
+
+    @Column(name = "id_espacio")
+    private Long idEspacio;
+}
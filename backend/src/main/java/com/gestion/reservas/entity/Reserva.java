@@ -8,12 +8,33 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "reservas")
+@NamedEntityGraph(
+        name = Reserva.GRAFO_DETALLE,
+        attributeNodes = {
+                @NamedAttributeNode(value = "usuario", subgraph = "usuario"),
+                @NamedAttributeNode(value = "espacio", subgraph = "espacio"),
+                @NamedAttributeNode("estado")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "usuario", attributeNodes = {
+                        @NamedAttributeNode("rol"),
+                        @NamedAttributeNode("estado")
+                }),
+                @NamedSubgraph(name = "espacio", attributeNodes = {
+                        @NamedAttributeNode("tipoEspacio"),
+                        @NamedAttributeNode("estado")
+                })
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Reserva {
 
+    // Todo lo que recorren los mappers de listados (usuario, espacio y estados)
+    public static final String GRAFO_DETALLE = "Reserva.detalle";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long idReserva;
@@ -0,0 +1,21 @@
+package com.gestion.reservas.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Reservas agregadas por día de inicio, espacio, tipo de espacio y estado
+@Entity
+@Table(name = "resumen_diario_reservas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumenDiarioReserva {
+
+    @EmbeddedId
+    private ResumenDiarioReservaId id;
+
+    private Long numReservas;
+
+    private Long minutosReservados;
+}
@@ -0,0 +1,29 @@
+package com.gestion.reservas.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenDiarioReservaId implements Serializable {
+
+    private LocalDate dia;
+
+    @Column(name = "id_espacio")
+    private Long idEspacio;
+
+    // 0 si el espacio no tiene tipo asignado
+    @Column(name = "id_tipo_espacio")
+    private Long idTipoEspacio;
+
+    @Column(name = "id_estado")
+    private Long idEstado;
+}
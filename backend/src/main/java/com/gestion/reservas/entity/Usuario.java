@@ -35,6 +35,10 @@ public class Usuario {
     @Column(name = "ultimo_acceso")
     private LocalDateTime ultimoAcceso;
 
+    // Solo la cambia UsuarioRepository.incrementarVersionTokens: guardar la entidad no la sobrescribe
+    @Column(name = "version_tokens", nullable = false, updatable = false)
+    private int versionTokens;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "id_rol", nullable = false)
     private Rol rol;
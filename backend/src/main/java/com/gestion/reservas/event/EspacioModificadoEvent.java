@@ -0,0 +1,5 @@
+package com.gestion.reservas.event;
+
+// Se publica después de crear, modificar, borrar o cambiar de estado un espacio
+public record EspacioModificadoEvent(Long idEspacio) {
+}
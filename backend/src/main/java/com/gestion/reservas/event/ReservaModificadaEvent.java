@@ -0,0 +1,7 @@
+package com.gestion.reservas.event;
+
+import java.time.LocalDateTime;
+
+// Se publica después de crear, modificar, cancelar o borrar una reserva, con las fechas afectadas
+public record ReservaModificadaEvent(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+}
@@ -0,0 +1,6 @@
+package com.gestion.reservas.event;
+
+// Se publica después de cambiar el perfil, la contraseña, el rol o el estado de un usuario, o de borrarlo.
+// revocarTokens indica que los tokens ya emitidos para el usuario dejan de servir
+public record UsuarioModificadoEvent(Long idUsuario, boolean revocarTokens) {
+}
@@ -32,5 +32,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(ReservaSolapadaException.class)
+    public ResponseEntity<Object> handleReservaSolapada(ReservaSolapadaException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Conflict");
+        body.put("message", ex.getMessage());
+        body.put("idEspacio", ex.getIdEspacio());
+        body.put("inicio", ex.getInicio());
+        body.put("fin", ex.getFin());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
 
 }
@@ -0,0 +1,7 @@
+package com.gestion.reservas.exception;
+
+public class RecomendadorNoDisponibleException extends RuntimeException {
+    public RecomendadorNoDisponibleException(String mensaje) {
+        super(mensaje);
+    }
+}
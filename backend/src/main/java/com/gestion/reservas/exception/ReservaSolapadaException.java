@@ -0,0 +1,20 @@
+package com.gestion.reservas.exception;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class ReservaSolapadaException extends RuntimeException {
+
+    private final Long idEspacio;
+    private final LocalDateTime inicio;
+    private final LocalDateTime fin;
+
+    public ReservaSolapadaException(Long idEspacio, LocalDateTime inicio, LocalDateTime fin) {
+        super("El espacio ya tiene una reserva en ese horario");
+        this.idEspacio = idEspacio;
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+}
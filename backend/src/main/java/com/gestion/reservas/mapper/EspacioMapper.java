@@ -0,0 +1,45 @@
+package com.gestion.reservas.mapper;
+
+import com.gestion.reservas.dto.EquipamientoDTO;
+import com.gestion.reservas.dto.EspacioResponseDTO;
+import com.gestion.reservas.dto.EstadoEspacioDTO;
+import com.gestion.reservas.dto.TipoEspacioDTO;
+import com.gestion.reservas.entity.Espacio;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class EspacioMapper {
+
+    public EspacioResponseDTO toDTO(Espacio espacio) {
+        EspacioResponseDTO dto = new EspacioResponseDTO();
+
+        dto.setIdEspacio(espacio.getIdEspacio());
+        dto.setNombre(espacio.getNombre());
+        dto.setCapacidad(espacio.getCapacidad());
+        dto.setUbicacion(espacio.getUbicacion());
+        dto.setDescripcion(espacio.getDescripcion());
+        dto.setImagen(espacio.getImagen());
+
+        TipoEspacioDTO tipoDto = new TipoEspacioDTO();
+        tipoDto.setIdTipoEspacio(espacio.getTipoEspacio().getIdTipoEspacio());
+        tipoDto.setDescripcion(espacio.getTipoEspacio().getDescripcion());
+        dto.setTipo(tipoDto);
+
+        EstadoEspacioDTO estadoDto = new EstadoEspacioDTO();
+        estadoDto.setIdEstado(espacio.getEstado().getIdEstado());
+        estadoDto.setDescripcion(espacio.getEstado().getDescripcion());
+        dto.setEstado(estadoDto);
+
+        List<EquipamientoDTO> equipamientoDTOs = espacio.getEquipamientos().stream().map(eq -> {
+            EquipamientoDTO e = new EquipamientoDTO();
+            e.setIdEquipamiento(eq.getIdEquipamiento());
+            e.setDescripcion(eq.getDescripcion());
+            return e;
+        }).toList();
+        dto.setEquipamientos(equipamientoDTOs);
+
+        return dto;
+    }
+}
@@ -1,9 +1,30 @@
 package com.gestion.reservas.repository;
 
+import com.gestion.reservas.dto.ValoracionAprobadaDTO;
 import com.gestion.reservas.entity.Comentario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
 import java.util.List;
 
 public interface ComentarioRepository extends JpaRepository<Comentario, Long> {
     List<Comentario> findAllByOrderByFechaDesc();
+
+    // Solo las columnas necesarias para reconstruir las valoraciones por espacio
+    @Query("""
+      SELECT new com.gestion.reservas.dto.ValoracionAprobadaDTO(
+          c.idComentario, c.reserva.espacio.idEspacio, c.valoracion)
+      FROM Comentario c
+      WHERE c.estado.descripcion = 'Aprobado'
+    """)
+    List<ValoracionAprobadaDTO> obtenerValoracionesAprobadas();
+
+    // Valoraciones aprobadas agrupadas por espacio y estrellas: [idEspacio, valoracion, cantidad]
+    @Query("""
+      SELECT c.reserva.espacio.idEspacio, c.valoracion, COUNT(c)
+      FROM Comentario c
+      WHERE c.estado.descripcion = 'Aprobado' AND c.valoracion IS NOT NULL
+      GROUP BY c.reserva.espacio.idEspacio, c.valoracion
+    """)
+    List<Object[]> contarValoracionesAprobadas();
 }
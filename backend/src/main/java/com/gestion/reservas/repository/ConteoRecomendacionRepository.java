@@ -0,0 +1,15 @@
+package com.gestion.reservas.repository;
+
+import com.gestion.reservas.entity.ConteoRecomendacion;
+import com.gestion.reservas.entity.ConteoRecomendacionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConteoRecomendacionRepository extends JpaRepository<ConteoRecomendacion, ConteoRecomendacionId>, ConteoRecomendacionRepositoryCustom {
+
+    // Reservas sumadas en los conteos: las mismas con las que entrena modelo_recomendador_postgresql.py
+    @Query("SELECT COALESCE(SUM(c.reservas), 0) FROM ConteoRecomendacion c")
+    long totalReservas();
+}
@@ -0,0 +1,19 @@
+package com.gestion.reservas.repository;
+
+import com.gestion.reservas.entity.ConteoRecomendacionId;
+
+import java.util.Map;
+
+public interface ConteoRecomendacionRepositoryCustom {
+
+    // Suma a los conteos hasta "limite" reservas completadas aún no usadas en el modelo y las marca como usadas.
+    // Devuelve lo que se ha sumado a cada clave
+    Map<ConteoRecomendacionId, Long> acumularPendientes(int limite);
+
+    // Hay reservas completadas ya marcadas como usadas en el modelo (por ejemplo, por el entrenamiento en Python)
+    // que los incrementos no volverán a sumar. Solo tiene sentido preguntarlo con la tabla de conteos vacía
+    boolean hayCompletadasSinContar();
+
+    // Recalcula los conteos con todas las reservas completadas
+    int reconstruirTodo();
+}
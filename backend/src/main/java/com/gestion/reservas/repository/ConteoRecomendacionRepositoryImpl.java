@@ -0,0 +1,126 @@
+package com.gestion.reservas.repository;
+
+import com.gestion.reservas.entity.ConteoRecomendacion;
+import com.gestion.reservas.entity.ConteoRecomendacionId;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+public class ConteoRecomendacionRepositoryImpl implements ConteoRecomendacionRepositoryCustom {
+
+    // Mismo criterio que usaba el script de entrenamiento: completadas y no usadas todavía
+    private static final String PENDIENTES = """
+        SELECT r.idReserva, r.usuario.idUsuario, r.espacio.idEspacio, r.fechaInicio
+        FROM Reserva r
+        WHERE lower(r.estado.descripcion) = 'completada'
+          AND r.usadaenmodelo = false
+          AND r.usuario IS NOT NULL
+          AND r.espacio IS NOT NULL
+          AND r.fechaInicio IS NOT NULL
+        ORDER BY r.idReserva
+    """;
+
+    // day of week de HQL va de 1 (domingo) a 7; se guarda como el DOW de PostgreSQL
+    private static final String INSERTAR_CONTEOS = """
+        INSERT INTO ConteoRecomendacion (id.idUsuario, id.diaSemana, id.hora, id.idEspacio, reservas)
+        SELECT
+            r.usuario.idUsuario,
+            extract(day of week from r.fechaInicio) - 1,
+            extract(hour from r.fechaInicio),
+            r.espacio.idEspacio,
+            count(r)
+        FROM Reserva r
+        WHERE lower(r.estado.descripcion) = 'completada'
+          AND r.usadaenmodelo = true
+          AND r.usuario IS NOT NULL
+          AND r.espacio IS NOT NULL
+          AND r.fechaInicio IS NOT NULL
+        GROUP BY r.usuario.idUsuario, extract(day of week from r.fechaInicio) - 1, extract(hour from r.fechaInicio), r.espacio.idEspacio
+    """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Map<ConteoRecomendacionId, Long> acumularPendientes(int limite) {
+        List<Object[]> pendientes = entityManager.createQuery(PENDIENTES, Object[].class)
+                .setMaxResults(limite)
+                .getResultList();
+        if (pendientes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> idsReserva = new ArrayList<>(pendientes.size());
+        Set<Long> idsUsuario = new HashSet<>();
+        Map<ConteoRecomendacionId, Long> incremento = new HashMap<>();
+        for (Object[] fila : pendientes) {
+            LocalDateTime inicio = (LocalDateTime) fila[3];
+            ConteoRecomendacionId id = new ConteoRecomendacionId(
+                    (Long) fila[1],
+                    inicio.getDayOfWeek().getValue() % 7,
+                    inicio.getHour(),
+                    (Long) fila[2]
+            );
+            incremento.merge(id, 1L, Long::sum);
+            idsReserva.add((Long) fila[0]);
+            idsUsuario.add(id.getIdUsuario());
+        }
+
+        // Conteos actuales de los usuarios afectados, en una sola consulta
+        Map<ConteoRecomendacionId, ConteoRecomendacion> actuales = new HashMap<>();
+        entityManager.createQuery("SELECT c FROM ConteoRecomendacion c WHERE c.id.idUsuario IN :idsUsuario", ConteoRecomendacion.class)
+                .setParameter("idsUsuario", idsUsuario)
+                .getResultList()
+                .forEach(c -> actuales.put(c.getId(), c));
+
+        incremento.forEach((id, cantidad) -> {
+            ConteoRecomendacion conteo = actuales.get(id);
+            if (conteo != null) {
+                conteo.setReservas(conteo.getReservas() + cantidad);
+            } else {
+                entityManager.persist(new ConteoRecomendacion(id, cantidad));
+            }
+        });
+
+        entityManager.createQuery("UPDATE Reserva r SET r.usadaenmodelo = true WHERE r.idReserva IN :ids")
+                .setParameter("ids", idsReserva)
+                .executeUpdate();
+
+        return incremento;
+    }
+
+    @Override
+    public boolean hayCompletadasSinContar() {
+        return !entityManager.createQuery("""
+                SELECT r.idReserva FROM Reserva r
+                WHERE lower(r.estado.descripcion) = 'completada'
+                  AND r.usadaenmodelo = true
+                  AND r.usuario IS NOT NULL
+                  AND r.espacio IS NOT NULL
+                  AND r.fechaInicio IS NOT NULL
+                """, Long.class)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    @Override
+    @Transactional
+    public int reconstruirTodo() {
+        // Primero se marcan: las que se completen mientras tanto quedan para el siguiente incremento
+        entityManager.createQuery("""
+                UPDATE Reserva r SET r.usadaenmodelo = true
+                WHERE r.usadaenmodelo = false
+                  AND r.estado.idEstado IN (SELECT e.idEstado FROM EstadoReserva e WHERE lower(e.descripcion) = 'completada')
+                """)
+                .executeUpdate();
+
+        entityManager.createQuery("DELETE FROM ConteoRecomendacion").executeUpdate();
+
+        return entityManager.createQuery(INSERTAR_CONTEOS).executeUpdate();
+    }
+}
@@ -1,10 +1,17 @@
 package com.gestion.reservas.repository;
 
+import com.gestion.reservas.dto.ComentarioDTO;
 import com.gestion.reservas.dto.EspacioComentariosDTO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface  EspacioComentariosRepositoryCustom {
 
-    List<EspacioComentariosDTO> obtenerResumenComentariosPorEspacio();
+    List<EspacioComentariosDTO> obtenerEspaciosResumen();
+
+    Map<Long, List<ComentarioDTO>> obtenerUltimosComentariosAprobados(Collection<Long> idsEspacio, int comentariosPorEspacio);
+
+    List<ComentarioDTO> obtenerComentariosAprobadosPorEspacio(Long idEspacio, int desde, int limite);
 }
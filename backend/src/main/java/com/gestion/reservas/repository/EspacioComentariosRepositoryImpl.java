@@ -5,7 +5,10 @@ import com.gestion.reservas.dto.EspacioComentariosDTO;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class EspacioComentariosRepositoryImpl implements EspacioComentariosRepositoryCustom {
@@ -13,42 +16,30 @@ public class EspacioComentariosRepositoryImpl implements EspacioComentariosRepos
     @PersistenceContext
     private EntityManager entityManager;
 
+    // Datos básicos de cada espacio; las valoraciones se completan desde ValoracionesEspacio
     @Override
-    public List<EspacioComentariosDTO> obtenerResumenComentariosPorEspacio() {
+    public List<EspacioComentariosDTO> obtenerEspaciosResumen() {
         String sql = """
-        SELECT 
-            e.id_espacio,
-            e.nombre,
-            e.imagen,
-            COALESCE(AVG(CASE WHEN ec.descripcion = 'Aprobado' THEN c.valoracion ELSE NULL END), 0.0) AS promedio,
-            COUNT(CASE WHEN ec.descripcion = 'Aprobado' THEN 1 ELSE NULL END) AS cantidad
+        SELECT e.id_espacio, e.nombre, e.imagen
         FROM espacios e
-        LEFT JOIN reservas r ON r.id_espacio = e.id_espacio
-        LEFT JOIN comentarios c ON c.id_reserva = r.id_reserva
-        LEFT JOIN estados_comentario ec ON ec.id_estado = c.id_estado
-        GROUP BY e.id_espacio, e.nombre, e.imagen
+        ORDER BY e.id_espacio
     """;
 
         List<Object[]> resultados = entityManager.createNativeQuery(sql).getResultList();
 
-        return resultados.stream().map(row -> {
-            Long idEspacio = ((Number) row[0]).longValue();
-
-            EspacioComentariosDTO dto = new EspacioComentariosDTO(
-                    idEspacio,
-                    (String) row[1],
-                    (String) row[2],
-                    ((Number) row[3]).doubleValue(),
-                    ((Number) row[4]).longValue()
-            );
-
-            dto.setComentarios(obtenerComentariosAprobadosPorEspacio(idEspacio));
-            return dto;
-        }).collect(Collectors.toList());
-
+        return resultados.stream()
+                .map(row -> new EspacioComentariosDTO(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        (String) row[2],
+                        0.0,
+                        0L
+                ))
+                .collect(Collectors.toList());
     }
 
-    public List<ComentarioDTO> obtenerComentariosAprobadosPorEspacio(Long idEspacio) {
+    @Override
+    public List<ComentarioDTO> obtenerComentariosAprobadosPorEspacio(Long idEspacio, int desde, int limite) {
         String sql = """
         SELECT 
             c.id_comentario,
@@ -65,25 +56,72 @@ public class EspacioComentariosRepositoryImpl implements EspacioComentariosRepos
         JOIN usuarios u ON u.id_usuario = r.id_usuario
         JOIN estados_comentario ec ON ec.id_estado = c.id_estado
         WHERE r.id_espacio = :idEspacio AND ec.descripcion = 'Aprobado'
-        ORDER BY c.fecha DESC
+        ORDER BY c.fecha DESC, c.id_comentario DESC
     """;
 
         List<Object[]> rows = entityManager.createNativeQuery(sql)
                 .setParameter("idEspacio", idEspacio)
+                .setFirstResult(desde)
+                .setMaxResults(limite)
                 .getResultList();
 
         return rows.stream()
-                .map(r -> new ComentarioDTO(
-                        ((Number) r[0]).longValue(),         // idComentario
-                        (String) r[1],                       // texto
-                        ((Number) r[2]).intValue(),          // valoracion
-                        ((java.sql.Timestamp) r[3]).toLocalDateTime(), // fecha
-                        (String) r[4],                       // estadoDescripcion
-                        ((Number) r[5]).longValue(),         // idEstado
-                        (String) r[6],                       // nombreUsuario
-                        ((Number) r[7]).longValue(),         // idUsuario
-                        ((Number) r[8]).longValue()          // idReserva
-                ))
+                .map(this::toComentarioDTO)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    // Los K comentarios aprobados más recientes de cada espacio, en una sola consulta
+    @Override
+    public Map<Long, List<ComentarioDTO>> obtenerUltimosComentariosAprobados(Collection<Long> idsEspacio, int comentariosPorEspacio) {
+        if (idsEspacio.isEmpty() || comentariosPorEspacio <= 0) {
+            return Collections.emptyMap();
+        }
+
+        String sql = """
+        SELECT * FROM (
+            SELECT 
+                c.id_comentario,
+                c.texto,
+                c.valoracion,
+                c.fecha,
+                ec.descripcion,
+                ec.id_estado,
+                u.nombre AS nombre_usuario,
+                u.id_usuario,
+                r.id_reserva,
+                r.id_espacio,
+                ROW_NUMBER() OVER (PARTITION BY r.id_espacio ORDER BY c.fecha DESC, c.id_comentario DESC) AS posicion
+            FROM comentarios c
+            JOIN reservas r ON r.id_reserva = c.id_reserva
+            JOIN usuarios u ON u.id_usuario = r.id_usuario
+            JOIN estados_comentario ec ON ec.id_estado = c.id_estado
+            WHERE r.id_espacio IN (:idsEspacio) AND ec.descripcion = 'Aprobado'
+        ) ultimos
+        WHERE ultimos.posicion <= :comentariosPorEspacio
+        ORDER BY ultimos.id_espacio, ultimos.posicion
+    """;
+
+        List<Object[]> rows = entityManager.createNativeQuery(sql)
+                .setParameter("idsEspacio", idsEspacio)
+                .setParameter("comentariosPorEspacio", comentariosPorEspacio)
+                .getResultList();
+
+        return rows.stream()
+                .collect(Collectors.groupingBy(r -> ((Number) r[9]).longValue(),
+                        Collectors.mapping(this::toComentarioDTO, Collectors.toList())));
+    }
+
+    private ComentarioDTO toComentarioDTO(Object[] r) {
+        return new ComentarioDTO(
+                ((Number) r[0]).longValue(),         // idComentario
+                (String) r[1],                       // texto
+                ((Number) r[2]).intValue(),          // valoracion
+                ((java.sql.Timestamp) r[3]).toLocalDateTime(), // fecha
+                (String) r[4],                       // estadoDescripcion
+                ((Number) r[5]).longValue(),         // idEstado
+                (String) r[6],                       // nombreUsuario
+                ((Number) r[7]).longValue(),         // idUsuario
+                ((Number) r[8]).longValue()          // idReserva
+        );
+    }
+}
@@ -3,11 +3,48 @@ package com.gestion.reservas.repository;
 import com.gestion.reservas.entity.Espacio;
 import com.gestion.reservas.entity.Reserva;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface EspacioRepository extends JpaRepository<Espacio, Long> {
     int countByEstado_IdEstado(Long idEstado);
     List<Espacio> findAllByOrderByIdEspacioDesc();
-}
 
+    // Espacios en estado 'Disponible' con tipo, estado y equipamiento ya resueltos
+    @Query("""
+      SELECT DISTINCT e FROM Espacio e
+      JOIN FETCH e.tipoEspacio t
+      JOIN FETCH e.estado est
+      LEFT JOIN FETCH e.equipamientos
+      WHERE est.descripcion = 'Disponible'
+        AND (:capacidad IS NULL OR e.capacidad >= :capacidad)
+        AND (:idTipoEspacio IS NULL OR t.idTipoEspacio = :idTipoEspacio)
+    """)
+    List<Espacio> buscarCandidatosDisponibles(
+            @Param("capacidad") Integer capacidad,
+            @Param("idTipoEspacio") Long idTipoEspacio
+    );
+
+    // Espacios que cuentan como tiempo reservable en la ocupación
+    @Query("""
+      SELECT e.idEspacio FROM Espacio e
+      WHERE e.estado.descripcion = 'Disponible'
+        AND (:idTipoEspacio IS NULL OR e.tipoEspacio.idTipoEspacio = :idTipoEspacio)
+    """)
+    List<Long> findIdsReservables(@Param("idTipoEspacio") Long idTipoEspacio);
+
+    // Pares (idEspacio, nombre) sin cargar las entidades
+    @Query("SELECT e.idEspacio, e.nombre FROM Espacio e WHERE e.idEspacio IN :ids")
+    List<Object[]> findNombresByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Ternas (idEspacio, capacidad, descripción del estado) sin cargar las entidades
+    @Query("""
+      SELECT e.idEspacio, e.capacidad, est.descripcion FROM Espacio e
+      LEFT JOIN e.estado est
+      WHERE e.idEspacio IN :ids
+    """)
+    List<Object[]> findCapacidadYEstadoByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,57 @@
+package com.gestion.reservas.repository;
+
+import com.gestion.reservas.dto.EspacioRecomendadoDTO;
+import com.gestion.reservas.dto.RecomendacionResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+// Histórico de recomendaciones; la tabla la escribe también el predictor Python y no tiene entidad JPA
+@Repository
+public class RecomendacionRepository {
+
+    private static final String INSERTAR = """
+        INSERT INTO recomendaciones
+            (id_usuario, nombre_usuario, dia_semana, hora, id_espacio, nombre_espacio)
+        VALUES (?, ?, ?, ?, ?, ?)
+    """;
+
+    // Filas por executeBatch; el lote de un correo semanal puede tener miles de usuarios
+    private static final int FILAS_POR_LOTE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Todas las filas de todas las respuestas con una sola sentencia preparada, en lotes JDBC
+    @Transactional
+    public void registrar(List<RecomendacionResponseDTO> respuestas) {
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement sentencia = conexion.prepareStatement(INSERTAR)) {
+                int pendientes = 0;
+                for (RecomendacionResponseDTO respuesta : respuestas) {
+                    for (EspacioRecomendadoDTO recomendacion : respuesta.getRecomendaciones()) {
+                        sentencia.setLong(1, respuesta.getUsuario_id());
+                        sentencia.setString(2, respuesta.getNombre_usuario());
+                        sentencia.setInt(3, respuesta.getDia_semana());
+                        sentencia.setInt(4, respuesta.getHora());
+                        sentencia.setLong(5, recomendacion.getEspacio_id());
+                        sentencia.setString(6, recomendacion.getNombre_espacio());
+                        sentencia.addBatch();
+                        if (++pendientes == FILAS_POR_LOTE) {
+                            sentencia.executeBatch();
+                            pendientes = 0;
+                        }
+                    }
+                }
+                if (pendientes > 0) {
+                    sentencia.executeBatch();
+                }
+            }
+        });
+    }
+}
@@ -1,7 +1,9 @@
 package com.gestion.reservas.repository;
 
+import com.gestion.reservas.dto.IntervaloReservaDTO;
 import com.gestion.reservas.entity.EstadoReserva;
 import com.gestion.reservas.entity.Reserva;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,12 +38,93 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long>, Reserva
             @Param("fin") LocalDateTime fin
     );
 
+    // Igual que findByEspacioIdAndRangoFechasSolapado, excluyendo la propia reserva al modificarla
+    @Query("""
+      SELECT COUNT(r) > 0 FROM Reserva r
+      WHERE r.espacio.idEspacio = :idEspacio
+        AND r.estado.descripcion != 'Cancelada'
+        AND (:idReserva IS NULL OR r.idReserva != :idReserva)
+        AND r.fechaInicio <= :fin AND r.fechaFin >= :inicio
+    """)
+    boolean existeSolapamiento(
+            @Param("idEspacio") Long idEspacio,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fin") LocalDateTime fin,
+            @Param("idReserva") Long idReserva
+    );
+
+    @Query("""
+      SELECT DISTINCT r.espacio.idEspacio FROM Reserva r
+      WHERE r.espacio.idEspacio IN :idsEspacio
+        AND r.estado.descripcion != 'Cancelada'
+        AND r.fechaInicio <= :fin AND r.fechaFin >= :inicio
+    """)
+    List<Long> findEspaciosOcupados(
+            @Param("idsEspacio") Collection<Long> idsEspacio,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fin") LocalDateTime fin
+    );
+
+    @Query("""
+      SELECT new com.gestion.reservas.dto.IntervaloReservaDTO(
+          r.idReserva, r.espacio.idEspacio, r.fechaInicio, r.fechaFin)
+      FROM Reserva r
+      WHERE r.espacio.idEspacio IN :idsEspacio
+        AND r.estado.descripcion != 'Cancelada'
+        AND r.fechaInicio <= :hasta AND r.fechaFin >= :desde
+      ORDER BY r.espacio.idEspacio, r.fechaInicio
+    """)
+    List<IntervaloReservaDTO> findIntervalosEntre(
+            @Param("idsEspacio") Collection<Long> idsEspacio,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta
+    );
+
+    // Igual que findIntervalosEntre, filtrando opcionalmente por estado de la reserva
+    @Query("""
+      SELECT new com.gestion.reservas.dto.IntervaloReservaDTO(
+          r.idReserva, r.espacio.idEspacio, r.fechaInicio, r.fechaFin)
+      FROM Reserva r
+      WHERE r.espacio.idEspacio IN :idsEspacio
+        AND r.estado.descripcion != 'Cancelada'
+        AND (:idEstado IS NULL OR r.estado.idEstado = :idEstado)
+        AND r.fechaInicio < :hasta AND r.fechaFin > :desde
+      ORDER BY r.espacio.idEspacio, r.fechaInicio
+    """)
+    List<IntervaloReservaDTO> findIntervalosOcupacion(
+            @Param("idsEspacio") Collection<Long> idsEspacio,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta,
+            @Param("idEstado") Long idEstado
+    );
+
+    // Solo las columnas necesarias para el índice de disponibilidad en memoria
+    @Query("""
+      SELECT new com.gestion.reservas.dto.IntervaloReservaDTO(
+          r.idReserva, r.espacio.idEspacio, r.fechaInicio, r.fechaFin)
+      FROM Reserva r
+      WHERE r.estado.descripcion != 'Cancelada'
+        AND r.fechaInicio IS NOT NULL
+        AND r.fechaFin IS NOT NULL
+    """)
+    List<IntervaloReservaDTO> obtenerIntervalosActivos();
+
+    @Override
+    @EntityGraph(Reserva.GRAFO_DETALLE)
+    List<Reserva> findAll();
+
+    @EntityGraph(Reserva.GRAFO_DETALLE)
     List<Reserva> findAllByOrderByIdReservaDesc();
 
+    @EntityGraph(Reserva.GRAFO_DETALLE)
     List<Reserva> findByFechaInicioBetween(LocalDateTime inicio, LocalDateTime fin);
+
+    @EntityGraph(Reserva.GRAFO_DETALLE)
     List<Reserva> findByEstadoAndFechaFinBefore(EstadoReserva estado, LocalDateTime fechaFin);
 
+    @EntityGraph(Reserva.GRAFO_DETALLE)
     List<Reserva> findByUsuarioIdUsuario(Long idUsuario);
 
+    @EntityGraph(Reserva.GRAFO_DETALLE)
     List<Reserva> findByEstadoAndFechaInicioBetween(EstadoReserva estado, LocalDateTime desde, LocalDateTime hasta);
 }
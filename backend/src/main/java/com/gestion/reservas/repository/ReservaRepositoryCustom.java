@@ -1,11 +1,34 @@
 package com.gestion.reservas.repository;
 
 
+import com.gestion.reservas.dto.FiltroReservasDTO;
+import com.gestion.reservas.dto.ReservaExportacionDTO;
+import com.gestion.reservas.dto.ResumenReservasDTO;
 import com.gestion.reservas.entity.Reserva;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ReservaRepositoryCustom {
     List<Reserva> buscarPorFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId);
+
+    List<Reserva> buscarPagina(FiltroReservasDTO filtro, Long idReservaAnterior, int limite);
+
+    // Agregados para el dashboard con los mismos filtros que buscarPorFiltros
+    ResumenReservasDTO resumirPorFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId);
+
+    long contarUsuariosActivosConFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId);
+
+    Map<LocalDate, Long> contarPorDiaConFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId);
+
+    Map<String, Long> contarPorTipoEspacioConFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId);
+
+    List<Reserva> buscarUltimasPorFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId, int limite);
+
+    // Recorre con un cursor de solo avance las reservas de buscarPorFiltros, fila a fila y sin cargar entidades
+    long recorrerPorFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId,
+                            int tamanoLote, Consumer<ReservaExportacionDTO> consumidor);
 }
@@ -1,18 +1,30 @@
 package com.gestion.reservas.repository;
 
-import com.gestion.reservas.entity.Reserva;
+import com.gestion.reservas.dto.FiltroReservasDTO;
+import com.gestion.reservas.dto.ReservaExportacionDTO;
+import com.gestion.reservas.dto.ResumenReservasDTO;
+import com.gestion.reservas.entity.*;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.*;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.sqm.TemporalUnit;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
 
 @Repository
 public class ReservaRepositoryCustomImpl implements ReservaRepositoryCustom {
 
+    private static final String CARGA = "jakarta.persistence.loadgraph";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -21,10 +33,197 @@ public class ReservaRepositoryCustomImpl implements ReservaRepositoryCustom {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Reserva> cq = cb.createQuery(Reserva.class);
         Root<Reserva> reserva = cq.from(Reserva.class);
-        Join<Object, Object> espacio = reserva.join("espacio");
+
+        cq.where(filtros(cb, reserva, fechaInicio, fechaFin, tipoEspacioId, estadoId));
+        cq.orderBy(cb.desc(reserva.get("fechaInicio"))); // orden opcional
+
+        return entityManager.createQuery(cq)
+                .setHint(CARGA, entityManager.getEntityGraph(Reserva.GRAFO_DETALLE))
+                .getResultList();
+    }
+
+    @Override
+    public ResumenReservasDTO resumirPorFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<Reserva> reserva = cq.from(Reserva.class);
+
+        // Minutos completos de cada reserva
+        Expression<Long> minutos = cb.floor(cb.durationByUnit(TemporalUnit.MINUTE,
+                cb.durationBetween(reserva.<LocalDateTime>get("fechaFin"), reserva.<LocalDateTime>get("fechaInicio"))));
+
+        cq.multiselect(
+                cb.count(reserva),
+                cb.countDistinct(reserva.get("usuario").get("idUsuario")),
+                cb.sum(minutos)
+        );
+        cq.where(filtros(cb, reserva, fechaInicio, fechaFin, tipoEspacioId, estadoId));
+
+        Object[] fila = entityManager.createQuery(cq).getSingleResult();
+        return new ResumenReservasDTO(
+                ((Number) fila[0]).longValue(),
+                ((Number) fila[1]).longValue(),
+                fila[2] != null ? ((Number) fila[2]).longValue() : 0L
+        );
+    }
+
+    @Override
+    public long contarUsuariosActivosConFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Reserva> reserva = cq.from(Reserva.class);
+
+        cq.select(cb.countDistinct(reserva.get("usuario").get("idUsuario")));
+        cq.where(filtros(cb, reserva, fechaInicio, fechaFin, tipoEspacioId, estadoId));
+
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    @Override
+    public Map<LocalDate, Long> contarPorDiaConFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<Reserva> reserva = cq.from(Reserva.class);
+
+        JpaExpression<LocalDate> dia = ((JpaExpression<LocalDateTime>) reserva.<LocalDateTime>get("fechaInicio")).cast(LocalDate.class);
+
+        cq.multiselect(dia, cb.count(reserva));
+        cq.where(filtros(cb, reserva, fechaInicio, fechaFin, tipoEspacioId, estadoId));
+        cq.groupBy(dia);
+
+        Map<LocalDate, Long> conteo = new HashMap<>();
+        for (Object[] fila : entityManager.createQuery(cq).getResultList()) {
+            if (fila[0] != null) {
+                conteo.put((LocalDate) fila[0], ((Number) fila[1]).longValue());
+            }
+        }
+        return conteo;
+    }
+
+    @Override
+    public Map<String, Long> contarPorTipoEspacioConFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<Reserva> reserva = cq.from(Reserva.class);
+        Path<String> tipo = reserva.join("espacio").join("tipoEspacio").get("descripcion");
+
+        cq.multiselect(tipo, cb.count(reserva));
+        cq.where(filtros(cb, reserva, fechaInicio, fechaFin, tipoEspacioId, estadoId));
+        cq.groupBy(tipo);
+        cq.orderBy(cb.asc(tipo));
+
+        Map<String, Long> conteo = new LinkedHashMap<>();
+        for (Object[] fila : entityManager.createQuery(cq).getResultList()) {
+            conteo.put((String) fila[0], ((Number) fila[1]).longValue());
+        }
+        return conteo;
+    }
+
+    @Override
+    public List<Reserva> buscarUltimasPorFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Reserva> cq = cb.createQuery(Reserva.class);
+        Root<Reserva> reserva = cq.from(Reserva.class);
+
+        cq.where(filtros(cb, reserva, fechaInicio, fechaFin, tipoEspacioId, estadoId));
+        cq.orderBy(cb.desc(reserva.get("idReserva")));
+
+        return entityManager.createQuery(cq)
+                .setHint(CARGA, entityManager.getEntityGraph(Reserva.GRAFO_DETALLE))
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<Reserva> buscarPagina(FiltroReservasDTO filtro, Long idReservaAnterior, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Reserva> cq = cb.createQuery(Reserva.class);
+        Root<Reserva> reserva = cq.from(Reserva.class);
 
         List<Predicate> predicates = new ArrayList<>();
 
+        // Paginación por clave: solo reservas anteriores a la última devuelta
+        if (idReservaAnterior != null) {
+            predicates.add(cb.lessThan(reserva.get("idReserva"), idReservaAnterior));
+        }
+
+        if (filtro.getIdUsuario() != null) {
+            predicates.add(cb.equal(reserva.get("usuario").get("idUsuario"), filtro.getIdUsuario()));
+        }
+
+        if (filtro.getIdEspacio() != null) {
+            predicates.add(cb.equal(reserva.get("espacio").get("idEspacio"), filtro.getIdEspacio()));
+        }
+
+        if (filtro.getIdEstado() != null) {
+            predicates.add(cb.equal(reserva.get("estado").get("idEstado"), filtro.getIdEstado()));
+        }
+
+        if (filtro.getDesde() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(reserva.get("fechaInicio"), filtro.getDesde()));
+        }
+
+        if (filtro.getHasta() != null) {
+            predicates.add(cb.lessThanOrEqualTo(reserva.get("fechaFin"), filtro.getHasta()));
+        }
+
+        cq.where(predicates.toArray(new Predicate[0]));
+        cq.orderBy(cb.desc(reserva.get("idReserva")));
+
+        return entityManager.createQuery(cq)
+                .setHint(CARGA, entityManager.getEntityGraph(Reserva.GRAFO_DETALLE))
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public long recorrerPorFiltros(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId,
+                                   int tamanoLote, Consumer<ReservaExportacionDTO> consumidor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservaExportacionDTO> cq = cb.createQuery(ReservaExportacionDTO.class);
+        Root<Reserva> reserva = cq.from(Reserva.class);
+        Join<Reserva, Usuario> usuario = reserva.join("usuario", JoinType.LEFT);
+        Join<Reserva, Espacio> espacio = reserva.join("espacio", JoinType.LEFT);
+        Join<Espacio, TipoEspacio> tipo = espacio.join("tipoEspacio", JoinType.LEFT);
+        Join<Reserva, EstadoReserva> estado = reserva.join("estado", JoinType.LEFT);
+
+        // Proyección a columnas: las filas no pasan por el contexto de persistencia y la memoria no crece con el total
+        cq.select(cb.construct(ReservaExportacionDTO.class,
+                reserva.get("idReserva"),
+                reserva.get("fechaInicio"),
+                reserva.get("fechaFin"),
+                reserva.get("ocupantes"),
+                usuario.get("idUsuario"),
+                usuario.get("nombre"),
+                usuario.get("email"),
+                espacio.get("idEspacio"),
+                espacio.get("nombre"),
+                tipo.get("descripcion"),
+                estado.get("descripcion")
+        ));
+        cq.where(filtros(cb, reserva, fechaInicio, fechaFin, tipoEspacioId, estadoId));
+        cq.orderBy(cb.asc(reserva.get("idReserva")));
+
+        @SuppressWarnings("unchecked")
+        Query<ReservaExportacionDTO> consulta = entityManager.createQuery(cq).unwrap(Query.class);
+
+        // En PostgreSQL el tamaño de lote solo se respeta dentro de una transacción (sin autocommit)
+        long total = 0;
+        try (ScrollableResults<ReservaExportacionDTO> filas = consulta
+                .setFetchSize(tamanoLote)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (filas.next()) {
+                consumidor.accept(filas.get());
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private Predicate[] filtros(CriteriaBuilder cb, Root<Reserva> reserva, LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId) {
+        List<Predicate> predicates = new ArrayList<>();
+
         if (fechaInicio != null) {
             predicates.add(cb.greaterThanOrEqualTo(reserva.get("fechaInicio"), fechaInicio));
         }
@@ -34,16 +233,13 @@ public class ReservaRepositoryCustomImpl implements ReservaRepositoryCustom {
         }
 
         if (tipoEspacioId != null) {
-            predicates.add(cb.equal(espacio.get("tipoEspacio").get("idTipoEspacio"), tipoEspacioId));
+            predicates.add(cb.equal(reserva.get("espacio").get("tipoEspacio").get("idTipoEspacio"), tipoEspacioId));
         }
 
         if (estadoId != null) {
             predicates.add(cb.equal(reserva.get("estado").get("idEstado"), estadoId));
         }
 
-        cq.where(predicates.toArray(new Predicate[0]));
-        cq.orderBy(cb.desc(reserva.get("fechaInicio"))); // orden opcional
-
-        return entityManager.createQuery(cq).getResultList();
+        return predicates.toArray(new Predicate[0]);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.gestion.reservas.repository;
+
+import com.gestion.reservas.dto.ResumenReservasDTO;
+import com.gestion.reservas.entity.ResumenDiarioReserva;
+import com.gestion.reservas.entity.ResumenDiarioReservaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ResumenDiarioReservaRepository extends JpaRepository<ResumenDiarioReserva, ResumenDiarioReservaId>, ResumenDiarioReservaRepositoryCustom {
+
+    // Los usuarios distintos no se pueden sumar entre días, se calculan aparte
+    @Query("""
+      SELECT new com.gestion.reservas.dto.ResumenReservasDTO(
+          COALESCE(SUM(r.numReservas), 0), 0, COALESCE(SUM(r.minutosReservados), 0))
+      FROM ResumenDiarioReserva r
+      WHERE r.id.dia BETWEEN :desde AND :hasta
+        AND r.id.dia != :excluido
+        AND (:idTipoEspacio IS NULL OR r.id.idTipoEspacio = :idTipoEspacio)
+        AND (:idEstado IS NULL OR r.id.idEstado = :idEstado)
+    """)
+    ResumenReservasDTO resumir(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta,
+            @Param("excluido") LocalDate excluido,
+            @Param("idTipoEspacio") Long idTipoEspacio,
+            @Param("idEstado") Long idEstado
+    );
+
+    @Query("""
+      SELECT r.id.dia, SUM(r.numReservas)
+      FROM ResumenDiarioReserva r
+      WHERE r.id.dia BETWEEN :desde AND :hasta
+        AND r.id.dia != :excluido
+        AND (:idTipoEspacio IS NULL OR r.id.idTipoEspacio = :idTipoEspacio)
+        AND (:idEstado IS NULL OR r.id.idEstado = :idEstado)
+      GROUP BY r.id.dia
+    """)
+    List<Object[]> contarPorDia(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta,
+            @Param("excluido") LocalDate excluido,
+            @Param("idTipoEspacio") Long idTipoEspacio,
+            @Param("idEstado") Long idEstado
+    );
+
+    @Query("""
+      SELECT t.descripcion, SUM(r.numReservas)
+      FROM ResumenDiarioReserva r
+      JOIN TipoEspacio t ON t.idTipoEspacio = r.id.idTipoEspacio
+      WHERE r.id.dia BETWEEN :desde AND :hasta
+        AND r.id.dia != :excluido
+        AND (:idTipoEspacio IS NULL OR r.id.idTipoEspacio = :idTipoEspacio)
+        AND (:idEstado IS NULL OR r.id.idEstado = :idEstado)
+      GROUP BY t.descripcion
+      ORDER BY t.descripcion
+    """)
+    List<Object[]> contarPorTipoEspacio(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta,
+            @Param("excluido") LocalDate excluido,
+            @Param("idTipoEspacio") Long idTipoEspacio,
+            @Param("idEstado") Long idEstado
+    );
+}
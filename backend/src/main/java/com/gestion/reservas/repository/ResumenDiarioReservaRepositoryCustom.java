@@ -0,0 +1,11 @@
+package com.gestion.reservas.repository;
+
+import java.time.LocalDate;
+
+public interface ResumenDiarioReservaRepositoryCustom {
+
+    // Sustituye el resumen de los días [desde, hasta) por lo que hay ahora en reservas
+    int recalcular(LocalDate desde, LocalDate hasta);
+
+    int reconstruirTodo();
+}
@@ -0,0 +1,54 @@
+package com.gestion.reservas.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+public class ResumenDiarioReservaRepositoryImpl implements ResumenDiarioReservaRepositoryCustom {
+
+    // Cada reserva cuenta en el día en que empieza
+    private static final String INSERTAR_RESUMEN = """
+        INSERT INTO ResumenDiarioReserva (
+            id.dia, id.idEspacio, id.idTipoEspacio, id.idEstado,
+            numReservas, minutosReservados)
+        SELECT
+            cast(r.fechaInicio as LocalDate),
+            r.espacio.idEspacio,
+            coalesce(t.idTipoEspacio, 0),
+            r.estado.idEstado,
+            count(r),
+            coalesce(sum(floor((r.fechaFin - r.fechaInicio) by minute)), 0)
+        FROM Reserva r
+        JOIN r.espacio e
+        LEFT JOIN e.tipoEspacio t
+        WHERE r.fechaFin IS NOT NULL %s
+        GROUP BY cast(r.fechaInicio as LocalDate), r.espacio.idEspacio, coalesce(t.idTipoEspacio, 0), r.estado.idEstado
+    """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int recalcular(LocalDate desde, LocalDate hasta) {
+        entityManager.createQuery("DELETE FROM ResumenDiarioReserva r WHERE r.id.dia >= :desde AND r.id.dia < :hasta")
+                .setParameter("desde", desde)
+                .setParameter("hasta", hasta)
+                .executeUpdate();
+
+        return entityManager.createQuery(INSERTAR_RESUMEN.formatted("AND r.fechaInicio >= :desde AND r.fechaInicio < :hasta"))
+                .setParameter("desde", desde.atStartOfDay())
+                .setParameter("hasta", hasta.atStartOfDay())
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int reconstruirTodo() {
+        entityManager.createQuery("DELETE FROM ResumenDiarioReserva").executeUpdate();
+
+        return entityManager.createQuery(INSERTAR_RESUMEN.formatted("")).executeUpdate();
+    }
+}
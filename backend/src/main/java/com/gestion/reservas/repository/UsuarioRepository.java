@@ -2,10 +2,35 @@ package com.gestion.reservas.repository;
 
 import com.gestion.reservas.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.idUsuario FROM Usuario u ORDER BY u.idUsuario")
+    List<Long> findAllIds();
+
+    // Pares (idUsuario, nombre) sin cargar las entidades
+    @Query("SELECT u.idUsuario, u.nombre FROM Usuario u WHERE u.idUsuario IN :ids")
+    List<Object[]> findNombresByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Pares (idUsuario, versionTokens) de los usuarios con alguna revocación
+    @Query("SELECT u.idUsuario, u.versionTokens FROM Usuario u WHERE u.versionTokens > 0")
+    List<Object[]> findVersionesTokens();
+
+    @Query("SELECT u.versionTokens FROM Usuario u WHERE u.idUsuario = :idUsuario")
+    Optional<Integer> findVersionTokens(@Param("idUsuario") Long idUsuario);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.versionTokens = u.versionTokens + 1 WHERE u.idUsuario = :idUsuario")
+    int incrementarVersionTokens(@Param("idUsuario") Long idUsuario);
 }
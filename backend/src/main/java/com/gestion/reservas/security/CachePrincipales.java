@@ -0,0 +1,55 @@
+package com.gestion.reservas.security;
+
+import com.gestion.reservas.event.UsuarioModificadoEvent;
+import com.gestion.reservas.service.CacheLru;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// UserDetails por idUsuario, para que el filtro JWT no consulte usuarios, roles y estados en cada petición.
+// Con caducidad y tamaño máximo; un cambio en el usuario quita su entrada
+@Component
+public class CachePrincipales {
+
+    private final long ttlSegundos;
+    private final CacheLru<Long, UserDetails> entradas;
+
+    public CachePrincipales(@Value("${reservas.seguridad.cache-usuarios.ttl-segundos:60}") long ttlSegundos,
+                            @Value("${reservas.seguridad.cache-usuarios.max-entradas:5000}") int maxEntradas) {
+        this.ttlSegundos = ttlSegundos;
+        this.entradas = new CacheLru<>(maxEntradas, ttlSegundos * 1000);
+    }
+
+    public UserDetails obtener(Long idUsuario, Supplier<UserDetails> cargar) {
+        return entradas.obtener(idUsuario, cargar);
+    }
+
+    @EventListener
+    public void alModificarUsuario(UsuarioModificadoEvent evento) {
+        if (evento.idUsuario() == null) {
+            invalidarTodo();
+            return;
+        }
+        invalidar(evento.idUsuario());
+    }
+
+    public void invalidar(Long idUsuario) {
+        entradas.invalidar(idUsuario);
+    }
+
+    public void invalidarTodo() {
+        entradas.invalidarTodo();
+    }
+
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> estadisticas = entradas.estadisticas();
+        estadisticas.put("ttlSegundos", ttlSegundos);
+        estadisticas.put("actualizado", LocalDateTime.now());
+        return estadisticas;
+    }
+}
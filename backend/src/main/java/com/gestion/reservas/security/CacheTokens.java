@@ -0,0 +1,45 @@
+package com.gestion.reservas.security;
+
+import com.gestion.reservas.service.CacheLru;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+
+// Tokens ya verificados, por el SHA-256 del token y hasta su exp, para no repetir la firma HMAC en cada petición.
+// Solo entran tokens válidos; al superar el máximo se descarta el menos usado
+@Component
+public class CacheTokens {
+
+    // Cada token caduca en su exp: la caché no necesita un ttl propio
+    private final CacheLru<String, TokenVerificado> entradas;
+
+    public CacheTokens(@Value("${jwt.cache.max-entradas:10000}") int maxEntradas) {
+        this.entradas = new CacheLru<>(maxEntradas, 0);
+    }
+
+    public TokenVerificado buscar(String token) {
+        return entradas.buscar(clave(token));
+    }
+
+    public void guardar(String token, TokenVerificado verificado) {
+        entradas.guardar(clave(token), verificado, verificado.expira().toEpochMilli());
+    }
+
+    public Map<String, Object> estadisticas() {
+        return entradas.estadisticas();
+    }
+
+    private static String clave(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final CachePrincipales cachePrincipales;
 
     @Override
 
@@ -32,13 +33,19 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
 
+    // Lo usa el filtro JWT en cada petición: se sirve de la caché mientras no cambie el usuario
     public UserDetails loadUserById(Long id) {
+        return cachePrincipales.obtener(id, () -> cargarPorId(id));
+    }
+
+    private UserDetails cargarPorId(Long id) {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con id: " + id));
 
+        // El filtro JWT no comprueba la contraseña: no se guarda el hash en la caché
         return User.builder()
                 .username(usuario.getEmail())
-                .password(usuario.getPassword())
+                .password("")
                 .roles(usuario.getRol().getDescripcion())
                 .build();
     }
@@ -4,8 +4,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -18,10 +20,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final RevocacionTokens revocacionTokens;
 
-    public JwtAuthenticationFilter(JwtService jwtService, CustomUserDetailsService userDetailsService) {
+    // Sin estado: el usuario sale de los claims firmados y solo se comprueba la versión del token, sin ir a la base de datos
+    private final boolean sinEstado;
+
+    public JwtAuthenticationFilter(JwtService jwtService, CustomUserDetailsService userDetailsService,
+                                   RevocacionTokens revocacionTokens,
+                                   @Value("${jwt.sin-estado:false}") boolean sinEstado) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.revocacionTokens = revocacionTokens;
+        this.sinEstado = sinEstado;
     }
 
     @Override
@@ -48,9 +58,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
 
-            Long idUsuario = jwtService.extractIdUsuario(jwt);
+            // Firma y caducidad se comprueban una vez; las peticiones siguientes con el mismo token salen de la caché
+            TokenVerificado token = jwtService.verificar(jwt).orElse(null);
 
-            if (idUsuario == null) {
+            if (token == null) {
                  response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token inválido o expirado.");
                 return;
             }
@@ -60,13 +71,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            // Cargamos usuario desde DB
-            UserDetails userDetails = userDetailsService.loadUserById(idUsuario);
-
-            // Validamos el token contra los datos del usuario
-            if (!jwtService.isTokenValid(jwt, userDetails)) {
-               response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token inválido.");
-                return;
+            UserDetails userDetails;
+            if (sinEstado && token.email() != null && token.rol() != null) {
+                // El token no debe haberse emitido antes de un cambio de contraseña, estado o rol
+                if (!revocacionTokens.vigente(token)) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revocado.");
+                    return;
+                }
+                userDetails = User.builder()
+                        .username(token.email())
+                        .password("")
+                        .roles(token.rol())
+                        .build();
+            } else {
+                // Cargamos usuario desde DB
+                userDetails = userDetailsService.loadUserById(token.idUsuario());
+
+                // Validamos el token contra los datos del usuario
+                if (!userDetails.getUsername().equals(token.email())) {
+                   response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token inválido.");
+                    return;
+                }
             }
 
             // Creamos el token de autenticación de Spring
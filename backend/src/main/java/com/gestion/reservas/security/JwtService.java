@@ -6,26 +6,35 @@ import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class JwtService {
 
+    private final CacheTokens cacheTokens;
+
     @Value("${jwt.secret}")
     private String secretKeyEncoded;
 
     private Key signingKey;
 
+    // El parser es inmutable: se construye una vez y se comparte entre peticiones
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         byte[] decodedKey = Base64.getDecoder().decode(secretKeyEncoded);
         this.signingKey = Keys.hmacShaKeyFor(decodedKey);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
 
@@ -37,77 +46,51 @@ public class JwtService {
                 .claim("idUsuario", usuario.getIdUsuario())
                 .claim("email", usuario.getEmail())
                 .claim("rol", usuario.getRol().getDescripcion())
+                // La versión sale de la fila recién leída: la copia en memoria de RevocacionTokens puede ir por detrás
+                .claim("ver", usuario.getVersionTokens())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 24h
                 .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public Long extractIdUsuario(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(signingKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+    // Comprueba firma y caducidad una sola vez y devuelve todos los claims que se usan.
+    // Un token ya verificado se sirve de la caché hasta su exp sin volver a calcular la firma
+    public Optional<TokenVerificado> verificar(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        TokenVerificado verificado = cacheTokens.buscar(token);
+        if (verificado != null) {
+            return Optional.of(verificado);
+        }
 
-            return claims.get("idUsuario", Long.class);
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long idUsuario = claims.get("idUsuario", Long.class);
+            Date expiracion = claims.getExpiration();
+            if (idUsuario == null || expiracion == null) {
+                System.out.println("Token sin idUsuario o sin fecha de expiración");
+                return Optional.empty();
+            }
+
+            // Los tokens anteriores a la versión no la llevan: equivalen a la 0
+            Integer version = claims.get("ver", Integer.class);
+            verificado = new TokenVerificado(idUsuario, claims.get("email", String.class), claims.getSubject(),
+                    claims.get("rol", String.class), version != null ? version : 0, expiracion.toInstant());
+            cacheTokens.guardar(token, verificado);
+            return Optional.of(verificado);
 
         } catch (ExpiredJwtException e) {
-            System.out.println("Token expirado al extraer ID: " + e.getMessage());
-            return null;
-        } catch (JwtException e) {
-            System.out.println("Error al extraer ID del token: " + e.getMessage());
-            return null;
+            System.out.println("Token expirado: " + e.getMessage());
+            return Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            System.out.println("Token inválido: " + e.getMessage());
+            return Optional.empty();
         }
     }
 
-
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-
-    public String extractEmail(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.get("email", String.class);
-    }
-
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String useremail = extractEmail(token);
-
-        return useremail.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    public boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
-    }
-
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(signingKey)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            System.out.println("[WebSocket] validateToken error: " + e.getMessage());
-            return false;
-        }
+    public Map<String, Object> estadisticasCache() {
+        return cacheTokens.estadisticas();
     }
 }
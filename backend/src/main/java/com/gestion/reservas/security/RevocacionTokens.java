@@ -0,0 +1,95 @@
+package com.gestion.reservas.security;
+
+import com.gestion.reservas.event.UsuarioModificadoEvent;
+import com.gestion.reservas.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versión de los tokens de cada usuario para el modo sin estado: cada token lleva la versión vigente al emitirse
+// y deja de valer cuando se incrementa (contraseña cambiada, usuario inactivado, borrado o editado por un administrador).
+// La versión se guarda en usuarios.version_tokens; aquí se copian las de los usuarios con alguna revocación,
+// al arrancar y periódicamente para recoger las hechas por otras instancias
+@Component
+@RequiredArgsConstructor
+public class RevocacionTokens {
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final ConcurrentHashMap<Long, Integer> versiones = new ConcurrentHashMap<>();
+
+    private final AtomicLong revocaciones = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calentar() {
+        try {
+            recargar();
+            System.out.println("[REVOCACION] Usuarios con tokens revocados: " + versiones.size());
+        } catch (Exception e) {
+            System.err.println("[REVOCACION] No se pudieron cargar las versiones de los tokens: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservas.seguridad.revocacion.refresco-ms:30000}",
+            initialDelayString = "${reservas.seguridad.revocacion.refresco-ms:30000}")
+    public void refrescoPeriodico() {
+        try {
+            recargar();
+        } catch (Exception e) {
+            System.err.println("[REVOCACION] Error al recargar las versiones de los tokens: " + e.getMessage());
+        }
+    }
+
+    // Las versiones solo crecen: se queda con la mayor entre memoria y base de datos
+    public void recargar() {
+        List<Object[]> filas = usuarioRepository.findVersionesTokens();
+        for (Object[] fila : filas) {
+            versiones.merge((Long) fila[0], ((Number) fila[1]).intValue(), Math::max);
+        }
+    }
+
+    public int version(Long idUsuario) {
+        return versiones.getOrDefault(idUsuario, 0);
+    }
+
+    // Un token emitido con una versión posterior (por otra instancia) no se rechaza
+    public boolean vigente(TokenVerificado token) {
+        if (token.version() >= version(token.idUsuario())) {
+            return true;
+        }
+        rechazados.incrementAndGet();
+        return false;
+    }
+
+    public void revocar(Long idUsuario) {
+        usuarioRepository.incrementarVersionTokens(idUsuario);
+        // Si el usuario ya no existe, la revocación queda solo en memoria
+        int guardada = usuarioRepository.findVersionTokens(idUsuario).orElse(0);
+        versiones.compute(idUsuario, (id, actual) -> Math.max(guardada, actual != null ? actual + 1 : 1));
+        revocaciones.incrementAndGet();
+    }
+
+    @EventListener
+    public void alModificarUsuario(UsuarioModificadoEvent evento) {
+        if (evento.revocarTokens() && evento.idUsuario() != null) {
+            revocar(evento.idUsuario());
+        }
+    }
+
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("usuariosRevocados", versiones.size());
+        estadisticas.put("revocaciones", revocaciones.get());
+        estadisticas.put("tokensRechazados", rechazados.get());
+        return estadisticas;
+    }
+}
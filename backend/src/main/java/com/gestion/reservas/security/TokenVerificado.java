@@ -0,0 +1,7 @@
+package com.gestion.reservas.security;
+
+import java.time.Instant;
+
+// Claims de un JWT con la firma y la caducidad ya comprobadas
+public record TokenVerificado(Long idUsuario, String email, String nombre, String rol, int version, Instant expira) {
+}
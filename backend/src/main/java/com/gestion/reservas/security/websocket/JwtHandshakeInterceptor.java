@@ -2,6 +2,7 @@ package com.gestion.reservas.security.websocket;
 
 import com.gestion.reservas.security.JwtService;
 import com.gestion.reservas.security.JwtUtil;
+import com.gestion.reservas.security.TokenVerificado;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.server.ServerHttpRequest;
@@ -11,6 +12,7 @@ import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
 import java.util.Map;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 public class JwtHandshakeInterceptor implements HandshakeInterceptor {
@@ -28,15 +30,10 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
             String token = httpRequest.getParameter("token");
 
-            if (token != null && jwtService.validateToken(token)) {
-                try {
-                    Long idUsuario = jwtService.extractIdUsuario(token);
-                    attributes.put("idUsuario", idUsuario);
-                    return true;
-                } catch (Exception ex) {
-                    System.err.println("Error al extraer ID de usuario del token: " + ex.getMessage());
-
-                }
+            Optional<TokenVerificado> verificado = jwtService.verificar(token);
+            if (verificado.isPresent()) {
+                attributes.put("idUsuario", verificado.get().idUsuario());
+                return true;
             } else {
                 System.err.println("Token JWT inválido o ausente en la conexión WebSocket");
             }
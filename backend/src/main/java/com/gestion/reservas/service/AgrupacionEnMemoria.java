@@ -0,0 +1,94 @@
+package com.gestion.reservas.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Base de los índices en memoria que agrupan filas por espacio (u otra clave) y se mantienen
+// de forma incremental. Cada elemento se guarda por su id para que registrar dos veces lo mismo
+// sustituya en lugar de sumar, y un contador de versión detecta escrituras durante una recarga
+public abstract class AgrupacionEnMemoria<V, G> {
+
+    private volatile Map<Long, G> grupos = new ConcurrentHashMap<>();
+    private volatile Map<Long, V> porId = new ConcurrentHashMap<>();
+    private volatile boolean cargado = false;
+
+    private final AtomicLong version = new AtomicLong();
+
+    protected abstract Long id(V elemento);
+
+    protected abstract Long idGrupo(V elemento);
+
+    protected abstract G nuevoGrupo();
+
+    protected abstract void agregar(G grupo, V elemento);
+
+    protected abstract void quitar(G grupo, V elemento);
+
+    public boolean isCargado() {
+        return cargado;
+    }
+
+    public synchronized void eliminar(Long id) {
+        version.incrementAndGet();
+        V anterior = porId.remove(id);
+        if (anterior != null) {
+            quitarDeGrupo(anterior);
+        }
+    }
+
+    protected synchronized void poner(V elemento) {
+        version.incrementAndGet();
+        V anterior = porId.put(id(elemento), elemento);
+        if (anterior != null) {
+            quitarDeGrupo(anterior);
+        }
+        agregar(grupos.computeIfAbsent(idGrupo(elemento), id -> nuevoGrupo()), elemento);
+    }
+
+    protected G grupo(Long idGrupo) {
+        return grupos.get(idGrupo);
+    }
+
+    protected Map<Long, V> elementos() {
+        return Collections.unmodifiableMap(porId);
+    }
+
+    protected int cantidadGrupos() {
+        return grupos.size();
+    }
+
+    protected long version() {
+        return version.get();
+    }
+
+    protected synchronized void reemplazar(List<V> elementos) {
+        Map<Long, G> nuevosGrupos = new ConcurrentHashMap<>();
+        Map<Long, V> nuevoPorId = new ConcurrentHashMap<>();
+        for (V elemento : elementos) {
+            nuevoPorId.put(id(elemento), elemento);
+            agregar(nuevosGrupos.computeIfAbsent(idGrupo(elemento), id -> nuevoGrupo()), elemento);
+        }
+        this.porId = nuevoPorId;
+        this.grupos = nuevosGrupos;
+        cargado = true;
+    }
+
+    // Sustituye el contenido solo si no hubo cambios desde versionInicial; si los hubo, la foto leída puede estar desfasada
+    protected synchronized boolean reemplazarSiSinCambios(long versionInicial, List<V> elementos) {
+        if (version.get() != versionInicial) {
+            return false;
+        }
+        reemplazar(elementos);
+        return true;
+    }
+
+    private void quitarDeGrupo(V elemento) {
+        G grupo = grupos.get(idGrupo(elemento));
+        if (grupo != null) {
+            quitar(grupo, elemento);
+        }
+    }
+}
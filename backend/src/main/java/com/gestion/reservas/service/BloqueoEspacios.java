@@ -0,0 +1,61 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.entity.Reserva;
+import com.gestion.reservas.exception.ReservaSolapadaException;
+import com.gestion.reservas.repository.ReservaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bloqueos por franjas: las reservas de un mismo espacio se serializan,
+// las de espacios distintos pueden crearse en paralelo.
+// Bajo el bloqueo solo se hacen la comprobación de solapamiento, el guardado y la actualización del índice;
+// cualquier llamada externa (Google Calendar, notificaciones) va después, fuera de él
+@Component
+public class BloqueoEspacios {
+
+    private static final int FRANJAS = 64;
+
+    private final ReservaRepository reservaRepository;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final ReentrantLock[] bloqueos = new ReentrantLock[FRANJAS];
+
+    public BloqueoEspacios(ReservaRepository reservaRepository, IndiceDisponibilidad indiceDisponibilidad) {
+        this.reservaRepository = reservaRepository;
+        this.indiceDisponibilidad = indiceDisponibilidad;
+        for (int i = 0; i < FRANJAS; i++) {
+            bloqueos[i] = new ReentrantLock();
+        }
+    }
+
+    // Guarda la reserva si no se solapa con otra del mismo espacio; si se solapa lanza ReservaSolapadaException
+    public Reserva guardarSinSolapar(Reserva reserva) {
+        ReentrantLock bloqueo = bloqueos[Math.floorMod(reserva.getEspacio().getIdEspacio().hashCode(), FRANJAS)];
+        bloqueo.lock();
+        try {
+            comprobarSolapamiento(reserva);
+            Reserva guardada = reservaRepository.save(reserva);
+            indiceDisponibilidad.registrar(guardada);
+            return guardada;
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private void comprobarSolapamiento(Reserva reserva) {
+        if ("Cancelada".equalsIgnoreCase(reserva.getEstado().getDescripcion())) {
+            return;
+        }
+
+        boolean solapada = reservaRepository.existeSolapamiento(
+                reserva.getEspacio().getIdEspacio(),
+                reserva.getFechaInicio(),
+                reserva.getFechaFin(),
+                reserva.getIdReserva()
+        );
+        if (solapada) {
+            throw new ReservaSolapadaException(
+                    reserva.getEspacio().getIdEspacio(), reserva.getFechaInicio(), reserva.getFechaFin());
+        }
+    }
+}
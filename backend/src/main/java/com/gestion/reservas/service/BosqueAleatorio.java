@@ -0,0 +1,161 @@
+package com.gestion.reservas.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// RandomForestClassifier de scikit-learn exportado por ml/exportar_bosque.py.
+// Todos los árboles van en los mismos arrays planos: cada nodo guarda sus hijos con índice absoluto
+// y las hojas la distribución de clases ya normalizada. Evaluar no reserva memoria.
+public class BosqueAleatorio {
+
+    // Valor de scikit-learn para "sin hijo"
+    private static final int HOJA = -1;
+
+    private final long[] clases;
+    private final int[] raices;
+    private final int[] izquierda;
+    private final int[] derecha;
+    private final int[] caracteristica;
+    private final double[] umbral;
+    // numNodos * numClases: la fila de cada nodo empieza en nodo * numClases
+    private final double[] valores;
+    private final int numCaracteristicas;
+
+    private BosqueAleatorio(long[] clases, int[] raices, int[] izquierda, int[] derecha, int[] caracteristica,
+                            double[] umbral, double[] valores, int numCaracteristicas) {
+        this.clases = clases;
+        this.raices = raices;
+        this.izquierda = izquierda;
+        this.derecha = derecha;
+        this.caracteristica = caracteristica;
+        this.umbral = umbral;
+        this.valores = valores;
+        this.numCaracteristicas = numCaracteristicas;
+    }
+
+    public static BosqueAleatorio cargar(Path ruta) throws IOException {
+        return desdeJson(new ObjectMapper().readTree(ruta.toFile()));
+    }
+
+    public static BosqueAleatorio desdeJson(JsonNode json) {
+        JsonNode nodoClases = json.get("clases");
+        long[] clases = new long[nodoClases.size()];
+        for (int i = 0; i < clases.length; i++) {
+            clases[i] = nodoClases.get(i).asLong();
+        }
+
+        JsonNode arboles = json.get("arboles");
+        if (arboles == null || arboles.isEmpty()) {
+            throw new IllegalArgumentException("El bosque exportado no tiene árboles");
+        }
+
+        int totalNodos = 0;
+        for (JsonNode arbol : arboles) {
+            totalNodos += arbol.get("izquierda").size();
+        }
+
+        int[] raices = new int[arboles.size()];
+        int[] izquierda = new int[totalNodos];
+        int[] derecha = new int[totalNodos];
+        int[] caracteristica = new int[totalNodos];
+        double[] umbral = new double[totalNodos];
+        double[] valores = new double[totalNodos * clases.length];
+
+        int desplazamiento = 0;
+        for (int a = 0; a < arboles.size(); a++) {
+            JsonNode arbol = arboles.get(a);
+            int nodos = arbol.get("izquierda").size();
+            raices[a] = desplazamiento;
+
+            for (int n = 0; n < nodos; n++) {
+                int i = desplazamiento + n;
+                int hijoIzquierdo = arbol.get("izquierda").get(n).asInt();
+                int hijoDerecho = arbol.get("derecha").get(n).asInt();
+                izquierda[i] = hijoIzquierdo == HOJA ? HOJA : desplazamiento + hijoIzquierdo;
+                derecha[i] = hijoDerecho == HOJA ? HOJA : desplazamiento + hijoDerecho;
+                caracteristica[i] = arbol.get("caracteristica").get(n).asInt();
+                umbral[i] = arbol.get("umbral").get(n).asDouble();
+
+                JsonNode fila = arbol.get("valores").get(n);
+                if (fila.size() != clases.length) {
+                    throw new IllegalArgumentException("Nodo " + n + " del árbol " + a + " con " + fila.size() + " clases");
+                }
+                for (int c = 0; c < clases.length; c++) {
+                    valores[i * clases.length + c] = fila.get(c).asDouble();
+                }
+            }
+            desplazamiento += nodos;
+        }
+
+        int numCaracteristicas = json.has("caracteristicas") ? json.get("caracteristicas").size() : 3;
+        return new BosqueAleatorio(clases, raices, izquierda, derecha, caracteristica, umbral, valores, numCaracteristicas);
+    }
+
+    public int getNumClases() {
+        return clases.length;
+    }
+
+    public int getNumCaracteristicas() {
+        return numCaracteristicas;
+    }
+
+    public long clase(int indice) {
+        return clases[indice];
+    }
+
+    // Igual que predict_proba: media de la distribución de la hoja de cada árbol, en el mismo orden de suma
+    public void probabilidades(double[] entrada, double[] salida) {
+        int numClases = clases.length;
+        for (int c = 0; c < numClases; c++) {
+            salida[c] = 0.0;
+        }
+
+        for (int raiz : raices) {
+            int nodo = raiz;
+            while (izquierda[nodo] != HOJA) {
+                // scikit-learn compara las características como float32 contra un umbral double
+                double valor = (float) entrada[caracteristica[nodo]];
+                nodo = valor <= umbral[nodo] ? izquierda[nodo] : derecha[nodo];
+            }
+            int fila = nodo * numClases;
+            for (int c = 0; c < numClases; c++) {
+                salida[c] += valores[fila + c];
+            }
+        }
+
+        for (int c = 0; c < numClases; c++) {
+            salida[c] /= raices.length;
+        }
+    }
+
+    // Índices de las k clases más probables. A igual probabilidad gana el índice menor,
+    // como el sorted estable del predictor Python. Devuelve cuántos índices se han escrito.
+    public static int mejores(double[] probabilidades, int numClases, int[] indices) {
+        int k = Math.min(indices.length, numClases);
+        for (int i = 0; i < k; i++) {
+            int mejor = -1;
+            for (int c = 0; c < numClases; c++) {
+                if (yaElegido(indices, i, c)) {
+                    continue;
+                }
+                if (mejor == -1 || probabilidades[c] > probabilidades[mejor]) {
+                    mejor = c;
+                }
+            }
+            indices[i] = mejor;
+        }
+        return k;
+    }
+
+    private static boolean yaElegido(int[] indices, int hasta, int clase) {
+        for (int i = 0; i < hasta; i++) {
+            if (indices[i] == clase) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.DashBoardDTO;
+import com.gestion.reservas.event.EspacioModificadoEvent;
+import com.gestion.reservas.event.ReservaModificadaEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Respuestas del dashboard por (fechaInicio, fechaFin, tipoEspacioId, estadoId), con caducidad y tamaño máximo.
+// Un cambio en una reserva invalida solo las entradas cuyo rango de fechas incluye los días de la reserva;
+// un cambio en un espacio altera el tiempo reservable de cualquier periodo y las invalida todas
+@Component
+public class CacheDashboard {
+
+    private final long ttlSegundos;
+    private final CacheLru<Clave, DashBoardDTO> entradas;
+
+    public CacheDashboard(@Value("${reservas.dashboard.cache.ttl-segundos:300}") long ttlSegundos,
+                          @Value("${reservas.dashboard.cache.max-entradas:200}") int maxEntradas) {
+        this.ttlSegundos = ttlSegundos;
+        this.entradas = new CacheLru<>(maxEntradas, ttlSegundos * 1000);
+    }
+
+    public DashBoardDTO obtener(LocalDate fechaInicio, LocalDate fechaFin, Long tipoEspacioId, Long estadoId,
+                                Supplier<DashBoardDTO> calcular) {
+        return entradas.obtener(new Clave(fechaInicio, fechaFin, tipoEspacioId, estadoId), calcular);
+    }
+
+    @EventListener
+    public void alModificarReserva(ReservaModificadaEvent evento) {
+        LocalDate desde = evento.fechaInicio() != null ? evento.fechaInicio().toLocalDate() : null;
+        LocalDate hasta = evento.fechaFin() != null ? evento.fechaFin().toLocalDate() : desde;
+        if (desde == null) {
+            invalidarTodo();
+            return;
+        }
+        invalidar(desde, hasta.isBefore(desde) ? desde : hasta);
+    }
+
+    @EventListener
+    public void alModificarEspacio(EspacioModificadoEvent evento) {
+        invalidarTodo();
+    }
+
+    // Quita las entradas cuyo rango de fechas toca algún día de [desde, hasta]
+    public void invalidar(LocalDate desde, LocalDate hasta) {
+        entradas.invalidarSi(clave -> clave.incluye(desde, hasta));
+    }
+
+    public void invalidarTodo() {
+        entradas.invalidarTodo();
+    }
+
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> estadisticas = entradas.estadisticas();
+        estadisticas.put("ttlSegundos", ttlSegundos);
+        estadisticas.put("actualizado", LocalDateTime.now());
+        return estadisticas;
+    }
+
+    // Sin fecha de inicio o de fin, el dashboard usa la primera o la última reserva: el rango queda abierto
+    private record Clave(LocalDate fechaInicio, LocalDate fechaFin, Long tipoEspacioId, Long estadoId) {
+
+        boolean incluye(LocalDate desde, LocalDate hasta) {
+            boolean empiezaAntes = fechaInicio == null || !fechaInicio.isAfter(hasta);
+            boolean terminaDespues = fechaFin == null || !fechaFin.isBefore(desde);
+            return empiezaAntes && terminaDespues;
+        }
+    }
+}
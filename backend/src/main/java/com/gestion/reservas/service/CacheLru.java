@@ -0,0 +1,122 @@
+package com.gestion.reservas.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Caché en memoria con caducidad por entrada y tamaño máximo, que al superarlo descarta la menos usada.
+// Lleva aciertos, fallos e invalidaciones; la usan las cachés del dashboard, de tokens y de usuarios
+public class CacheLru<K, V> {
+
+    private final int maxEntradas;
+    private final long ttlMs;
+
+    // En orden de acceso, para descartar la menos usada al superar el máximo
+    private final LinkedHashMap<K, Entrada<V>> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Se incrementa con cada invalidación para no guardar valores calculados con datos ya cambiados
+    private final AtomicLong generacion = new AtomicLong();
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong invalidadas = new AtomicLong();
+
+    public CacheLru(int maxEntradas, long ttlMs) {
+        this.maxEntradas = maxEntradas;
+        this.ttlMs = ttlMs;
+    }
+
+    public V obtener(K clave, Supplier<V> calcular) {
+        long ahora = System.currentTimeMillis();
+        V valor = buscar(clave);
+        if (valor != null) {
+            return valor;
+        }
+
+        long generacionInicial = generacion.get();
+        valor = calcular.get();
+
+        synchronized (this) {
+            if (generacion.get() == generacionInicial) {
+                poner(clave, valor, ahora + ttlMs);
+            }
+        }
+        return valor;
+    }
+
+    // Devuelve el valor si está y no ha caducado; si no, null
+    public V buscar(K clave) {
+        long ahora = System.currentTimeMillis();
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null && entrada.caduca() > ahora) {
+                aciertos.incrementAndGet();
+                return entrada.valor();
+            }
+            if (entrada != null) {
+                entradas.remove(clave);
+            }
+        }
+        fallos.incrementAndGet();
+        return null;
+    }
+
+    // Para valores con caducidad propia, como la exp de un token
+    public synchronized void guardar(K clave, V valor, long caduca) {
+        poner(clave, valor, caduca);
+    }
+
+    public synchronized void invalidar(K clave) {
+        generacion.incrementAndGet();
+        if (entradas.remove(clave) != null) {
+            invalidadas.incrementAndGet();
+        }
+    }
+
+    public synchronized void invalidarSi(Predicate<K> condicion) {
+        generacion.incrementAndGet();
+        Iterator<K> it = entradas.keySet().iterator();
+        while (it.hasNext()) {
+            if (condicion.test(it.next())) {
+                it.remove();
+                invalidadas.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void invalidarTodo() {
+        generacion.incrementAndGet();
+        invalidadas.addAndGet(entradas.size());
+        entradas.clear();
+    }
+
+    public synchronized Map<String, Object> estadisticas() {
+        long totalAciertos = aciertos.get();
+        long totalFallos = fallos.get();
+        long consultas = totalAciertos + totalFallos;
+
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("aciertos", totalAciertos);
+        estadisticas.put("fallos", totalFallos);
+        estadisticas.put("tasaAciertos", consultas > 0 ? (double) totalAciertos / consultas : 0.0);
+        estadisticas.put("invalidadas", invalidadas.get());
+        estadisticas.put("entradas", entradas.size());
+        estadisticas.put("maxEntradas", maxEntradas);
+        return estadisticas;
+    }
+
+    private void poner(K clave, V valor, long caduca) {
+        entradas.put(clave, new Entrada<>(valor, caduca));
+        while (entradas.size() > maxEntradas) {
+            Iterator<K> menosUsada = entradas.keySet().iterator();
+            menosUsada.next();
+            menosUsada.remove();
+        }
+    }
+
+    private record Entrada<V>(V valor, long caduca) {
+    }
+}
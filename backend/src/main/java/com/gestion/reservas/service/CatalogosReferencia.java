@@ -0,0 +1,192 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.entity.*;
+import com.gestion.reservas.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+// Tablas de referencia pequeñas (estados de reserva, espacio y comentario, tipos de espacio, roles y equipamientos)
+// cargadas en memoria al arrancar, indexadas por id y por descripción sin distinguir mayúsculas.
+// Cada recarga sustituye la instantánea completa, que no se modifica después: las filas son entidades mutables,
+// así que se entrega una copia en cada consulta. Se recarga periódicamente y al llamar a refrescar()
+// tras un cambio hecho por un administrador
+@Component
+@RequiredArgsConstructor
+public class CatalogosReferencia {
+
+    private final EstadoReservaRepository estadoReservaRepository;
+    private final EstadoEspacioRepository estadoEspacioRepository;
+    private final EstadoComentarioRepository estadoComentarioRepository;
+    private final TipoEspacioRepository tipoEspacioRepository;
+    private final RolRepository rolRepository;
+    private final EquipamientoRepository equipamientoRepository;
+
+    private volatile Instantanea instantanea;
+
+    private final AtomicLong recargas = new AtomicLong();
+    private volatile LocalDateTime ultimaRecarga;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calentar() {
+        try {
+            refrescar();
+            System.out.println("[CATALOGOS] Tablas de referencia cargadas: " + tamanos());
+        } catch (Exception e) {
+            System.err.println("[CATALOGOS] No se pudieron cargar las tablas de referencia: " + e.getMessage());
+        }
+    }
+
+    // Recoge también los cambios hechos directamente en la base de datos
+    @Scheduled(fixedDelayString = "${reservas.catalogos.refresco-ms:600000}",
+            initialDelayString = "${reservas.catalogos.refresco-ms:600000}")
+    public void refrescoPeriodico() {
+        try {
+            refrescar();
+        } catch (Exception e) {
+            System.err.println("[CATALOGOS] Error al recargar las tablas de referencia: " + e.getMessage());
+        }
+    }
+
+    public synchronized void refrescar() {
+        instantanea = new Instantanea(
+                new Tabla<>(estadoReservaRepository.findAll(), EstadoReserva::getIdEstado, EstadoReserva::getDescripcion,
+                        e -> new EstadoReserva(e.getIdEstado(), e.getDescripcion(), e.getColor(), e.getBgcolor())),
+                new Tabla<>(estadoEspacioRepository.findAll(), EstadoEspacio::getIdEstado, EstadoEspacio::getDescripcion,
+                        e -> new EstadoEspacio(e.getIdEstado(), e.getDescripcion())),
+                new Tabla<>(estadoComentarioRepository.findAll(), EstadoComentario::getIdEstado, EstadoComentario::getDescripcion,
+                        e -> new EstadoComentario(e.getIdEstado(), e.getDescripcion())),
+                new Tabla<>(tipoEspacioRepository.findAll(), TipoEspacio::getIdTipoEspacio, TipoEspacio::getDescripcion,
+                        t -> new TipoEspacio(t.getIdTipoEspacio(), t.getDescripcion())),
+                new Tabla<>(rolRepository.findAll(), Rol::getIdRol, Rol::getDescripcion,
+                        r -> new Rol(r.getIdRol(), r.getDescripcion())),
+                new Tabla<>(equipamientoRepository.findAll(), Equipamiento::getIdEquipamiento, Equipamiento::getDescripcion,
+                        e -> new Equipamiento(e.getIdEquipamiento(), e.getDescripcion()))
+        );
+        recargas.incrementAndGet();
+        ultimaRecarga = LocalDateTime.now();
+    }
+
+    public Tabla<EstadoReserva> estadosReserva() {
+        return actual().estadosReserva();
+    }
+
+    public Tabla<EstadoEspacio> estadosEspacio() {
+        return actual().estadosEspacio();
+    }
+
+    public Tabla<EstadoComentario> estadosComentario() {
+        return actual().estadosComentario();
+    }
+
+    public Tabla<TipoEspacio> tiposEspacio() {
+        return actual().tiposEspacio();
+    }
+
+    public Tabla<Rol> roles() {
+        return actual().roles();
+    }
+
+    public Tabla<Equipamiento> equipamientos() {
+        return actual().equipamientos();
+    }
+
+    public Map<String, Object> estado() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("cargado", instantanea != null);
+        estado.put("recargas", recargas.get());
+        estado.put("ultimaRecarga", ultimaRecarga);
+        estado.put("tablas", instantanea != null ? tamanos() : Map.of());
+        return estado;
+    }
+
+    // Si se consulta antes de ApplicationReadyEvent o la carga inicial falló, se carga en ese momento
+    private Instantanea actual() {
+        Instantanea actual = instantanea;
+        if (actual == null) {
+            synchronized (this) {
+                if (instantanea == null) {
+                    refrescar();
+                }
+                actual = instantanea;
+            }
+        }
+        return actual;
+    }
+
+    private Map<String, Integer> tamanos() {
+        Instantanea actual = instantanea;
+        Map<String, Integer> tamanos = new LinkedHashMap<>();
+        tamanos.put("estadosReserva", actual.estadosReserva().todos().size());
+        tamanos.put("estadosEspacio", actual.estadosEspacio().todos().size());
+        tamanos.put("estadosComentario", actual.estadosComentario().todos().size());
+        tamanos.put("tiposEspacio", actual.tiposEspacio().todos().size());
+        tamanos.put("roles", actual.roles().todos().size());
+        tamanos.put("equipamientos", actual.equipamientos().todos().size());
+        return tamanos;
+    }
+
+    private record Instantanea(Tabla<EstadoReserva> estadosReserva,
+                               Tabla<EstadoEspacio> estadosEspacio,
+                               Tabla<EstadoComentario> estadosComentario,
+                               Tabla<TipoEspacio> tiposEspacio,
+                               Tabla<Rol> roles,
+                               Tabla<Equipamiento> equipamientos) {
+    }
+
+    // Filas de una tabla ordenadas por id, con sus dos índices. Cada consulta devuelve copias de las filas
+    public static final class Tabla<T> {
+
+        private final List<T> todos;
+        private final Map<Long, T> porId;
+        private final Map<String, T> porDescripcion;
+        private final UnaryOperator<T> copia;
+
+        Tabla(List<T> filas, Function<T, Long> id, Function<T, String> descripcion, UnaryOperator<T> copia) {
+            this.copia = copia;
+            List<T> ordenadas = new ArrayList<>(filas);
+            ordenadas.sort(Comparator.comparing(id, Comparator.nullsLast(Comparator.naturalOrder())));
+
+            Map<Long, T> ids = new HashMap<>();
+            Map<String, T> descripciones = new HashMap<>();
+            for (T fila : ordenadas) {
+                if (id.apply(fila) != null) {
+                    ids.put(id.apply(fila), fila);
+                }
+                // Con descripciones repetidas se queda la de id menor, como la primera que devolvería la consulta
+                if (descripcion.apply(fila) != null) {
+                    descripciones.putIfAbsent(clave(descripcion.apply(fila)), fila);
+                }
+            }
+            this.todos = List.copyOf(ordenadas);
+            this.porId = Map.copyOf(ids);
+            this.porDescripcion = Map.copyOf(descripciones);
+        }
+
+        public List<T> todos() {
+            return todos.stream().map(copia).toList();
+        }
+
+        public Optional<T> porId(Long id) {
+            return id != null ? Optional.ofNullable(porId.get(id)).map(copia) : Optional.empty();
+        }
+
+        public Optional<T> porDescripcion(String descripcion) {
+            return descripcion != null
+                    ? Optional.ofNullable(porDescripcion.get(clave(descripcion))).map(copia)
+                    : Optional.empty();
+        }
+
+        private static String clave(String descripcion) {
+            return descripcion.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
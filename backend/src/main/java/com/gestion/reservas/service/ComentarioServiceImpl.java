@@ -6,7 +6,6 @@ import com.gestion.reservas.entity.EstadoComentario;
 import com.gestion.reservas.entity.Reserva;
 import com.gestion.reservas.mapper.ComentarioMapper;
 import com.gestion.reservas.repository.ComentarioRepository;
-import com.gestion.reservas.repository.EstadoComentarioRepository;
 import com.gestion.reservas.repository.ReservaRepository;
 import com.gestion.reservas.service.ComentarioService;
 import lombok.RequiredArgsConstructor;
@@ -21,10 +20,11 @@ import java.util.List;
 public class ComentarioServiceImpl implements ComentarioService {
 
     private final ComentarioRepository comentarioRepository;
-    private final EstadoComentarioRepository estadoComentarioRepository;
+    private final CatalogosReferencia catalogos;
     private final ComentarioMapper comentarioMapper;
     private final NotificacionService notificacionService;
     private final ReservaRepository reservaRepository;
+    private final ValoracionesEspacio valoracionesEspacio;
 
     @Override
     public List<ComentarioDTO> listarComentarios() {
@@ -39,11 +39,12 @@ public class ComentarioServiceImpl implements ComentarioService {
         Comentario comentario = comentarioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comentario no encontrado"));
 
-        EstadoComentario aprobado = estadoComentarioRepository.findByDescripcionIgnoreCase("Aprobado")
+        EstadoComentario aprobado = catalogos.estadosComentario().porDescripcion("Aprobado")
                 .orElseThrow(() -> new RuntimeException("Estado 'Aprobado' no encontrado"));
 
         comentario.setEstado(aprobado);
         comentarioRepository.save(comentario);
+        valoracionesEspacio.registrar(comentario);
 
         // Crear notificación
         String mensaje = String.format(
@@ -60,11 +61,12 @@ public class ComentarioServiceImpl implements ComentarioService {
         Comentario comentario = comentarioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comentario no encontrado"));
 
-        EstadoComentario anulado = estadoComentarioRepository.findByDescripcionIgnoreCase("Anulado")
+        EstadoComentario anulado = catalogos.estadosComentario().porDescripcion("Anulado")
                 .orElseThrow(() -> new RuntimeException("Estado 'Anulado' no encontrado"));
 
         comentario.setEstado(anulado);
         comentarioRepository.save(comentario);
+        valoracionesEspacio.registrar(comentario);
 
         // Crear notificación
         String mensaje = String.format(
@@ -78,7 +80,7 @@ public class ComentarioServiceImpl implements ComentarioService {
 
     public ComentarioDTO crearComentario(ComentarioDTO dto) {
 
-        EstadoComentario estadoPendiente = estadoComentarioRepository.findByDescripcionIgnoreCase("Pendiente")
+        EstadoComentario estadoPendiente = catalogos.estadosComentario().porDescripcion("Pendiente")
                 .orElseThrow(() -> new RuntimeException("Estado 'Pendiente' no encontrado"));
 
         Reserva reserva = reservaRepository.findById(dto.getIdReserva())
@@ -3,7 +3,10 @@ package com.gestion.reservas.service;
 import com.gestion.reservas.dto.DashBoardDTO;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 public interface DashboardService {
     DashBoardDTO obtenerDatosDashboard(LocalDate fechaInicio, LocalDate fechaFin, Long tipoEspacioId, Long estadoId);
+
+    Map<String, Object> estadisticasCache();
 }
\ No newline at end of file
@@ -2,21 +2,18 @@ package com.gestion.reservas.service;
 
 import com.gestion.reservas.dto.DashBoardDTO;
 import com.gestion.reservas.dto.KPIDTO;
+import com.gestion.reservas.dto.OcupacionDTO;
+import com.gestion.reservas.dto.ResumenReservasDTO;
 import com.gestion.reservas.dto.TipoSalaDistribucionDTO;
 import com.gestion.reservas.dto.UltimaReservaDTO;
 import com.gestion.reservas.entity.Reserva;
-import com.gestion.reservas.repository.EspacioRepository;
 import com.gestion.reservas.repository.ReservaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,10 +21,24 @@ import java.util.stream.Collectors;
 public class DashboardServiceImpl implements DashboardService {
 
     private final ReservaRepository reservaRepository;
-    private final EspacioRepository espacioRepository;
+    private final ResumenDiarioReservas resumenDiario;
+    private final MotorOcupacion motorOcupacion;
+    private final CacheDashboard cacheDashboard;
+
+    private static final int ULTIMAS_RESERVAS = 5;
 
     @Override
     public DashBoardDTO obtenerDatosDashboard(LocalDate fechaInicio, LocalDate fechaFin, Long tipoEspacioId, Long estadoId) {
+        return cacheDashboard.obtener(fechaInicio, fechaFin, tipoEspacioId, estadoId,
+                () -> calcularDashboard(fechaInicio, fechaFin, tipoEspacioId, estadoId));
+    }
+
+    @Override
+    public Map<String, Object> estadisticasCache() {
+        return cacheDashboard.estadisticas();
+    }
+
+    private DashBoardDTO calcularDashboard(LocalDate fechaInicio, LocalDate fechaFin, Long tipoEspacioId, Long estadoId) {
 
         LocalDateTime fechaInicioDT = (fechaInicio != null)
                 ? fechaInicio.atStartOfDay()
@@ -37,32 +48,25 @@ public class DashboardServiceImpl implements DashboardService {
                 ? fechaFin.atTime(LocalTime.MAX)
                 : reservaRepository.obtenerFechaFinMaxima();
 
-        List<Reserva> reservas = reservaRepository.buscarPorFiltros(fechaInicioDT, fechaFinDT, tipoEspacioId, estadoId);
-        int espaciosDisponibles = espacioRepository.countByEstado_IdEstado(1L);
+        // Solo agregados (del resumen diario) y las últimas reservas: no se cargan todas las reservas del periodo
+        ResumenReservasDTO resumen = resumenDiario.resumir(fechaInicioDT, fechaFinDT, tipoEspacioId, estadoId);
+        OcupacionDTO ocupacion = motorOcupacion.calcular(fechaInicioDT, fechaFinDT, tipoEspacioId, estadoId);
 
         return DashBoardDTO.builder()
-                .kpi(calcularKPI(reservas, espaciosDisponibles, fechaInicioDT.toLocalDate(), fechaFinDT.toLocalDate()))
-                .ultimasReservas(mapUltimasReservas(reservas))
-                .reservasPeriodo(agruparPorDiaSemana(reservas))
-                .tipoSalaDistribucion(agruparPorTipoSala(reservas))
+                .kpi(calcularKPI(resumen, ocupacion))
+                .ultimasReservas(mapUltimasReservas(reservaRepository.buscarUltimasPorFiltros(fechaInicioDT, fechaFinDT, tipoEspacioId, estadoId, ULTIMAS_RESERVAS)))
+                .reservasPeriodo(agruparPorDiaSemana(resumenDiario.contarPorDia(fechaInicioDT, fechaFinDT, tipoEspacioId, estadoId)))
+                .tipoSalaDistribucion(agruparPorTipoSala(resumenDiario.contarPorTipoEspacio(fechaInicioDT, fechaFinDT, tipoEspacioId, estadoId)))
                 .build();
     }
 
-    private KPIDTO calcularKPI(List<Reserva> reservas, int espaciosDisponibles, LocalDate fechaInicio, LocalDate fechaFin) {
-
-
-
+    private KPIDTO calcularKPI(ResumenReservasDTO resumen, OcupacionDTO ocupacion) {
 
-        long diasPeriodo = ChronoUnit.DAYS.between(fechaInicio, fechaFin) + 1;
         return KPIDTO.builder()
-                .totalReservas(reservas.size()) // Total de reservas realizadas
-                .tasaOcupacion(calcularTasaOcupacion(reservas, espaciosDisponibles, diasPeriodo)) //Calcula la tasa de ocupación con base en horas usadas / horas disponibles.
-                .usuariosActivos((int) reservas.stream().map(r -> r.getUsuario().getIdUsuario()).distinct().count()) // Usuarios únicos que realizarón reservas
-                .horasReservadas(reservas.stream()
-                        .mapToInt(r -> (int) Duration.between(r.getFechaInicio(), r.getFechaFin()).toHours())
-                        .sum()) // Se suman las horas totales entre fechaInicio y fechaFin de cada reserva.
-
-
+                .totalReservas((int) resumen.getTotalReservas()) // Total de reservas realizadas
+                .tasaOcupacion(ocupacion.getPorcentaje()) // Minutos reservados / minutos de apertura de los espacios disponibles en el periodo
+                .usuariosActivos((int) resumen.getUsuariosActivos()) // Usuarios únicos que realizarón reservas
+                .horasReservadas((int) Math.round(resumen.getMinutosReservados() / 60.0)) // Minutos totales entre fechaInicio y fechaFin de cada reserva, en horas
                 .build();
     }
 
@@ -70,8 +74,6 @@ public class DashboardServiceImpl implements DashboardService {
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
         return reservas.stream()
-                .sorted(Comparator.comparing(Reserva::getIdReserva).reversed())
-                .limit(5)
                 .map(r -> {
                     long horas = Duration.between(r.getFechaInicio(), r.getFechaFin()).toHours();
                     return UltimaReservaDTO.builder()
@@ -87,9 +89,10 @@ public class DashboardServiceImpl implements DashboardService {
                 .collect(Collectors.toList());
     }
 
-    private List<Integer> agruparPorDiaSemana(List<Reserva> reservas) {
-        Map<DayOfWeek, Long> conteo = reservas.stream()
-                .collect(Collectors.groupingBy(r -> r.getFechaInicio().getDayOfWeek(), Collectors.counting()));
+    // Recibe el número de reservas por día y lo acumula por día de la semana (lunes a domingo)
+    private List<Integer> agruparPorDiaSemana(Map<LocalDate, Long> reservasPorDia) {
+        Map<DayOfWeek, Long> conteo = new EnumMap<>(DayOfWeek.class);
+        reservasPorDia.forEach((dia, total) -> conteo.merge(dia.getDayOfWeek(), total, Long::sum));
 
         List<DayOfWeek> dias = Arrays.asList(
                 DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
@@ -101,28 +104,11 @@ public class DashboardServiceImpl implements DashboardService {
                 .collect(Collectors.toList());
     }
 
-    private List<TipoSalaDistribucionDTO> agruparPorTipoSala(List<Reserva> reservas) {
-        Map<String, Long> conteo = reservas.stream()
-                .collect(Collectors.groupingBy(r -> r.getEspacio().getTipoEspacio().getDescripcion(), Collectors.counting()));
-
-        return conteo.entrySet().stream()
+    private List<TipoSalaDistribucionDTO> agruparPorTipoSala(Map<String, Long> reservasPorTipo) {
+        return reservasPorTipo.entrySet().stream()
                 .map(e -> new TipoSalaDistribucionDTO(e.getKey(), e.getValue().intValue()))
                 .sorted(Comparator.comparing(TipoSalaDistribucionDTO::getTipo))
                 .collect(Collectors.toList());
     }
 
-
-    private int calcularTasaOcupacion(List<Reserva> reservas, int espaciosActivos, long diasPeriodo) {
-        if (espaciosActivos <= 0 || diasPeriodo <= 0) return 0;
-
-        long horasReservadas = reservas.stream()
-                .filter(r -> r.getFechaInicio() != null && r.getFechaFin() != null)
-                .mapToLong(r -> Duration.between(r.getFechaInicio(), r.getFechaFin()).toHours())
-                .sum();
-
-        long horasDisponibles = espaciosActivos * 12L * diasPeriodo;
-
-        return (int) Math.round((double) horasReservadas / horasDisponibles * 100);
-    }
-
 }
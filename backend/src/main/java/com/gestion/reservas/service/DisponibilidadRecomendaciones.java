@@ -0,0 +1,134 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.RecomendacionRequestDTO;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.ReservaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+// Deja en cada lista de candidatos del recomendador solo los espacios que se pueden reservar:
+// en estado 'Disponible', con aforo suficiente y sin reservas que se solapen con la franja pedida.
+// Estado y aforo salen de una consulta para todo el lote; los solapamientos del índice en memoria
+// o, si aún no está cargado, de una consulta por franja distinta
+@Component
+public class DisponibilidadRecomendaciones {
+
+    private final EspacioRepository espacioRepository;
+    private final ReservaRepository reservaRepository;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final Duration duracion;
+
+    public DisponibilidadRecomendaciones(EspacioRepository espacioRepository,
+                                         ReservaRepository reservaRepository,
+                                         IndiceDisponibilidad indiceDisponibilidad,
+                                         @Value("${reservas.recomendador.duracion-minutos:60}") long duracionMinutos) {
+        this.espacioRepository = espacioRepository;
+        this.reservaRepository = reservaRepository;
+        this.indiceDisponibilidad = indiceDisponibilidad;
+        this.duracion = Duration.ofMinutes(duracionMinutos);
+    }
+
+    // Los k primeros candidatos reservables de cada consulta, en el orden en que vienen
+    public List<List<EspacioPuntuado>> filtrar(List<RecomendacionRequestDTO> consultas,
+                                               List<List<EspacioPuntuado>> candidatos, int k) {
+        Set<Long> idsEspacio = new HashSet<>();
+        candidatos.forEach(lista -> lista.forEach(e -> idsEspacio.add(e.idEspacio())));
+        if (idsEspacio.isEmpty()) {
+            return candidatos;
+        }
+
+        Map<Long, Integer> capacidades = new HashMap<>();
+        for (Object[] fila : espacioRepository.findCapacidadYEstadoByIdIn(idsEspacio)) {
+            if ("Disponible".equals(fila[2])) {
+                capacidades.put((Long) fila[0], fila[1] != null ? (Integer) fila[1] : Integer.MAX_VALUE);
+            }
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Franja> franjas = new ArrayList<>(consultas.size());
+        Map<Franja, Set<Long>> porFranja = new HashMap<>();
+        for (int i = 0; i < consultas.size(); i++) {
+            Franja franja = franja(consultas.get(i), ahora, duracion);
+            franjas.add(franja);
+            if (franja != null) {
+                Set<Long> ids = porFranja.computeIfAbsent(franja, f -> new HashSet<>());
+                candidatos.get(i).forEach(e -> {
+                    if (capacidades.containsKey(e.idEspacio())) {
+                        ids.add(e.idEspacio());
+                    }
+                });
+            }
+        }
+        Map<Franja, Set<Long>> ocupados = ocupados(porFranja);
+
+        List<List<EspacioPuntuado>> resultado = new ArrayList<>(consultas.size());
+        for (int i = 0; i < consultas.size(); i++) {
+            Integer personas = consultas.get(i).getPersonas();
+            Set<Long> ocupadosFranja = franjas.get(i) != null ? ocupados.get(franjas.get(i)) : Set.of();
+            List<EspacioPuntuado> reservables = new ArrayList<>(k);
+            for (EspacioPuntuado espacio : candidatos.get(i)) {
+                Integer capacidad = capacidades.get(espacio.idEspacio());
+                if (capacidad == null
+                        || (personas != null && capacidad < personas)
+                        || ocupadosFranja.contains(espacio.idEspacio())) {
+                    continue;
+                }
+                reservables.add(espacio);
+                if (reservables.size() == k) {
+                    break;
+                }
+            }
+            resultado.add(reservables);
+        }
+        return resultado;
+    }
+
+    private Map<Franja, Set<Long>> ocupados(Map<Franja, Set<Long>> porFranja) {
+        Map<Franja, Set<Long>> ocupados = new HashMap<>();
+        porFranja.forEach((franja, ids) -> {
+            if (ids.isEmpty()) {
+                ocupados.put(franja, Set.of());
+            } else if (indiceDisponibilidad.isCargado()) {
+                Set<Long> enFranja = new HashSet<>();
+                for (Long id : ids) {
+                    if (indiceDisponibilidad.haySolapamiento(id, franja.inicio(), franja.fin())) {
+                        enFranja.add(id);
+                    }
+                }
+                ocupados.put(franja, enFranja);
+            } else {
+                ocupados.put(franja, new HashSet<>(reservaRepository.findEspaciosOcupados(ids, franja.inicio(), franja.fin())));
+            }
+        });
+        return ocupados;
+    }
+
+    // Franja explícita de la consulta o, si no la trae, la próxima con su día (0 = domingo) y hora.
+    // Sin hora no hay franja que comprobar y solo se miran estado y aforo
+    static Franja franja(RecomendacionRequestDTO consulta, LocalDateTime ahora, Duration duracion) {
+        if (consulta.getFechaInicio() != null) {
+            LocalDateTime fin = consulta.getFechaFin() != null ? consulta.getFechaFin() : consulta.getFechaInicio().plus(duracion);
+            return new Franja(consulta.getFechaInicio(), fin);
+        }
+        int dia = consulta.getDiaSemana();
+        int hora = consulta.getHora();
+        if (dia < 0 || dia > 6 || hora < 0 || hora > 23) {
+            return null;
+        }
+
+        int diasHasta = Math.floorMod(dia - ahora.getDayOfWeek().getValue() % 7, 7);
+        LocalDateTime inicio = ahora.truncatedTo(ChronoUnit.DAYS).plusDays(diasHasta).withHour(hora);
+        if (!inicio.isAfter(ahora)) {
+            inicio = inicio.plusWeeks(1);
+        }
+        return new Franja(inicio, inicio.plus(duracion));
+    }
+
+    record Franja(LocalDateTime inicio, LocalDateTime fin) {
+    }
+}
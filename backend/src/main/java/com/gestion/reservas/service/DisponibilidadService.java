@@ -0,0 +1,15 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.BusquedaDisponibilidadDTO;
+import com.gestion.reservas.dto.BusquedaHuecosDTO;
+import com.gestion.reservas.dto.EspacioResponseDTO;
+import com.gestion.reservas.dto.HuecoLibreDTO;
+
+import java.util.List;
+
+public interface DisponibilidadService {
+
+    List<EspacioResponseDTO> buscarEspaciosLibres(BusquedaDisponibilidadDTO filtro);
+
+    List<HuecoLibreDTO> buscarHuecosLibres(BusquedaHuecosDTO filtro);
+}
@@ -0,0 +1,202 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.BusquedaDisponibilidadDTO;
+import com.gestion.reservas.dto.BusquedaHuecosDTO;
+import com.gestion.reservas.dto.EspacioResponseDTO;
+import com.gestion.reservas.dto.HuecoLibreDTO;
+import com.gestion.reservas.dto.IntervaloReservaDTO;
+import com.gestion.reservas.entity.Equipamiento;
+import com.gestion.reservas.entity.Espacio;
+import com.gestion.reservas.mapper.EspacioMapper;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class DisponibilidadServiceImpl implements DisponibilidadService {
+
+    private static final int HORIZONTE_DIAS_DEFECTO = 7;
+    private static final int HORIZONTE_DIAS_MAXIMO = 90;
+    private static final int MAX_RESULTADOS_DEFECTO = 5;
+
+    // Las reservas contiguas cuentan como solapadas (fechaInicio <= fin y fechaFin >= inicio),
+    // así que los huecos dejan un minuto de margen respecto a las reservas vecinas
+    private static final Duration MARGEN = Duration.ofMinutes(1);
+
+    private final EspacioRepository espacioRepository;
+    private final ReservaRepository reservaRepository;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final EspacioMapper espacioMapper;
+    private final HorarioApertura horarioApertura;
+
+    @Override
+    public List<EspacioResponseDTO> buscarEspaciosLibres(BusquedaDisponibilidadDTO filtro) {
+        if (filtro.getInicio() == null || filtro.getFin() == null || !filtro.getInicio().isBefore(filtro.getFin())) {
+            throw new IllegalArgumentException("Rango de fechas no válido");
+        }
+
+        Set<Long> requeridos = filtro.getEquipamientos() != null
+                ? new HashSet<>(filtro.getEquipamientos())
+                : Collections.emptySet();
+
+        // Una sola consulta para los candidatos; el equipamiento requerido se filtra en memoria
+        List<Espacio> candidatos = espacioRepository
+                .buscarCandidatosDisponibles(filtro.getCapacidad(), filtro.getIdTipoEspacio())
+                .stream()
+                .filter(e -> idsEquipamiento(e).containsAll(requeridos))
+                .toList();
+
+        if (candidatos.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> ocupados = espaciosOcupados(candidatos, filtro);
+
+        // Mejor ajuste: menor capacidad sobrante y menos equipamiento sin usar
+        Comparator<Espacio> mejorAjuste = Comparator
+                .comparing((Espacio e) -> e.getCapacidad() != null ? e.getCapacidad() : Integer.MAX_VALUE)
+                .thenComparingInt(e -> e.getEquipamientos().size() - requeridos.size())
+                .thenComparing(Espacio::getNombre, Comparator.nullsLast(String::compareToIgnoreCase));
+
+        return candidatos.stream()
+                .filter(e -> !ocupados.contains(e.getIdEspacio()))
+                .sorted(mejorAjuste)
+                .map(espacioMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<HuecoLibreDTO> buscarHuecosLibres(BusquedaHuecosDTO filtro) {
+        if (filtro.getDuracionMinutos() == null || filtro.getDuracionMinutos() <= 0) {
+            throw new IllegalArgumentException("La duración debe ser mayor que cero");
+        }
+
+        Duration duracion = Duration.ofMinutes(filtro.getDuracionMinutos());
+        int horizonte = Math.min(
+                filtro.getHorizonteDias() != null ? filtro.getHorizonteDias() : HORIZONTE_DIAS_DEFECTO,
+                HORIZONTE_DIAS_MAXIMO);
+        int maxResultados = filtro.getMaxResultados() != null && filtro.getMaxResultados() > 0
+                ? filtro.getMaxResultados()
+                : MAX_RESULTADOS_DEFECTO;
+
+        LocalDateTime desde = redondearAlMinuto(filtro.getDesde() != null ? filtro.getDesde() : LocalDateTime.now());
+        LocalDateTime hasta = desde.plusDays(horizonte);
+
+        List<Espacio> espacios = filtro.getEspacios() != null && !filtro.getEspacios().isEmpty()
+                ? espacioRepository.findAllById(filtro.getEspacios())
+                : espacioRepository.buscarCandidatosDisponibles(null, null);
+
+        if (espacios.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, List<IntervaloReservaDTO>> reservasPorEspacio = reservasPorEspacio(espacios, desde, hasta);
+
+        List<HuecoLibreDTO> resultado = new ArrayList<>();
+        for (Espacio espacio : espacios) {
+            List<IntervaloReservaDTO> reservas = reservasPorEspacio.getOrDefault(espacio.getIdEspacio(), Collections.emptyList());
+            resultado.addAll(barrerHuecos(espacio, reservas, desde, hasta, duracion, maxResultados));
+        }
+        return resultado;
+    }
+
+    // Un único recorrido sobre las reservas ordenadas por inicio, día a día dentro del horario de apertura del espacio
+    private List<HuecoLibreDTO> barrerHuecos(Espacio espacio, List<IntervaloReservaDTO> reservas,
+                                             LocalDateTime desde, LocalDateTime hasta,
+                                             Duration duracion, int maxResultados) {
+        List<HuecoLibreDTO> huecos = new ArrayList<>();
+        HorarioApertura.Horario horario = horarioApertura.de(espacio.getIdEspacio());
+        LocalDateTime ocupadoHasta = LocalDateTime.MIN;
+        int i = 0;
+
+        for (LocalDate dia = desde.toLocalDate();
+             !dia.isAfter(hasta.toLocalDate()) && huecos.size() < maxResultados;
+             dia = dia.plusDays(1)) {
+
+            LocalDateTime abre = Fechas.max(dia.atTime(horario.apertura()), desde);
+            LocalDateTime cierra = Fechas.min(dia.atTime(horario.cierre()), hasta);
+            if (!horario.abre(dia) || !abre.isBefore(cierra)) {
+                continue;
+            }
+
+            LocalDateTime cursor = Fechas.max(abre, ocupadoHasta);
+
+            while (i < reservas.size() && !reservas.get(i).getFechaInicio().isAfter(cierra)
+                    && huecos.size() < maxResultados) {
+                IntervaloReservaDTO reserva = reservas.get(i++);
+
+                LocalDateTime finHueco = Fechas.min(reserva.getFechaInicio().minus(MARGEN), cierra);
+                if (!cursor.plus(duracion).isAfter(finHueco)) {
+                    huecos.add(hueco(espacio, cursor, finHueco));
+                }
+
+                ocupadoHasta = Fechas.max(ocupadoHasta, reserva.getFechaFin().plus(MARGEN));
+                cursor = Fechas.max(cursor, ocupadoHasta);
+            }
+
+            if (huecos.size() < maxResultados && !cursor.plus(duracion).isAfter(cierra)) {
+                huecos.add(hueco(espacio, cursor, cierra));
+            }
+        }
+        return huecos;
+    }
+
+    private Map<Long, List<IntervaloReservaDTO>> reservasPorEspacio(List<Espacio> espacios,
+                                                                    LocalDateTime desde, LocalDateTime hasta) {
+        Map<Long, List<IntervaloReservaDTO>> resultado = new HashMap<>();
+
+        if (indiceDisponibilidad.isCargado()) {
+            for (Espacio espacio : espacios) {
+                resultado.put(espacio.getIdEspacio(), indiceDisponibilidad.intervalos(espacio.getIdEspacio(), desde, hasta));
+            }
+            return resultado;
+        }
+
+        List<Long> ids = espacios.stream().map(Espacio::getIdEspacio).toList();
+        for (IntervaloReservaDTO intervalo : reservaRepository.findIntervalosEntre(ids, desde, hasta)) {
+            resultado.computeIfAbsent(intervalo.getIdEspacio(), id -> new ArrayList<>()).add(intervalo);
+        }
+        return resultado;
+    }
+
+    private HuecoLibreDTO hueco(Espacio espacio, LocalDateTime inicio, LocalDateTime fin) {
+        return HuecoLibreDTO.builder()
+                .idEspacio(espacio.getIdEspacio())
+                .nombreEspacio(espacio.getNombre())
+                .inicio(inicio)
+                .fin(fin)
+                .build();
+    }
+
+    private LocalDateTime redondearAlMinuto(LocalDateTime fecha) {
+        LocalDateTime truncada = fecha.truncatedTo(ChronoUnit.MINUTES);
+        return truncada.equals(fecha) ? truncada : truncada.plusMinutes(1);
+    }
+
+    private Set<Long> espaciosOcupados(List<Espacio> candidatos, BusquedaDisponibilidadDTO filtro) {
+        if (indiceDisponibilidad.isCargado()) {
+            return candidatos.stream()
+                    .map(Espacio::getIdEspacio)
+                    .filter(id -> indiceDisponibilidad.haySolapamiento(id, filtro.getInicio(), filtro.getFin()))
+                    .collect(Collectors.toSet());
+        }
+
+        List<Long> ids = candidatos.stream().map(Espacio::getIdEspacio).toList();
+        return new HashSet<>(reservaRepository.findEspaciosOcupados(ids, filtro.getInicio(), filtro.getFin()));
+    }
+
+    private Set<Long> idsEquipamiento(Espacio espacio) {
+        return espacio.getEquipamientos().stream()
+                .map(Equipamiento::getIdEquipamiento)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,225 @@
+package com.gestion.reservas.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Lanza los scripts Python con el directorio de trabajo y las variables de base de datos comunes.
+// ejecutar() espera a que el proceso termine leyendo stdout y stderr a la vez, cada uno en su hilo,
+// para que ninguno se quede bloqueado con la tubería llena; pasado el límite mata el proceso y sus hijos.
+// De cada flujo se guardan como mucho maxSalida caracteres, los últimos, y cada línea se recorta a maxSalida
+@Component
+public class EjecutorProcesos {
+
+    private final Environment env;
+    private final int maxSalida;
+    private final long esperaCierreMs;
+
+    private final AtomicLong iniciados = new AtomicLong();
+    private final AtomicLong ejecuciones = new AtomicLong();
+    private final AtomicLong fallidas = new AtomicLong();
+    private final AtomicLong agotadas = new AtomicLong();
+    private final AtomicLong msTotal = new AtomicLong();
+    private final AtomicLong msMaximo = new AtomicLong();
+    private final AtomicLong msUltima = new AtomicLong();
+
+    public EjecutorProcesos(Environment env,
+                            @Value("${reservas.procesos.max-salida:65536}") int maxSalida,
+                            @Value("${reservas.procesos.espera-cierre-ms:5000}") long esperaCierreMs) {
+        this.env = env;
+        this.maxSalida = maxSalida;
+        this.esperaCierreMs = esperaCierreMs;
+    }
+
+    public record Resultado(int codigo, String salida, String errores, boolean agotado, boolean truncado, long duracionMs) {
+    }
+
+    // Intérprete configurado, sin buffer para que cada línea llegue en cuanto se escribe
+    public List<String> python(String script) {
+        return List.of(env.getProperty("python.executable", "python"), "-u", script);
+    }
+
+    // Proceso de larga duración (los del pool): quien lo lanza se encarga de leer sus flujos
+    public Process iniciar(List<String> comando) throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(comando);
+        pb.directory(new File(System.getProperty("user.dir")));
+
+        Map<String, String> envs = pb.environment();
+        envs.put("DB_HOST", env.getProperty("python.db.host", ""));
+        envs.put("DB_PORT", env.getProperty("python.db.port", ""));
+        envs.put("DB_NAME", env.getProperty("python.db.name", ""));
+        envs.put("DB_USER", env.getProperty("python.db.user", ""));
+        envs.put("DB_PASSWORD", env.getProperty("python.db.password", ""));
+
+        Process proceso = pb.start();
+        iniciados.incrementAndGet();
+        return proceso;
+    }
+
+    // Ejecuta hasta el final o hasta agotar el límite. Cada línea de stdout y stderr se pasa también a porLinea
+    public Resultado ejecutar(List<String> comando, Duration limite, Consumer<String> porLinea) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        Process proceso = iniciar(comando);
+        proceso.getOutputStream().close();
+
+        Captura salida = new Captura(proceso.getInputStream(), porLinea, "stdout");
+        Captura errores = new Captura(proceso.getErrorStream(), porLinea, "stderr");
+
+        boolean agotado;
+        try {
+            agotado = !proceso.waitFor(limite.toMillis(), TimeUnit.MILLISECONDS);
+            if (agotado) {
+                matar(proceso);
+            }
+        } catch (InterruptedException e) {
+            matar(proceso);
+            throw e;
+        }
+
+        // Si un nieto sigue con la tubería abierta no se espera indefinidamente
+        salida.esperar(esperaCierreMs);
+        errores.esperar(esperaCierreMs);
+
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        Resultado resultado = new Resultado(agotado ? -1 : proceso.exitValue(), salida.texto(), errores.texto(),
+                agotado, salida.truncado() || errores.truncado(), ms);
+
+        ejecuciones.incrementAndGet();
+        if (agotado) {
+            agotadas.incrementAndGet();
+        } else if (resultado.codigo() != 0) {
+            fallidas.incrementAndGet();
+        }
+        msTotal.addAndGet(ms);
+        msMaximo.accumulateAndGet(ms, Math::max);
+        msUltima.set(ms);
+        return resultado;
+    }
+
+    private void matar(Process proceso) throws InterruptedException {
+        proceso.descendants().forEach(ProcessHandle::destroy);
+        proceso.destroy();
+        if (!proceso.waitFor(esperaCierreMs, TimeUnit.MILLISECONDS)) {
+            proceso.descendants().forEach(ProcessHandle::destroyForcibly);
+            proceso.destroyForcibly().waitFor(esperaCierreMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Map<String, Object> estado() {
+        long total = ejecuciones.get();
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("procesosIniciados", iniciados.get());
+        estado.put("ejecuciones", total);
+        estado.put("ejecucionesFallidas", fallidas.get());
+        estado.put("ejecucionesAgotadas", agotadas.get());
+        estado.put("ejecucionMediaMs", total > 0 ? msTotal.get() / total : 0);
+        estado.put("ejecucionMaximaMs", msMaximo.get());
+        estado.put("ultimaEjecucionMs", msUltima.get());
+        return estado;
+    }
+
+    // Lee un flujo por bloques en su propio hilo y guarda los últimos maxSalida caracteres en un anillo.
+    // Las líneas llegan a porLinea recortadas a maxSalida, aunque el proceso escriba sin saltos de línea
+    private class Captura {
+
+        private final char[] anillo = new char[Math.max(maxSalida, 1)];
+        private long escritos;
+
+        private final Consumer<String> porLinea;
+        private final StringBuilder linea = new StringBuilder();
+        private boolean enLinea;
+        private boolean trasRetorno;
+        private final Thread hilo;
+
+        Captura(InputStream flujo, Consumer<String> porLinea, String nombre) {
+            this.porLinea = porLinea;
+            hilo = new Thread(() -> leer(flujo), "proceso-" + nombre);
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+
+        private void leer(InputStream flujo) {
+            char[] bloque = new char[8192];
+            try (Reader reader = new InputStreamReader(flujo, StandardCharsets.UTF_8)) {
+                int leidos;
+                while ((leidos = reader.read(bloque)) != -1) {
+                    guardar(bloque, leidos);
+                    for (int i = 0; i < leidos; i++) {
+                        caracter(bloque[i]);
+                    }
+                }
+            } catch (IOException e) {
+                // El proceso se ha cerrado o se ha matado mientras se leía
+            }
+            if (enLinea) {
+                terminarLinea();
+            }
+        }
+
+        // Separa líneas como BufferedReader.readLine: \n, \r o \r\n
+        private void caracter(char c) {
+            if (c == '\n' && trasRetorno) {
+                trasRetorno = false;
+                return;
+            }
+            trasRetorno = c == '\r';
+            if (c == '\n' || c == '\r') {
+                terminarLinea();
+            } else {
+                enLinea = true;
+                if (linea.length() < maxSalida) {
+                    linea.append(c);
+                }
+            }
+        }
+
+        private void terminarLinea() {
+            porLinea.accept(linea.toString());
+            linea.setLength(0);
+            enLinea = false;
+        }
+
+        private synchronized void guardar(char[] bloque, int leidos) {
+            // Lo que no cabe en el anillo se sobrescribiría en esta misma llamada
+            int desde = Math.max(0, leidos - anillo.length);
+            escritos += desde;
+            for (int i = desde; i < leidos; ) {
+                int posicion = (int) (escritos % anillo.length);
+                int tramo = Math.min(leidos - i, anillo.length - posicion);
+                System.arraycopy(bloque, i, anillo, posicion, tramo);
+                i += tramo;
+                escritos += tramo;
+            }
+        }
+
+        void esperar(long ms) throws InterruptedException {
+            hilo.join(ms);
+        }
+
+        synchronized String texto() {
+            if (escritos <= anillo.length) {
+                return new String(anillo, 0, (int) escritos);
+            }
+            int posicion = (int) (escritos % anillo.length);
+            return new String(anillo, posicion, anillo.length - posicion) + new String(anillo, 0, posicion);
+        }
+
+        synchronized boolean truncado() {
+            return escritos > anillo.length;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gestion.reservas.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Ejecuta los entrenamientos del recomendador en un hilo propio, de uno en uno.
+// Si ya hay uno en curso, lanzar devuelve ese mismo trabajo en lugar de empezar otro,
+// así que el entrenamiento programado y el manual nunca escriben el modelo a la vez
+@Component
+public class EntrenamientosModelo {
+
+    private static final int MAX_HISTORIAL = 20;
+
+    @FunctionalInterface
+    public interface Tarea {
+        String ejecutar(TrabajoEntrenamiento trabajo) throws Exception;
+    }
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "entrenamiento-modelo");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final Map<String, TrabajoEntrenamiento> historial = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TrabajoEntrenamiento> mayor) {
+                    return size() > MAX_HISTORIAL;
+                }
+            });
+
+    private TrabajoEntrenamiento enCurso;
+
+    public synchronized TrabajoEntrenamiento lanzar(String origen, Tarea tarea) {
+        if (enCurso != null && enCurso.enCurso()) {
+            return enCurso;
+        }
+
+        TrabajoEntrenamiento trabajo = new TrabajoEntrenamiento(origen);
+        historial.put(trabajo.getId(), trabajo);
+        enCurso = trabajo;
+        ejecutor.execute(() -> {
+            try {
+                trabajo.completar(tarea.ejecutar(trabajo));
+                System.out.println("[ENTRENAMIENTO] " + trabajo.getId() + " completado");
+            } catch (Exception e) {
+                trabajo.fallar(e.getMessage());
+                System.err.println("[ENTRENAMIENTO] " + trabajo.getId() + " fallido: " + e.getMessage());
+            }
+        });
+        return trabajo;
+    }
+
+    public Optional<TrabajoEntrenamiento> buscar(String id) {
+        return Optional.ofNullable(historial.get(id));
+    }
+
+    // Del más reciente al más antiguo
+    public List<TrabajoEntrenamiento> recientes() {
+        List<TrabajoEntrenamiento> trabajos;
+        synchronized (historial) {
+            trabajos = new ArrayList<>(historial.values());
+        }
+        Collections.reverse(trabajos);
+        return trabajos;
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -3,7 +3,6 @@ package com.gestion.reservas.service;
 
 import com.gestion.reservas.dto.EquipamientoDTO;
 import com.gestion.reservas.entity.Equipamiento;
-import com.gestion.reservas.repository.EquipamientoRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,11 +15,12 @@ import java.util.stream.Collectors;
 @Service
 public class EquipamientoServiceImpl implements EquipamientoService {
 
-    private final EquipamientoRepository equipamientoRepository;
+    // Se sirven de la copia en memoria de las tablas de referencia
+    private final CatalogosReferencia catalogos;
 
     @Override
     public List<EquipamientoDTO> findAll() {
-        return equipamientoRepository.findAll()
+        return catalogos.equipamientos().todos()
                 .stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
@@ -28,7 +28,7 @@ public class EquipamientoServiceImpl implements EquipamientoService {
 
     @Override
     public Optional<EquipamientoDTO> findById(Long id) {
-        return equipamientoRepository.findById(id)
+        return catalogos.equipamientos().porId(id)
                 .map(this::toDTO);
     }
 
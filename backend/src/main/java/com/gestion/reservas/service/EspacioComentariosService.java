@@ -1,5 +1,6 @@
 package com.gestion.reservas.service;
 
+import com.gestion.reservas.dto.ComentarioDTO;
 import com.gestion.reservas.dto.EspacioComentariosDTO;
 
 import java.util.List;
@@ -7,4 +8,8 @@ import java.util.List;
 public interface EspacioComentariosService {
 
     List<EspacioComentariosDTO> obtenerResumenComentarios();
+
+    List<ComentarioDTO> obtenerComentariosEspacio(Long idEspacio, Integer desde, Integer limite);
+
+    int reconstruirValoraciones();
 }
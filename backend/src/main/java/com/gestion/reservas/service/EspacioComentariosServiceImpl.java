@@ -1,20 +1,63 @@
 package com.gestion.reservas.service;
 
 
+import com.gestion.reservas.dto.ComentarioDTO;
 import com.gestion.reservas.dto.EspacioComentariosDTO;
 import com.gestion.reservas.repository.EspacioComentariosRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class EspacioComentariosServiceImpl implements EspacioComentariosService  {
 
+    private static final int MAX_COMENTARIOS_PAGINA = 100;
+
     private final EspacioComentariosRepository espacioComentariosRepository;
+    private final ValoracionesEspacio valoracionesEspacio;
+
+    // Comentarios incluidos por espacio en el resumen; el resto se piden con "cargar más"
+    @Value("${reservas.comentarios.por-espacio:5}")
+    private int comentariosPorEspacio;
 
     public List<EspacioComentariosDTO> obtenerResumenComentarios() {
-        return espacioComentariosRepository.obtenerResumenComentariosPorEspacio();
+        List<EspacioComentariosDTO> resumen = espacioComentariosRepository.obtenerEspaciosResumen();
+        valoracionesEspacio.completar(resumen);
+
+        // Solo se piden comentarios de los espacios que tienen alguno aprobado
+        List<Long> idsConComentarios = resumen.stream()
+                .filter(dto -> dto.getCantidadResenas() > 0)
+                .map(EspacioComentariosDTO::getIdEspacio)
+                .toList();
+
+        Map<Long, List<ComentarioDTO>> comentarios =
+                espacioComentariosRepository.obtenerUltimosComentariosAprobados(idsConComentarios, comentariosPorEspacio);
+        resumen.forEach(dto -> dto.setComentarios(comentarios.getOrDefault(dto.getIdEspacio(), dto.getComentarios())));
+
+        return resumen;
+    }
+
+    @Override
+    public int reconstruirValoraciones() {
+        return valoracionesEspacio.reconstruir();
+    }
+
+    @Override
+    public List<ComentarioDTO> obtenerComentariosEspacio(Long idEspacio, Integer desde, Integer limite) {
+        int inicio = desde != null ? desde : 0;
+        int cantidad = limite != null ? limite : comentariosPorEspacio;
+
+        if (inicio < 0) {
+            throw new IllegalArgumentException("El desplazamiento no puede ser negativo");
+        }
+        if (cantidad <= 0 || cantidad > MAX_COMENTARIOS_PAGINA) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_COMENTARIOS_PAGINA);
+        }
+
+        return espacioComentariosRepository.obtenerComentariosAprobadosPorEspacio(idEspacio, inicio, cantidad);
     }
 }
@@ -0,0 +1,5 @@
+package com.gestion.reservas.service;
+
+// Espacio candidato de una recomendación con su probabilidad ya redondeada a milésimas
+public record EspacioPuntuado(Long idEspacio, double probabilidad) {
+}
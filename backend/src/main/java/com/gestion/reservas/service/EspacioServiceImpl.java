@@ -5,12 +5,13 @@ import com.gestion.reservas.entity.Espacio;
 import com.gestion.reservas.entity.Equipamiento;
 import com.gestion.reservas.entity.EstadoEspacio;
 import com.gestion.reservas.entity.TipoEspacio;
+import com.gestion.reservas.event.EspacioModificadoEvent;
+import com.gestion.reservas.mapper.EspacioMapper;
 import com.gestion.reservas.repository.EquipamientoRepository;
 import com.gestion.reservas.repository.EspacioRepository;
-import com.gestion.reservas.repository.EstadoEspacioRepository;
-import com.gestion.reservas.repository.TipoEspacioRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -31,9 +32,10 @@ import java.util.UUID;
 public class EspacioServiceImpl implements EspacioService {
 
     private final EspacioRepository espacioRepo;
-    private final TipoEspacioRepository tipoRepo;
-    private final EstadoEspacioRepository estadoRepo;
+    private final CatalogosReferencia catalogos;
     private final EquipamientoRepository equipamientoRepo;
+    private final EspacioMapper espacioMapper;
+    private final ApplicationEventPublisher eventos;
 
     @Value("${upload.dir}")
     private String uploadDir;
@@ -64,8 +66,8 @@ public class EspacioServiceImpl implements EspacioService {
         espacio.setUbicacion(ubicacion);
         espacio.setDescripcion(descripcion);
 
-        TipoEspacio tipo = tipoRepo.findById(idTipoEspacio).orElseThrow();
-        EstadoEspacio estado = estadoRepo.findById(idEstado).orElseThrow();
+        TipoEspacio tipo = catalogos.tiposEspacio().porId(idTipoEspacio).orElseThrow();
+        EstadoEspacio estado = catalogos.estadosEspacio().porId(idEstado).orElseThrow();
 
         espacio.setTipoEspacio(tipo);
         espacio.setEstado(estado);
@@ -89,6 +91,7 @@ public class EspacioServiceImpl implements EspacioService {
         }
 
         Espacio guardado = espacioRepo.save(espacio);
+        eventos.publishEvent(new EspacioModificadoEvent(guardado.getIdEspacio()));
         return toDTO(guardado);
     }
 
@@ -115,10 +118,10 @@ public class EspacioServiceImpl implements EspacioService {
         espacio.setDescripcion(descripcion);
 
 
-        espacio.setTipoEspacio(tipoRepo.findById(idTipoEspacio)
+        espacio.setTipoEspacio(catalogos.tiposEspacio().porId(idTipoEspacio)
                 .orElseThrow(() -> new RuntimeException("Tipo de espacio no encontrado")));
 
-        espacio.setEstado(estadoRepo.findById(idEstado)
+        espacio.setEstado(catalogos.estadosEspacio().porId(idEstado)
                 .orElseThrow(() -> new RuntimeException("Estado no encontrado")));
 
         List<Equipamiento> equipamientoList = equipamientoRepo.findAllById(equipamientos);
@@ -139,6 +142,7 @@ public class EspacioServiceImpl implements EspacioService {
 
 
         espacioRepo.save(espacio);
+        eventos.publishEvent(new EspacioModificadoEvent(id));
 
 
         return toDTO(espacio);
@@ -165,6 +169,7 @@ public class EspacioServiceImpl implements EspacioService {
 
 
             espacioRepo.deleteById(id);
+            eventos.publishEvent(new EspacioModificadoEvent(id));
         }
     }
 
@@ -175,9 +180,9 @@ public class EspacioServiceImpl implements EspacioService {
                 .ubicacion(dto.getUbicacion())
                 .descripcion(dto.getDescripcion())
                 .imagen(dto.getImagen())
-                .tipoEspacio(tipoRepo.findById(dto.getIdTipoEspacio())
+                .tipoEspacio(catalogos.tiposEspacio().porId(dto.getIdTipoEspacio())
                         .orElseThrow(() -> new IllegalArgumentException("Tipo espacio no válido")))
-                .estado(estadoRepo.findById(dto.getIdEstado())
+                .estado(catalogos.estadosEspacio().porId(dto.getIdEstado())
                         .orElseThrow(() -> new IllegalArgumentException("Estado no válido")))
                 .equipamientos(
                         dto.getEquipamientos().stream()
@@ -190,45 +195,19 @@ public class EspacioServiceImpl implements EspacioService {
 
 
     public EspacioResponseDTO toDTO(Espacio espacio) {
-        EspacioResponseDTO dto = new EspacioResponseDTO();
-
-        dto.setIdEspacio(espacio.getIdEspacio());
-        dto.setNombre(espacio.getNombre());
-        dto.setCapacidad(espacio.getCapacidad());
-        dto.setUbicacion(espacio.getUbicacion());
-        dto.setDescripcion(espacio.getDescripcion());
-        dto.setImagen(espacio.getImagen());
-
-        TipoEspacioDTO tipoDto = new TipoEspacioDTO();
-        tipoDto.setIdTipoEspacio(espacio.getTipoEspacio().getIdTipoEspacio());
-        tipoDto.setDescripcion(espacio.getTipoEspacio().getDescripcion());
-        dto.setTipo(tipoDto);
-
-        EstadoEspacioDTO estadoDto = new EstadoEspacioDTO();
-        estadoDto.setIdEstado(espacio.getEstado().getIdEstado());
-        estadoDto.setDescripcion(espacio.getEstado().getDescripcion());
-        dto.setEstado(estadoDto);
-
-        List<EquipamientoDTO> equipamientoDTOs = espacio.getEquipamientos().stream().map(eq -> {
-            EquipamientoDTO e = new EquipamientoDTO();
-            e.setIdEquipamiento(eq.getIdEquipamiento());
-            e.setDescripcion(eq.getDescripcion());
-            return e;
-        }).toList();
-        dto.setEquipamientos(equipamientoDTOs);
-
-        return dto;
+        return espacioMapper.toDTO(espacio);
     }
 
     public void updateEstado(Long idEspacio, Long idEstado) {
         Espacio espacio = espacioRepo.findById(idEspacio)
                 .orElseThrow(() -> new NoSuchElementException("Espacio no encontrado"));
 
-        EstadoEspacio nuevoEstado = estadoRepo.findById(idEstado)
+        EstadoEspacio nuevoEstado = catalogos.estadosEspacio().porId(idEstado)
                 .orElseThrow(() -> new NoSuchElementException("Estado no encontrado"));
 
         espacio.setEstado(nuevoEstado);
         espacioRepo.save(espacio);
+        eventos.publishEvent(new EspacioModificadoEvent(idEspacio));
     }
 
 
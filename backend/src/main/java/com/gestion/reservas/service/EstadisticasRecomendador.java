@@ -0,0 +1,207 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.entity.ConteoRecomendacionId;
+import com.gestion.reservas.repository.ConteoRecomendacionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Recuentos de reservas completadas por (usuario, día, hora, espacio), la misma información con la que
+// se entrena el bosque. Se guardan en recomendador_conteos y en memoria, y solo se suman las reservas
+// nuevas, así que actualizar cuesta lo que el incremento y no lo que el histórico.
+// Con ellos se recomienda por frecuencias: la distribución de espacios de usuario, día y hora,
+// suavizada hacia la del usuario en ese día, la del usuario y la global cuando hay pocos datos.
+@Component
+public class EstadisticasRecomendador {
+
+    private static final int DIAS = 7;
+    private static final int HORAS = 24;
+    // Posiciones de cada espacio: [dia * 24 + hora], luego [168 + dia] y al final el total
+    private static final int POR_DIA = DIAS * HORAS;
+    private static final int TOTAL = POR_DIA + DIAS;
+    private static final int TAMANO = TOTAL + 1;
+
+    private final ConteoRecomendacionRepository conteoRepository;
+    private final int tamanoLote;
+    private final double suavizado;
+
+    // Cada perfil se sustituye entero al actualizarlo; quien lo está leyendo sigue con el anterior
+    private final Map<Long, Perfil> perfiles = new ConcurrentHashMap<>();
+    private volatile Globales globales = new Globales(Map.of(), 0);
+    private volatile boolean cargado;
+
+    public EstadisticasRecomendador(ConteoRecomendacionRepository conteoRepository,
+                                    @Value("${reservas.recomendador.tamano-lote:5000}") int tamanoLote,
+                                    @Value("${reservas.recomendador.suavizado:2.0}") double suavizado) {
+        this.conteoRepository = conteoRepository;
+        this.tamanoLote = tamanoLote;
+        this.suavizado = suavizado;
+    }
+
+    public boolean estaCargado() {
+        return cargado;
+    }
+
+    // Carga los conteos en memoria (tabla creada con db/002_recomendador_conteos.sql). Solo se reconstruye desde
+    // el histórico si la tabla está vacía pero hay reservas marcadas como usadas que los incrementos ya no sumarían;
+    // una tabla vacía sin nada marcado se rellena con los incrementos normales
+    public synchronized void cargar() {
+        if (cargado) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        if (conteoRepository.count() == 0 && conteoRepository.hayCompletadasSinContar()) {
+            int filas = conteoRepository.reconstruirTodo();
+            System.out.println("[RECOMENDADOR] Conteos reconstruidos desde el histórico: " + filas + " filas");
+        }
+
+        Map<ConteoRecomendacionId, Long> todos = new HashMap<>();
+        conteoRepository.findAll().forEach(c -> todos.put(c.getId(), c.getReservas()));
+        perfiles.clear();
+        globales = new Globales(Map.of(), 0);
+        aplicar(todos);
+        cargado = true;
+        System.out.println("[RECOMENDADOR] Conteos cargados: " + todos.size() + " filas de " + perfiles.size()
+                + " usuarios en " + (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    // Suma las reservas completadas desde la última vez. Devuelve cuántas había
+    public synchronized long actualizar() {
+        if (!cargado) {
+            cargar();
+        }
+        long nuevas = 0;
+        while (true) {
+            Map<ConteoRecomendacionId, Long> incremento = conteoRepository.acumularPendientes(tamanoLote);
+            long lote = incremento.values().stream().mapToLong(Long::longValue).sum();
+            aplicar(incremento);
+            nuevas += lote;
+            if (lote < tamanoLote) {
+                return nuevas;
+            }
+        }
+    }
+
+    // Solo lo llama un hilo a la vez (cargar y actualizar están sincronizados)
+    void aplicar(Map<ConteoRecomendacionId, Long> incremento) {
+        if (incremento.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<ConteoRecomendacionId, Long>> porUsuario = new HashMap<>();
+        incremento.forEach((id, cantidad) ->
+                porUsuario.computeIfAbsent(id.getIdUsuario(), u -> new HashMap<>()).put(id, cantidad));
+
+        Map<Long, Long> nuevosGlobales = new HashMap<>(globales.espacios());
+        long sumaGlobal = globales.total();
+        for (Map.Entry<Long, Map<ConteoRecomendacionId, Long>> entrada : porUsuario.entrySet()) {
+            Perfil anterior = perfiles.get(entrada.getKey());
+            Map<Long, int[]> espacios = anterior != null ? new HashMap<>(anterior.espacios()) : new HashMap<>();
+            int[] totales = anterior != null ? anterior.totales().clone() : new int[TAMANO];
+            Map<Long, int[]> copiados = new HashMap<>();
+
+            for (Map.Entry<ConteoRecomendacionId, Long> conteo : entrada.getValue().entrySet()) {
+                ConteoRecomendacionId id = conteo.getKey();
+                int cantidad = Math.toIntExact(conteo.getValue());
+                int[] fila = copiados.computeIfAbsent(id.getIdEspacio(), e -> {
+                    int[] actual = espacios.get(e);
+                    return actual != null ? actual.clone() : new int[TAMANO];
+                });
+                sumar(fila, id.getDiaSemana(), id.getHora(), cantidad);
+                sumar(totales, id.getDiaSemana(), id.getHora(), cantidad);
+                nuevosGlobales.merge(id.getIdEspacio(), (long) cantidad, Long::sum);
+                sumaGlobal += cantidad;
+            }
+            espacios.putAll(copiados);
+            perfiles.put(entrada.getKey(), new Perfil(Map.copyOf(espacios), totales));
+        }
+        globales = new Globales(Map.copyOf(nuevosGlobales), sumaGlobal);
+    }
+
+    private static void sumar(int[] fila, int dia, int hora, int cantidad) {
+        if (dia >= 0 && dia < DIAS) {
+            if (hora >= 0 && hora < HORAS) {
+                fila[dia * HORAS + hora] += cantidad;
+            }
+            fila[POR_DIA + dia] += cantidad;
+        }
+        fila[TOTAL] += cantidad;
+    }
+
+    // Los k espacios más probables. Cada nivel parte del anterior como prior con peso "suavizado":
+    // global (con un conteo de más por espacio), usuario, usuario y día, usuario, día y hora.
+    // Con hora -1 o fuera de rango se para en el día; con día fuera de rango, en el usuario.
+    public List<EspacioPuntuado> recomendar(long usuarioId, int diaSemana, int hora, int k) {
+        Globales global = globales;
+        Perfil perfil = perfiles.get(usuarioId);
+        boolean conDia = diaSemana >= 0 && diaSemana < DIAS;
+        boolean conHora = conDia && hora >= 0 && hora < HORAS;
+
+        List<EspacioPuntuado> mejores = new ArrayList<>(k + 1);
+        for (Map.Entry<Long, Long> espacio : global.espacios().entrySet()) {
+            double probabilidad = (espacio.getValue() + 1.0) / (global.total() + global.espacios().size());
+            if (perfil != null) {
+                int[] fila = perfil.espacios().get(espacio.getKey());
+                probabilidad = suavizar(fila, perfil.totales(), TOTAL, probabilidad);
+                if (conDia) {
+                    probabilidad = suavizar(fila, perfil.totales(), POR_DIA + diaSemana, probabilidad);
+                }
+                if (conHora) {
+                    probabilidad = suavizar(fila, perfil.totales(), diaSemana * HORAS + hora, probabilidad);
+                }
+            }
+            insertar(mejores, new EspacioPuntuado(espacio.getKey(), probabilidad), k);
+        }
+
+        List<EspacioPuntuado> resultado = new ArrayList<>(mejores.size());
+        for (EspacioPuntuado espacio : mejores) {
+            resultado.add(new EspacioPuntuado(espacio.idEspacio(), TablaRecomendaciones.redondear(espacio.probabilidad())));
+        }
+        return resultado;
+    }
+
+    private double suavizar(int[] fila, int[] totales, int posicion, double prior) {
+        int conteo = fila != null ? fila[posicion] : 0;
+        return (conteo + suavizado * prior) / (totales[posicion] + suavizado);
+    }
+
+    // Mantiene la lista ordenada por probabilidad descendente y, a igualdad, por id de espacio
+    private static void insertar(List<EspacioPuntuado> mejores, EspacioPuntuado candidato, int k) {
+        int i = mejores.size();
+        while (i > 0 && antes(candidato, mejores.get(i - 1))) {
+            i--;
+        }
+        if (i < k) {
+            mejores.add(i, candidato);
+            if (mejores.size() > k) {
+                mejores.remove(k);
+            }
+        }
+    }
+
+    private static boolean antes(EspacioPuntuado a, EspacioPuntuado b) {
+        return a.probabilidad() > b.probabilidad()
+                || (a.probabilidad() == b.probabilidad() && a.idEspacio() < b.idEspacio());
+    }
+
+    public Map<String, Object> estado() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("conteosCargados", cargado);
+        estado.put("usuariosConConteos", perfiles.size());
+        Globales global = globales;
+        estado.put("espaciosConConteos", global.espacios().size());
+        estado.put("reservasContadas", global.total());
+        return estado;
+    }
+
+    private record Globales(Map<Long, Long> espacios, long total) {
+    }
+
+    private record Perfil(Map<Long, int[]> espacios, int[] totales) {
+    }
+}
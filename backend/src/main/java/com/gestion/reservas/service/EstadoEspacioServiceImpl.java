@@ -4,7 +4,6 @@ package com.gestion.reservas.service;
 
 import com.gestion.reservas.entity.EstadoEspacio;
 import com.gestion.reservas.entity.TipoEspacio;
-import com.gestion.reservas.repository.EstadoEspacioRepository;
 import com.gestion.reservas.repository.TipoEspacioRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -16,15 +15,16 @@ import java.util.Optional;
 @Service
 public class EstadoEspacioServiceImpl implements EstadoEspacioService {
 
-    private final EstadoEspacioRepository estadoEspacioRepository;
+    // Se sirven de la copia en memoria de las tablas de referencia
+    private final CatalogosReferencia catalogos;
 
     @Override
     public Optional<EstadoEspacio> findById(Long id) {
-        return estadoEspacioRepository.findById(id);
+        return catalogos.estadosEspacio().porId(id);
     }
 
     @Override
     public List<EstadoEspacio> findAll() {
-        return estadoEspacioRepository.findAll();
+        return catalogos.estadosEspacio().todos();
     }
 }
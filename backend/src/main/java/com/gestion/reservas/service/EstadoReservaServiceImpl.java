@@ -2,7 +2,6 @@ package com.gestion.reservas.service;
 
 
 import com.gestion.reservas.entity.EstadoReserva;
-import com.gestion.reservas.repository.EstadoReservaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,15 +12,16 @@ import java.util.Optional;
 @Service
 public class EstadoReservaServiceImpl implements EstadoReservaService {
 
-    private final EstadoReservaRepository estadoReservaRepository;
+    // Se sirven de la copia en memoria de las tablas de referencia
+    private final CatalogosReferencia catalogos;
 
     @Override
     public Optional<EstadoReserva> findById(Long id) {
-        return estadoReservaRepository.findById(id);
+        return catalogos.estadosReserva().porId(id);
     }
 
     @Override
     public List<EstadoReserva> findAll() {
-        return estadoReservaRepository.findAll();
+        return catalogos.estadosReserva().todos();
     }
 }
@@ -0,0 +1,18 @@
+package com.gestion.reservas.service;
+
+import java.time.LocalDateTime;
+
+// Utilidades para recortar intervalos de fechas
+final class Fechas {
+
+    private Fechas() {
+    }
+
+    static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,103 @@
+package com.gestion.reservas.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+// Horario en el que los espacios se pueden reservar.
+// Un espacio puede tener horario propio con reservas.horario.espacios.<idEspacio>=HH:mm-HH:mm
+@Component
+@RequiredArgsConstructor
+public class HorarioApertura {
+
+    private final Environment environment;
+
+    @Value("${reservas.horario.apertura:08:00}")
+    private String aperturaTexto;
+
+    @Value("${reservas.horario.cierre:20:00}")
+    private String cierreTexto;
+
+    // Días de la semana sin apertura, p. ej. SATURDAY,SUNDAY
+    @Value("${reservas.horario.dias-cerrados:}")
+    private String diasCerradosTexto;
+
+    private Horario general;
+    private Map<Long, Horario> porEspacio = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        LocalTime apertura = LocalTime.parse(aperturaTexto);
+        LocalTime cierre = LocalTime.parse(cierreTexto);
+        validar(apertura, cierre);
+
+        Set<DayOfWeek> diasCerrados = EnumSet.noneOf(DayOfWeek.class);
+        for (String dia : diasCerradosTexto.split(",")) {
+            if (!dia.isBlank()) {
+                diasCerrados.add(DayOfWeek.valueOf(dia.trim().toUpperCase()));
+            }
+        }
+        this.general = new Horario(apertura, cierre, diasCerrados);
+
+        Map<Long, String> configurados = Binder.get(environment)
+                .bind("reservas.horario.espacios", Bindable.mapOf(Long.class, String.class))
+                .orElse(Collections.emptyMap());
+
+        Map<Long, Horario> horarios = new HashMap<>();
+        configurados.forEach((idEspacio, texto) -> {
+            String[] partes = texto.split("-");
+            if (partes.length != 2) {
+                throw new IllegalStateException("Horario no válido para el espacio " + idEspacio + ": " + texto);
+            }
+            LocalTime abre = LocalTime.parse(partes[0].trim());
+            LocalTime cierra = LocalTime.parse(partes[1].trim());
+            validar(abre, cierra);
+            horarios.put(idEspacio, new Horario(abre, cierra, diasCerrados));
+        });
+        this.porEspacio = horarios;
+    }
+
+    public Horario de(Long idEspacio) {
+        return porEspacio.getOrDefault(idEspacio, general);
+    }
+
+    private void validar(LocalTime abre, LocalTime cierra) {
+        if (!abre.isBefore(cierra)) {
+            throw new IllegalStateException("El horario de apertura debe ser anterior al de cierre");
+        }
+    }
+
+    public record Horario(LocalTime apertura, LocalTime cierre, Set<DayOfWeek> diasCerrados) {
+
+        public boolean abre(LocalDate dia) {
+            return !diasCerrados.contains(dia.getDayOfWeek());
+        }
+
+        // Minutos de apertura dentro de [desde, hasta)
+        public long minutosAbierto(LocalDateTime desde, LocalDateTime hasta) {
+            long minutos = 0;
+            for (LocalDate dia = desde.toLocalDate(); !dia.isAfter(hasta.toLocalDate()); dia = dia.plusDays(1)) {
+                if (!abre(dia)) {
+                    continue;
+                }
+                LocalDateTime inicio = Fechas.max(dia.atTime(apertura), desde);
+                LocalDateTime fin = Fechas.min(dia.atTime(cierre), hasta);
+                if (inicio.isBefore(fin)) {
+                    minutos += Duration.between(inicio, fin).toMinutes();
+                }
+            }
+            return minutos;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.IntervaloReservaDTO;
+import com.gestion.reservas.entity.Reserva;
+import com.gestion.reservas.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Índice en memoria de las reservas no canceladas, agrupadas por espacio,
+// para responder a consultas de solapamiento sin ir a base de datos
+@Component
+@RequiredArgsConstructor
+public class IndiceDisponibilidad extends AgrupacionEnMemoria<IntervaloReservaDTO, IndiceDisponibilidad.AgendaEspacio> {
+
+    private static final Comparator<IntervaloReservaDTO> POR_INICIO =
+            Comparator.comparing(IntervaloReservaDTO::getFechaInicio)
+                    .thenComparing(IntervaloReservaDTO::getIdReserva);
+
+    private final ReservaRepository reservaRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        try {
+            reemplazar(reservaRepository.obtenerIntervalosActivos());
+            System.out.println("[DISPONIBILIDAD] Índice cargado con " + elementos().size() + " reservas");
+        } catch (Exception e) {
+            System.err.println("[DISPONIBILIDAD] No se pudo cargar el índice: " + e.getMessage());
+        }
+    }
+
+    // Misma semántica que findByEspacioIdAndRangoFechasSolapado: fechaInicio <= fin y fechaFin >= inicio
+    public boolean haySolapamiento(Long idEspacio, LocalDateTime inicio, LocalDateTime fin) {
+        AgendaEspacio agenda = grupo(idEspacio);
+        return agenda != null && agenda.haySolapamiento(inicio, fin);
+    }
+
+    // Reservas del espacio que tocan el rango [desde, hasta], ordenadas por inicio
+    public List<IntervaloReservaDTO> intervalos(Long idEspacio, LocalDateTime desde, LocalDateTime hasta) {
+        AgendaEspacio agenda = grupo(idEspacio);
+        return agenda != null ? agenda.intervalos(desde, hasta) : Collections.emptyList();
+    }
+
+    public synchronized void registrar(Reserva reserva) {
+        if (reserva.getIdReserva() == null) {
+            return;
+        }
+
+        if (reserva.getEstado() == null
+                || "Cancelada".equalsIgnoreCase(reserva.getEstado().getDescripcion())
+                || reserva.getFechaInicio() == null
+                || reserva.getFechaFin() == null) {
+            eliminar(reserva.getIdReserva());
+            return;
+        }
+
+        poner(new IntervaloReservaDTO(
+                reserva.getIdReserva(),
+                reserva.getEspacio().getIdEspacio(),
+                reserva.getFechaInicio(),
+                reserva.getFechaFin()
+        ));
+    }
+
+    @Scheduled(cron = "0 */15 * * * *") // Cada 15 minutos
+    public void reconciliar() {
+        long versionInicial = version();
+        List<IntervaloReservaDTO> actuales;
+        try {
+            actuales = reservaRepository.obtenerIntervalosActivos();
+        } catch (Exception e) {
+            System.err.println("[DISPONIBILIDAD] Reconciliación fallida: " + e.getMessage());
+            return;
+        }
+
+        Map<Long, IntervaloReservaDTO> esperados = new HashMap<>();
+        for (IntervaloReservaDTO intervalo : actuales) {
+            esperados.put(intervalo.getIdReserva(), intervalo);
+        }
+
+        Map<Long, IntervaloReservaDTO> porReserva = elementos();
+        int diferencias = 0;
+        for (IntervaloReservaDTO intervalo : esperados.values()) {
+            if (!intervalo.equals(porReserva.get(intervalo.getIdReserva()))) {
+                diferencias++;
+            }
+        }
+        for (Long idReserva : porReserva.keySet()) {
+            if (!esperados.containsKey(idReserva)) {
+                diferencias++;
+            }
+        }
+
+        if (diferencias == 0 && isCargado()) {
+            return;
+        }
+
+        // Si hubo escrituras mientras se leía la BD se reintenta en la próxima pasada
+        if (reemplazarSiSinCambios(versionInicial, actuales)) {
+            System.out.println("[DISPONIBILIDAD] Reconciliación corrigió " + diferencias + " diferencias");
+        }
+    }
+
+    @Override
+    protected Long id(IntervaloReservaDTO intervalo) {
+        return intervalo.getIdReserva();
+    }
+
+    @Override
+    protected Long idGrupo(IntervaloReservaDTO intervalo) {
+        return intervalo.getIdEspacio();
+    }
+
+    @Override
+    protected AgendaEspacio nuevoGrupo() {
+        return new AgendaEspacio();
+    }
+
+    @Override
+    protected void agregar(AgendaEspacio agenda, IntervaloReservaDTO intervalo) {
+        agenda.agregar(intervalo);
+    }
+
+    @Override
+    protected void quitar(AgendaEspacio agenda, IntervaloReservaDTO intervalo) {
+        agenda.quitar(intervalo);
+    }
+
+    // Reservas de un espacio ordenadas por inicio. La duración máxima acota por la izquierda la búsqueda
+    static class AgendaEspacio {
+
+        private final TreeSet<IntervaloReservaDTO> intervalos = new TreeSet<>(POR_INICIO);
+        private Duration duracionMaxima = Duration.ZERO;
+
+        synchronized void agregar(IntervaloReservaDTO intervalo) {
+            intervalos.add(intervalo);
+            Duration duracion = Duration.between(intervalo.getFechaInicio(), intervalo.getFechaFin());
+            if (duracion.compareTo(duracionMaxima) > 0) {
+                duracionMaxima = duracion;
+            }
+        }
+
+        synchronized void quitar(IntervaloReservaDTO intervalo) {
+            intervalos.remove(intervalo);
+        }
+
+        synchronized boolean haySolapamiento(LocalDateTime inicio, LocalDateTime fin) {
+            for (IntervaloReservaDTO intervalo : candidatos(inicio, fin)) {
+                if (!intervalo.getFechaFin().isBefore(inicio)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized List<IntervaloReservaDTO> intervalos(LocalDateTime inicio, LocalDateTime fin) {
+            List<IntervaloReservaDTO> resultado = new ArrayList<>();
+            for (IntervaloReservaDTO intervalo : candidatos(inicio, fin)) {
+                if (!intervalo.getFechaFin().isBefore(inicio)) {
+                    resultado.add(intervalo);
+                }
+            }
+            return resultado;
+        }
+
+        private NavigableSet<IntervaloReservaDTO> candidatos(LocalDateTime inicio, LocalDateTime fin) {
+            IntervaloReservaDTO desde = new IntervaloReservaDTO(Long.MIN_VALUE, null, inicio.minus(duracionMaxima), null);
+            IntervaloReservaDTO hasta = new IntervaloReservaDTO(Long.MAX_VALUE, null, fin, null);
+            return intervalos.subSet(desde, true, hasta, true);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.gestion.reservas.service;
 
 import com.gestion.reservas.dto.MisReservasDTO;
+import com.gestion.reservas.dto.FiltroReservasDTO;
+import com.gestion.reservas.dto.PaginaDTO;
 import com.gestion.reservas.dto.ReservaDTO;
 
 import java.util.List;
@@ -10,6 +12,8 @@ public interface MisReservasService {
 
     List<MisReservasDTO> findAll();
 
+    PaginaDTO<MisReservasDTO> buscarPagina(FiltroReservasDTO filtro, String cursor, Integer limite);
+
     Optional<MisReservasDTO> findById(Long id);
 
     MisReservasDTO save(MisReservasDTO misreservaDTO);
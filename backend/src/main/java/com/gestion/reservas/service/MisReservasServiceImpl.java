@@ -1,18 +1,21 @@
 package com.gestion.reservas.service;
 
+import com.gestion.reservas.dto.FiltroReservasDTO;
 import com.gestion.reservas.dto.MisReservasDTO;
+import com.gestion.reservas.dto.PaginaDTO;
 import com.gestion.reservas.dto.ReservaDTO;
 import com.gestion.reservas.entity.Espacio;
 import com.gestion.reservas.entity.EstadoReserva;
 import com.gestion.reservas.entity.Reserva;
 import com.gestion.reservas.entity.Usuario;
+import com.gestion.reservas.event.ReservaModificadaEvent;
 import com.gestion.reservas.mapper.MisReservasMapper;
 import com.gestion.reservas.repository.EspacioRepository;
-import com.gestion.reservas.repository.EstadoReservaRepository;
 import com.gestion.reservas.repository.ReservaRepository;
 import com.gestion.reservas.repository.UsuarioRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,10 +33,13 @@ public class MisReservasServiceImpl implements MisReservasService {
     private final ReservaRepository reservaRepository;
     private final UsuarioRepository usuarioRepository;
     private final EspacioRepository espacioRepository;
-    private final EstadoReservaRepository estadoReservaRepository;
+    private final CatalogosReferencia catalogos;
     private final NotificacionService notificacionService;
     private final MisReservasMapper mapper;
     private final GoogleCalendarService googleCalendarService;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final BloqueoEspacios bloqueoEspacios;
+    private final ApplicationEventPublisher eventos;
 
     @Override
     public List<MisReservasDTO> findAll() {
@@ -43,6 +49,13 @@ public class MisReservasServiceImpl implements MisReservasService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PaginaDTO<MisReservasDTO> buscarPagina(FiltroReservasDTO filtro, String cursor, Integer limite) {
+        return PaginaDTO.buscar(cursor, limite,
+                (idReservaAnterior, filas) -> reservaRepository.buscarPagina(filtro, idReservaAnterior, filas),
+                Reserva::getIdReserva, mapper::toDTO);
+    }
+
     @Override
     public Optional<MisReservasDTO> findById(Long id) {
         return reservaRepository.findById(id)
@@ -65,19 +78,21 @@ public class MisReservasServiceImpl implements MisReservasService {
         Espacio espacio = espacioRepository.findById(dto.getEspacio().getIdEspacio())
                 .orElseThrow(() -> new IllegalArgumentException("Espacio no encontrado"));
 
-        EstadoReserva estado = estadoReservaRepository.findById(dto.getEstado().getIdEstado())
+        EstadoReserva estado = catalogos.estadosReserva().porId(dto.getEstado().getIdEstado())
                 .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado"));
 
+        ReservaModificadaEvent anterior = cambioAnterior(dto.getIdReserva());
         Reserva reserva = mapper.toEntity(dto, usuario, espacio, estado);
 
-        // Sincronizar con Google Calendar antes de guardar si está activado
-        if (dto.isSincronizado()) {
-            String eventoId = googleCalendarService.insertarEvento(reserva);
-            reserva.setEventid(eventoId);
-        }
-
+        // Comprobación de solapamiento y guardado bajo el bloqueo del espacio
+        Reserva saved = bloqueoEspacios.guardarSinSolapar(reserva);
 
-        Reserva saved = reservaRepository.save(reserva);
+        // Sincronizar con Google Calendar ya fuera del bloqueo, para no retener el espacio durante la llamada
+        if (dto.isSincronizado() && saved.getEventid() == null) {
+            saved = sincronizarCalendario(saved);
+        }
+        publicar(anterior);
+        publicarCambio(saved);
 
         String mensaje = String.format(
                 "Tu reserva #%S en el espacio %s para el día %s ha sido registrada.",
@@ -92,16 +107,53 @@ public class MisReservasServiceImpl implements MisReservasService {
         return mapper.toDTO(saved);
     }
 
+    // Si Google Calendar falla la reserva se mantiene, marcada como no sincronizada
+    private Reserva sincronizarCalendario(Reserva reserva) {
+        try {
+            reserva.setEventid(googleCalendarService.insertarEvento(reserva));
+        } catch (Exception e) {
+            System.err.println("No se pudo crear el evento de Google Calendar: " + e.getMessage());
+            reserva.setSincronizado(false);
+        }
+        return reservaRepository.save(reserva);
+    }
+
     @Override
     public void deleteById(Long id) {
+        ReservaModificadaEvent anterior = cambioAnterior(id);
         reservaRepository.deleteById(id);
+        indiceDisponibilidad.eliminar(id);
+        publicar(anterior);
+    }
+
+    // Fechas que ocupa la reserva guardada, copiadas antes de cambiarla: con open-in-view, findById devuelve
+    // la misma entidad gestionada en la que save() vuelca los valores nuevos
+    private ReservaModificadaEvent cambioAnterior(Long idReserva) {
+        if (idReserva == null) {
+            return null;
+        }
+        return reservaRepository.findById(idReserva)
+                .map(reserva -> new ReservaModificadaEvent(reserva.getFechaInicio(), reserva.getFechaFin()))
+                .orElse(null);
+    }
+
+    private void publicarCambio(Reserva reserva) {
+        if (reserva != null) {
+            publicar(new ReservaModificadaEvent(reserva.getFechaInicio(), reserva.getFechaFin()));
+        }
+    }
+
+    private void publicar(ReservaModificadaEvent evento) {
+        if (evento != null) {
+            eventos.publishEvent(evento);
+        }
     }
 
     public void cancelarReserva(Long idReserva) {
         Reserva reserva = reservaRepository.findById(idReserva)
                 .orElseThrow(() -> new EntityNotFoundException("Reserva no encontrada"));
 
-        EstadoReserva estadoCancelado = estadoReservaRepository.findByDescripcionIgnoreCase("Cancelada")
+        EstadoReserva estadoCancelado = catalogos.estadosReserva().porDescripcion("Cancelada")
                 .orElseThrow(() -> new IllegalStateException("Estado 'Cancelada' no configurado"));
 
 
@@ -117,6 +169,8 @@ public class MisReservasServiceImpl implements MisReservasService {
 
         reserva.setEstado(estadoCancelado);
         reservaRepository.save(reserva);
+        indiceDisponibilidad.eliminar(idReserva);
+        publicarCambio(reserva);
 
         Usuario usuario = usuarioRepository.findById(reserva.getUsuario().getIdUsuario())
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
@@ -138,11 +192,13 @@ public class MisReservasServiceImpl implements MisReservasService {
         Reserva reserva = reservaRepository.findById(idReserva)
                 .orElseThrow(() -> new EntityNotFoundException("Reserva no encontrada"));
 
-        EstadoReserva estadoConfirmada = estadoReservaRepository.findByDescripcionIgnoreCase("Confirmada")
+        EstadoReserva estadoConfirmada = catalogos.estadosReserva().porDescripcion("Confirmada")
                 .orElseThrow(() -> new IllegalStateException("Estado 'Confirmada' no encontrado"));
 
         reserva.setEstado(estadoConfirmada);
         reservaRepository.save(reserva);
+        indiceDisponibilidad.registrar(reserva);
+        publicarCambio(reserva);
 
         Usuario usuario = usuarioRepository.findById(reserva.getUsuario().getIdUsuario())
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
@@ -164,6 +220,11 @@ public class MisReservasServiceImpl implements MisReservasService {
         LocalDateTime inicio = LocalDateTime.parse(inicioStr);
         LocalDateTime fin = LocalDateTime.parse(finStr);
 
+        // Consultamos el índice en memoria; si aún no está cargado, vamos a la base de datos
+        if (indiceDisponibilidad.isCargado()) {
+            return !indiceDisponibilidad.haySolapamiento(idEspacio, inicio, fin);
+        }
+
         // Buscar reservas del espacio que se solapen con ese rango
         List<Reserva> reservasSolapadas = reservaRepository.findByEspacioIdAndRangoFechasSolapado(idEspacio, inicio, fin);
 
@@ -175,16 +236,16 @@ public class MisReservasServiceImpl implements MisReservasService {
     public void actualizarReservasVencidas() {
         LocalDateTime ahora = LocalDateTime.now();
 
-        EstadoReserva estadoPendiente = estadoReservaRepository.findByDescripcionIgnoreCase("Pendiente")
+        EstadoReserva estadoPendiente = catalogos.estadosReserva().porDescripcion("Pendiente")
                 .orElseThrow(() -> new IllegalStateException("Estado 'Pendiente' no encontrado"));
 
-        EstadoReserva estadoConfirmada = estadoReservaRepository.findByDescripcionIgnoreCase("Confirmada")
+        EstadoReserva estadoConfirmada = catalogos.estadosReserva().porDescripcion("Confirmada")
                 .orElseThrow(() -> new IllegalStateException("Estado 'Confirmada' no encontrado"));
 
-        EstadoReserva estadoNoUtilizada = estadoReservaRepository.findByDescripcionIgnoreCase("No Utilizada")
+        EstadoReserva estadoNoUtilizada = catalogos.estadosReserva().porDescripcion("No Utilizada")
                 .orElseThrow(() -> new IllegalStateException("Estado 'Cancelada Aut.' no encontrado"));
 
-        EstadoReserva estadoCompletada = estadoReservaRepository.findByDescripcionIgnoreCase("Completada")
+        EstadoReserva estadoCompletada = catalogos.estadosReserva().porDescripcion("Completada")
                 .orElseThrow(() -> new IllegalStateException("Estado 'Completada' no encontrado"));
 
         // --- Pendientes vencidas
@@ -192,6 +253,7 @@ public class MisReservasServiceImpl implements MisReservasService {
         for (Reserva reserva : pendientesVencidas) {
             reserva.setEstado(estadoNoUtilizada);
             reservaRepository.save(reserva);
+            publicarCambio(reserva);
 
             Usuario usuario = reserva.getUsuario();
             String mensaje = String.format(
@@ -207,6 +269,7 @@ public class MisReservasServiceImpl implements MisReservasService {
         for (Reserva reserva : confirmadasVencidas) {
             reserva.setEstado(estadoCompletada);
             reservaRepository.save(reserva);
+            publicarCambio(reserva);
 
             Usuario usuario = reserva.getUsuario();
             String mensaje = String.format(
@@ -225,7 +288,7 @@ public class MisReservasServiceImpl implements MisReservasService {
         LocalDateTime desde = ahora.plusDays(1).minusMinutes(1);
         LocalDateTime hasta = ahora.plusDays(1).plusMinutes(1);
 
-        Optional<EstadoReserva> estadoPendienteOpt = estadoReservaRepository.findByDescripcionIgnoreCase("Pendiente");
+        Optional<EstadoReserva> estadoPendienteOpt = catalogos.estadosReserva().porDescripcion("Pendiente");
 
         if (estadoPendienteOpt.isEmpty()) {
             System.out.println("Estado 'Pendiente' no encontrado. Se omite la notificación de reservas próximas.");
@@ -0,0 +1,68 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.IntervaloReservaDTO;
+import com.gestion.reservas.dto.OcupacionDTO;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ocupación al minuto: tiempo reservado frente a tiempo de apertura de cada espacio en una ventana.
+// Las reservas se recortan a la ventana y al horario del espacio, y los solapes no cuentan dos veces
+@Component
+@RequiredArgsConstructor
+public class MotorOcupacion {
+
+    private final EspacioRepository espacioRepository;
+    private final ReservaRepository reservaRepository;
+    private final HorarioApertura horarioApertura;
+
+    public OcupacionDTO calcular(LocalDateTime desde, LocalDateTime hasta, Long tipoEspacioId, Long estadoId) {
+        if (desde == null || hasta == null || !desde.isBefore(hasta)) {
+            return new OcupacionDTO(0, 0);
+        }
+
+        List<Long> idsEspacio = espacioRepository.findIdsReservables(tipoEspacioId);
+        if (idsEspacio.isEmpty()) {
+            return new OcupacionDTO(0, 0);
+        }
+
+        // Los espacios con el mismo horario tienen los mismos minutos de apertura en la ventana
+        Map<HorarioApertura.Horario, Long> aperturaPorHorario = new HashMap<>();
+        long minutosDisponibles = 0;
+        for (Long idEspacio : idsEspacio) {
+            minutosDisponibles += aperturaPorHorario.computeIfAbsent(horarioApertura.de(idEspacio),
+                    horario -> horario.minutosAbierto(desde, hasta));
+        }
+
+        // Intervalos ordenados por espacio y por inicio: un único recorrido
+        List<IntervaloReservaDTO> intervalos = reservaRepository.findIntervalosOcupacion(idsEspacio, desde, hasta, estadoId);
+
+        long minutosReservados = 0;
+        Long espacioActual = null;
+        HorarioApertura.Horario horario = null;
+        LocalDateTime cubiertoHasta = desde;
+
+        for (IntervaloReservaDTO intervalo : intervalos) {
+            if (!intervalo.getIdEspacio().equals(espacioActual)) {
+                espacioActual = intervalo.getIdEspacio();
+                horario = horarioApertura.de(espacioActual);
+                cubiertoHasta = desde;
+            }
+
+            LocalDateTime inicio = Fechas.max(intervalo.getFechaInicio(), cubiertoHasta);
+            LocalDateTime fin = Fechas.min(intervalo.getFechaFin(), hasta);
+            if (inicio.isBefore(fin)) {
+                minutosReservados += horario.minutosAbierto(inicio, fin);
+                cubiertoHasta = fin;
+            }
+        }
+
+        return new OcupacionDTO(minutosReservados, minutosDisponibles);
+    }
+}
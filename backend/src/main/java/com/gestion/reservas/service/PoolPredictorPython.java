@@ -0,0 +1,350 @@
+package com.gestion.reservas.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gestion.reservas.dto.RecomendacionRequestDTO;
+import com.gestion.reservas.exception.RecomendadorNoDisponibleException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Procesos Python del recomendador que se mantienen arrancados, con el modelo ya cargado.
+// Cada petición es una línea JSON por stdin y su respuesta una línea por stdout con el mismo id,
+// así que un proceso puede tener varias peticiones en curso
+@Component
+@RequiredArgsConstructor
+public class PoolPredictorPython {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // La primera línea de cada proceso (id 0) indica que el modelo está cargado
+    private static final long ID_LISTO = 0;
+
+    private final Environment env;
+    private final EjecutorProcesos ejecutor;
+
+    @Value("${reservas.recomendador.trabajadores:2}")
+    private int numTrabajadores;
+
+    @Value("${reservas.recomendador.peticiones-por-trabajador:4}")
+    private int peticionesPorTrabajador;
+
+    @Value("${reservas.recomendador.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${reservas.recomendador.arranque-ms:60000}")
+    private long arranqueMs;
+
+    // Espera mínima entre dos arranques del mismo hueco, para no relanzar en bucle un script que falla al cargar
+    @Value("${reservas.recomendador.espera-reinicio-ms:10000}")
+    private long esperaReinicioMs;
+
+    private Trabajador[] trabajadores;
+    private long[] ultimoArranque;
+
+    // Plazas de petición en curso en todo el pool; sin plaza libre a tiempo se rechaza la petición
+    private Semaphore plazas;
+
+    private final AtomicLong secuencia = new AtomicLong(ID_LISTO);
+
+    @PostConstruct
+    void inicializar() {
+        trabajadores = new Trabajador[numTrabajadores];
+        ultimoArranque = new long[numTrabajadores];
+        plazas = new Semaphore(numTrabajadores * peticionesPorTrabajador);
+    }
+
+    public void arrancar() {
+        for (int i = 0; i < numTrabajadores; i++) {
+            reiniciarSiCaido(i);
+        }
+    }
+
+    // Todas las consultas en una sola llamada a predict_proba; el proceso no consulta ni escribe
+    // en la base de datos. Devuelve, por consulta, sus "top" espacios con espacio_id y probabilidad
+    public JsonNode puntuarLote(List<RecomendacionRequestDTO> consultas, int top) throws IOException {
+        ObjectNode peticion = MAPPER.createObjectNode().put("tipo", "puntuar_lote").put("top", top);
+        ArrayNode lista = peticion.putArray("consultas");
+        for (RecomendacionRequestDTO consulta : consultas) {
+            lista.addObject()
+                    .put("usuario_id", consulta.getUsuarioId())
+                    .put("dia_semana", consulta.getDiaSemana())
+                    .put("hora", consulta.getHora());
+        }
+        return solicitar(peticion);
+    }
+
+    private JsonNode solicitar(ObjectNode peticion) throws IOException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            if (!plazas.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RecomendadorNoDisponibleException("Recomendador saturado");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RecomendadorNoDisponibleException("Petición al recomendador interrumpida");
+        }
+
+        try {
+            Trabajador trabajador = elegir(limite);
+            return trabajador.enviar(peticion, limite);
+        } finally {
+            plazas.release();
+        }
+    }
+
+    // Cada comprobación hace ping a los procesos y relanza los que han caído o no responden.
+    // Los huecos que nunca se han usado se dejan sin arrancar
+    @Scheduled(fixedDelayString = "${reservas.recomendador.comprobacion-ms:30000}")
+    public void comprobar() {
+        for (int i = 0; i < numTrabajadores; i++) {
+            Trabajador trabajador = trabajadores[i];
+            if (trabajador == null && ultimoArranque[i] == 0) {
+                continue;
+            }
+            if (trabajador != null && trabajador.estaVivo() && !trabajador.estaListo()
+                    && System.currentTimeMillis() - trabajador.arrancado > arranqueMs) {
+                System.err.println("[RECOMENDADOR] Proceso " + i + " no terminó de arrancar en " + arranqueMs + " ms");
+                trabajador.detener();
+            } else if (trabajador != null && trabajador.estaListo()) {
+                try {
+                    long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                    trabajador.enviar(MAPPER.createObjectNode().put("tipo", "ping"), limite);
+                } catch (Exception e) {
+                    System.err.println("[RECOMENDADOR] Proceso " + i + " no responde: " + e.getMessage());
+                    trabajador.detener();
+                }
+            }
+            reiniciarSiCaido(i);
+        }
+    }
+
+    public Map<String, Object> estado() {
+        int listos = 0;
+        int enCurso = 0;
+        for (Trabajador trabajador : trabajadores) {
+            if (trabajador != null && trabajador.estaListo()) {
+                listos++;
+                enCurso += trabajador.enCurso.get();
+            }
+        }
+        return Map.of(
+                "trabajadores", numTrabajadores,
+                "listos", listos,
+                "peticionesEnCurso", enCurso,
+                "plazasLibres", plazas.availablePermits()
+        );
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        for (Trabajador trabajador : trabajadores) {
+            if (trabajador != null) {
+                trabajador.detener();
+            }
+        }
+    }
+
+    // El proceso listo con menos peticiones en curso; si no hay ninguno, se espera al que esté arrancando
+    private Trabajador elegir(long limite) {
+        Trabajador elegido = null;
+        Trabajador arrancando = null;
+        for (int i = 0; i < numTrabajadores; i++) {
+            Trabajador trabajador = reiniciarSiCaido(i);
+            if (trabajador == null) {
+                continue;
+            }
+            if (trabajador.estaListo()) {
+                if (elegido == null || trabajador.enCurso.get() < elegido.enCurso.get()) {
+                    elegido = trabajador;
+                }
+            } else if (arrancando == null) {
+                arrancando = trabajador;
+            }
+        }
+
+        if (elegido != null) {
+            return elegido;
+        }
+        if (arrancando != null && arrancando.esperarListo(limite)) {
+            return arrancando;
+        }
+        throw new RecomendadorNoDisponibleException("No hay procesos del recomendador disponibles");
+    }
+
+    private synchronized Trabajador reiniciarSiCaido(int hueco) {
+        Trabajador actual = trabajadores[hueco];
+        if (actual != null && actual.estaVivo()) {
+            return actual;
+        }
+
+        long ahora = System.currentTimeMillis();
+        if (ultimoArranque[hueco] > 0 && ahora - ultimoArranque[hueco] < esperaReinicioMs) {
+            return null;
+        }
+        ultimoArranque[hueco] = ahora;
+
+        try {
+            trabajadores[hueco] = new Trabajador(hueco, lanzarProceso());
+            System.out.println("[RECOMENDADOR] Proceso " + hueco + (actual == null ? " arrancado" : " reiniciado"));
+        } catch (IOException e) {
+            System.err.println("[RECOMENDADOR] No se pudo arrancar el proceso " + hueco + ": " + e.getMessage());
+            trabajadores[hueco] = null;
+        }
+        return trabajadores[hueco];
+    }
+
+    private Process lanzarProceso() throws IOException {
+        return ejecutor.iniciar(ejecutor.python(env.getProperty("python.script.trabajador")));
+    }
+
+    private class Trabajador {
+
+        private final int hueco;
+        private final Process proceso;
+        private final Writer entrada;
+        private final Map<Long, CompletableFuture<JsonNode>> pendientes = new ConcurrentHashMap<>();
+        private final CompletableFuture<Void> listo = new CompletableFuture<>();
+        private final AtomicInteger enCurso = new AtomicInteger();
+        private final long arrancado = System.currentTimeMillis();
+
+        Trabajador(int hueco, Process proceso) {
+            this.hueco = hueco;
+            this.proceso = proceso;
+            this.entrada = new BufferedWriter(new OutputStreamWriter(proceso.getOutputStream(), StandardCharsets.UTF_8));
+
+            Thread lector = new Thread(this::leerRespuestas, "recomendador-" + hueco);
+            lector.setDaemon(true);
+            lector.start();
+
+            Thread errores = new Thread(this::leerErrores, "recomendador-" + hueco + "-stderr");
+            errores.setDaemon(true);
+            errores.start();
+        }
+
+        boolean estaVivo() {
+            return proceso.isAlive();
+        }
+
+        boolean estaListo() {
+            return proceso.isAlive() && listo.isDone() && !listo.isCompletedExceptionally();
+        }
+
+        boolean esperarListo(long limite) {
+            try {
+                listo.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return proceso.isAlive();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException | TimeoutException e) {
+                return false;
+            }
+        }
+
+        JsonNode enviar(ObjectNode peticion, long limite) throws IOException {
+            long id = secuencia.incrementAndGet();
+            CompletableFuture<JsonNode> respuesta = new CompletableFuture<>();
+            pendientes.put(id, respuesta);
+            enCurso.incrementAndGet();
+
+            try {
+                String linea = MAPPER.writeValueAsString(peticion.put("id", id));
+                synchronized (entrada) {
+                    entrada.write(linea);
+                    entrada.write('\n');
+                    entrada.flush();
+                }
+
+                JsonNode resultado = respuesta.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (!resultado.path("ok").asBoolean()) {
+                    throw new RuntimeException("Error en el recomendador: " + resultado.path("error").asText());
+                }
+                return resultado.get("resultado");
+            } catch (TimeoutException e) {
+                throw new RecomendadorNoDisponibleException("El recomendador no respondió en " + timeoutMs + " ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RecomendadorNoDisponibleException("Petición al recomendador interrumpida");
+            } catch (ExecutionException e) {
+                throw new IOException("Proceso " + hueco + " del recomendador terminado", e.getCause());
+            } finally {
+                pendientes.remove(id);
+                enCurso.decrementAndGet();
+            }
+        }
+
+        void detener() {
+            proceso.destroyForcibly();
+        }
+
+        private void leerRespuestas() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = reader.readLine()) != null) {
+                    JsonNode respuesta;
+                    try {
+                        respuesta = MAPPER.readTree(linea);
+                    } catch (IOException e) {
+                        // Algo escrito en stdout que no es del protocolo (p. ej. un print de una librería)
+                        System.out.println("[RECOMENDADOR] " + hueco + ": " + linea);
+                        continue;
+                    }
+
+                    long id = respuesta.path("id").asLong(-1);
+                    if (id == ID_LISTO) {
+                        listo.complete(null);
+                        continue;
+                    }
+                    CompletableFuture<JsonNode> pendiente = pendientes.get(id);
+                    if (pendiente != null) {
+                        pendiente.complete(respuesta);
+                    }
+                }
+            } catch (IOException e) {
+                // El proceso se ha cerrado mientras se leía
+            }
+
+            IOException terminado = new IOException("El proceso terminó con código " + codigoSalida());
+            listo.completeExceptionally(terminado);
+            pendientes.values().forEach(p -> p.completeExceptionally(terminado));
+            System.err.println("[RECOMENDADOR] Proceso " + hueco + " terminado");
+        }
+
+        private void leerErrores() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(proceso.getErrorStream(), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = reader.readLine()) != null) {
+                    System.err.println("[RECOMENDADOR] " + hueco + ": " + linea);
+                }
+            } catch (IOException e) {
+                // El proceso se ha cerrado mientras se leía
+            }
+        }
+
+        private String codigoSalida() {
+            try {
+                return proceso.waitFor(1, TimeUnit.SECONDS) ? String.valueOf(proceso.exitValue()) : "desconocido";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "desconocido";
+            }
+        }
+    }
+}
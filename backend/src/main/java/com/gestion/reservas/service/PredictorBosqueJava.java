@@ -0,0 +1,146 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.exception.RecomendadorNoDisponibleException;
+import com.gestion.reservas.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Recomendador sin Python: evalúa en Java el bosque exportado por ml/exportar_bosque.py
+// con las mismas probabilidades que predictor_postgresql.py. Para los usuarios conocidos los candidatos
+// salen de una tabla precalculada con el top-K de cada día y hora; el resto se puntúa al momento
+@Component
+@RequiredArgsConstructor
+public class PredictorBosqueJava {
+
+    private final UsuarioRepository usuarioRepository;
+
+    @Value("${reservas.recomendador.bosque:ml/modelo_bosque.json}")
+    private String rutaBosque;
+
+    // Candidatos por consulta, antes de descartar los que no se pueden reservar
+    @Value("${reservas.recomendador.candidatos:6}")
+    private int candidatos;
+
+    // Bosque y tabla se sustituyen juntos, de una vez, al cargar un bosque nuevo
+    private volatile Modelo modelo;
+
+    private final AtomicLong consultasTabla = new AtomicLong();
+    private final AtomicLong consultasDirectas = new AtomicLong();
+
+    // Memoria de trabajo por hilo para puntuar sin reservar nada por petición
+    private final ThreadLocal<double[]> entradas = ThreadLocal.withInitial(() -> new double[3]);
+    private final ThreadLocal<double[]> probabilidades = ThreadLocal.withInitial(() -> new double[0]);
+    private final ThreadLocal<int[]> indices = ThreadLocal.withInitial(() -> new int[0]);
+
+    public boolean estaDisponible() {
+        return modelo != null;
+    }
+
+    // Si el fichero ha cambiado desde la última carga, lee el bosque, precalcula la tabla y sustituye ambos.
+    // Las peticiones siguen usando el modelo anterior mientras tanto
+    public synchronized boolean cargar() {
+        Path ruta = Paths.get(rutaBosque);
+        Modelo anterior = modelo;
+        try {
+            if (!Files.exists(ruta)) {
+                return anterior != null;
+            }
+            FileTime modificado = Files.getLastModifiedTime(ruta);
+            if (anterior != null && modificado.equals(anterior.modificado())) {
+                return true;
+            }
+
+            long inicio = System.currentTimeMillis();
+            BosqueAleatorio bosque = BosqueAleatorio.cargar(ruta);
+            long[] usuarios = usuarioRepository.findAllIds().stream().mapToLong(Long::longValue).toArray();
+            TablaRecomendaciones tabla = TablaRecomendaciones.calcular(bosque, usuarios, candidatos);
+
+            modelo = new Modelo(bosque, tabla, modificado);
+            System.out.println("[RECOMENDADOR] Bosque cargado con " + bosque.getNumClases() + " espacios y tabla de "
+                    + tabla.getNumUsuarios() + " usuarios en " + (System.currentTimeMillis() - inicio) + " ms");
+        } catch (Exception e) {
+            // Se sigue con el modelo anterior, si lo hay
+            System.err.println("[RECOMENDADOR] No se pudo cargar el bosque " + ruta + ": " + e.getMessage());
+        }
+        return modelo != null;
+    }
+
+    // Probabilidad de cada espacio del bosque, en el orden de sus clases, sobre el buffer del hilo
+    public double[] puntuar(BosqueAleatorio bosque, long usuarioId, int diaSemana, int hora) {
+        double[] entrada = entradas.get();
+        if (entrada.length != bosque.getNumCaracteristicas()) {
+            entrada = new double[bosque.getNumCaracteristicas()];
+            entradas.set(entrada);
+        }
+        double[] salida = probabilidades.get();
+        if (salida.length != bosque.getNumClases()) {
+            salida = new double[bosque.getNumClases()];
+            probabilidades.set(salida);
+        }
+
+        // Mismo orden de columnas que el entrenamiento: usuario_id, hora, dia_semana
+        entrada[0] = usuarioId;
+        entrada[1] = hora;
+        entrada[2] = diaSemana;
+        bosque.probabilidades(entrada, salida);
+        return salida;
+    }
+
+    // Los espacios candidatos de una consulta, de más a menos probable
+    public List<EspacioPuntuado> mejores(Long usuarioId, int diaSemana, int hora) {
+        Modelo actual = modelo;
+        if (actual == null) {
+            throw new RecomendadorNoDisponibleException("No hay bosque exportado en " + rutaBosque);
+        }
+
+        List<EspacioPuntuado> espacios = new ArrayList<>(candidatos);
+
+        int posicion = actual.tabla().buscar(usuarioId, diaSemana, hora);
+        if (posicion >= 0) {
+            consultasTabla.incrementAndGet();
+            for (int i = 0; i < actual.tabla().getK(); i++) {
+                espacios.add(new EspacioPuntuado(actual.bosque().clase(actual.tabla().espacio(posicion + i)),
+                        actual.tabla().probabilidad(posicion + i)));
+            }
+        } else {
+            // Usuario dado de alta después de cargar el bosque, o día/hora fuera de rango
+            consultasDirectas.incrementAndGet();
+            double[] salida = puntuar(actual.bosque(), usuarioId, diaSemana, hora);
+            int[] mejores = indices.get();
+            if (mejores.length != candidatos) {
+                mejores = new int[candidatos];
+                indices.set(mejores);
+            }
+            int total = BosqueAleatorio.mejores(salida, actual.bosque().getNumClases(), mejores);
+            for (int i = 0; i < total; i++) {
+                espacios.add(new EspacioPuntuado(actual.bosque().clase(mejores[i]),
+                        TablaRecomendaciones.redondear(salida[mejores[i]])));
+            }
+        }
+
+        return espacios;
+    }
+
+    public Map<String, Object> estado() {
+        Modelo actual = modelo;
+        return Map.of(
+                "bosqueCargado", actual != null,
+                "usuariosPrecalculados", actual != null ? actual.tabla().getNumUsuarios() : 0,
+                "consultasTabla", consultasTabla.get(),
+                "consultasDirectas", consultasDirectas.get()
+        );
+    }
+
+    private record Modelo(BosqueAleatorio bosque, TablaRecomendaciones tabla, FileTime modificado) {
+    }
+}
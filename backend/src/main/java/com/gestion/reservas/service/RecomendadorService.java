@@ -1,8 +1,18 @@
 package com.gestion.reservas.service;
 
+import com.gestion.reservas.dto.EntrenamientoDTO;
+import com.gestion.reservas.dto.RecomendacionRequestDTO;
 import com.gestion.reservas.dto.RecomendacionResponseDTO;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 public interface RecomendadorService {
-    RecomendacionResponseDTO obtenerRecomendaciones(Long usuarioId, int diaSemana, int hora) throws Exception;
-    String entrenarModelo() throws Exception;
+    RecomendacionResponseDTO obtenerRecomendaciones(RecomendacionRequestDTO consulta) throws Exception;
+    List<RecomendacionResponseDTO> obtenerRecomendaciones(List<RecomendacionRequestDTO> consultas) throws Exception;
+    EntrenamientoDTO entrenarModelo();
+    Optional<EntrenamientoDTO> consultarEntrenamiento(String id);
+    List<EntrenamientoDTO> entrenamientosRecientes();
+    Map<String, Object> estadoPredictor();
 }
\ No newline at end of file
@@ -1,147 +1,248 @@
 package com.gestion.reservas.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.reservas.dto.EntrenamientoDTO;
+import com.gestion.reservas.dto.RecomendacionRequestDTO;
 import com.gestion.reservas.dto.RecomendacionResponseDTO;
+import com.gestion.reservas.repository.ConteoRecomendacionRepository;
 import com.gestion.reservas.service.RecomendadorService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class RecomendadorServiceImpl implements RecomendadorService {
 
+    private static final int TOP_N = 3;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private final Environment env;
+    private final PoolPredictorPython poolPredictor;
+    private final PredictorBosqueJava predictorJava;
+    private final EstadisticasRecomendador estadisticas;
+    private final RegistroRecomendaciones registro;
+    private final DisponibilidadRecomendaciones disponibilidad;
+    private final EntrenamientosModelo entrenamientos;
+    private final EjecutorProcesos ejecutor;
+    private final ConteoRecomendacionRepository conteoRepository;
+
+    // python: procesos del pool; java: bosque exportado evaluado en la JVM;
+    // frecuencias: conteos incrementales de EstadisticasRecomendador, sin bosque
+    @Value("${reservas.recomendador.motor:python}")
+    private String motor;
+
+    @Value("${reservas.recomendador.entrenamiento-timeout-ms:1800000}")
+    private long timeoutEntrenamientoMs;
+
+    @Value("${reservas.recomendador.max-lote:5000}")
+    private int maxLote;
+
+    // Candidatos por consulta, antes de descartar los que no se pueden reservar
+    @Value("${reservas.recomendador.candidatos:6}")
+    private int candidatos;
+
+    // La escribe el script de entrenamiento junto al modelo: cuántas reservas de los conteos recoge
+    @Value("${reservas.recomendador.marca-modelo:ml/modelo_entrenado.json}")
+    private String marcaModelo;
 
     @Override
-    public RecomendacionResponseDTO obtenerRecomendaciones(Long usuarioId, int diaSemana, int hora) throws Exception {
-        String scriptPath = env.getProperty("python.script.predictor");
-        String pythonExecutable = env.getProperty("python.executable", "python");
-
-        System.out.println("Working dir: " + System.getProperty("user.dir"));
-
-        ProcessBuilder pb = new ProcessBuilder(
-                pythonExecutable, scriptPath,
-                String.valueOf(usuarioId),
-                String.valueOf(diaSemana),
-                String.valueOf(hora)
-        );
-
-
-        pb.directory(new File(System.getProperty("user.dir")));
+    public RecomendacionResponseDTO obtenerRecomendaciones(RecomendacionRequestDTO consulta) throws Exception {
+        return obtenerRecomendaciones(List.of(consulta)).get(0);
+    }
 
-        Map<String, String> envs = pb.environment();
-        envs.put("DB_HOST", env.getProperty("python.db.host"));
-        envs.put("DB_PORT", env.getProperty("python.db.port"));
-        envs.put("DB_NAME", env.getProperty("python.db.name"));
-        envs.put("DB_USER", env.getProperty("python.db.user"));
-        envs.put("DB_PASSWORD", env.getProperty("python.db.password"));
+    // Cada consulta recibe varios candidatos del motor elegido; se descartan los espacios no disponibles,
+    // sin aforo o ya reservados en la franja, y se devuelven los TOP_N primeros que quedan.
+    // El lote (p. ej. el correo semanal a todos los usuarios) se puntúa de una vez y se registra
+    // con una inserción en lote
+    @Override
+    public List<RecomendacionResponseDTO> obtenerRecomendaciones(List<RecomendacionRequestDTO> consultas) throws Exception {
+        if (consultas.size() > maxLote) {
+            throw new IllegalArgumentException("Como máximo " + maxLote + " consultas por lote");
+        }
+        for (RecomendacionRequestDTO consulta : consultas) {
+            if (consulta == null || consulta.getUsuarioId() == null) {
+                throw new IllegalArgumentException("Cada consulta necesita usuarioId");
+            }
+        }
+        if (consultas.isEmpty()) {
+            return List.of();
+        }
 
-        Process process = pb.start();
+        List<List<EspacioPuntuado>> reservables = disponibilidad.filtrar(consultas, candidatos(consultas), TOP_N);
+        return registro.responder(consultas, reservables);
+    }
 
-        // Salida estándar (stdout)
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream())
-        );
-        StringBuilder output = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            output.append(line).append("\n");
+    // Con el motor java se puntúa el bosque exportado en la propia JVM; si aún no hay bosque
+    // exportado se recurre a los procesos Python ya arrancados del pool, con una sola petición
+    private List<List<EspacioPuntuado>> candidatos(List<RecomendacionRequestDTO> consultas) throws Exception {
+        List<List<EspacioPuntuado>> espacios = new ArrayList<>(consultas.size());
+        if (usaMotorFrecuencias() && estadisticas.estaCargado()) {
+            for (RecomendacionRequestDTO c : consultas) {
+                espacios.add(estadisticas.recomendar(c.getUsuarioId(), c.getDiaSemana(), c.getHora(), candidatos));
+            }
+            return espacios;
+        }
+        if (usaMotorJava()) {
+            if (predictorJava.estaDisponible()) {
+                for (RecomendacionRequestDTO c : consultas) {
+                    espacios.add(predictorJava.mejores(c.getUsuarioId(), c.getDiaSemana(), c.getHora()));
+                }
+                return espacios;
+            }
+            System.err.println("[RECOMENDADOR] Sin bosque exportado, se usa el predictor Python");
         }
 
-
-        // Salida de errores (stderr)
-        BufferedReader errorReader = new BufferedReader(
-                new InputStreamReader(process.getErrorStream())
-        );
-        StringBuilder errorOutput = new StringBuilder();
-        String errorLine;
-        while ((errorLine = errorReader.readLine()) != null) {
-            errorOutput.append(errorLine).append("\n");
+        for (JsonNode resultado : poolPredictor.puntuarLote(consultas, candidatos)) {
+            List<EspacioPuntuado> mejores = new ArrayList<>(resultado.size());
+            for (JsonNode espacio : resultado) {
+                mejores.add(new EspacioPuntuado(espacio.get("espacio_id").asLong(), espacio.get("probabilidad").asDouble()));
+            }
+            espacios.add(mejores);
         }
+        return espacios;
+    }
 
+    @Override
+    public Map<String, Object> estadoPredictor() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("motor", motor);
+        estado.putAll(predictorJava.estado());
+        estado.putAll(estadisticas.estado());
+        estado.putAll(poolPredictor.estado());
+        estado.putAll(ejecutor.estado());
+        return estado;
+    }
 
-        // Esperamos a que termine el proceso
-        int exitCode = process.waitFor();
+    // Deja listo el motor elegido antes de la primera petición
+    @EventListener(ApplicationReadyEvent.class)
+    public void preparar() {
+        try {
+            estadisticas.cargar();
+        } catch (Exception e) {
+            System.err.println("[RECOMENDADOR] No se pudieron cargar los conteos: " + e.getMessage());
+        }
+        if (usaMotorFrecuencias() && estadisticas.estaCargado()) {
+            return;
+        }
+        if (usaMotorJava() && predictorJava.cargar()) {
+            return;
+        }
+        poolPredictor.arrancar();
+    }
 
-        if (exitCode != 0) {
-            System.out.println("Error en predictor.py:");
-            System.out.println(errorOutput.toString());
-            throw new RuntimeException("Error al ejecutar predictor.py:\n" + errorOutput);
+    // Recoge bosques exportados fuera de la aplicación (p. ej. ejecutando el script a mano)
+    @Scheduled(fixedDelayString = "${reservas.recomendador.comprobacion-bosque-ms:60000}")
+    public void comprobarBosque() {
+        if (usaMotorJava()) {
+            predictorJava.cargar();
         }
+    }
 
-         // Parseamos el JSON de salida del script a objeto Java
-        ObjectMapper mapper = new ObjectMapper();
-         return mapper.readValue(output.toString().trim(), RecomendacionResponseDTO.class);
+    private boolean usaMotorJava() {
+        return "java".equalsIgnoreCase(motor);
     }
 
-    @Override
-    public String entrenarModelo() throws Exception {
-        String scriptPath = env.getProperty("python.script.modelo");
-        String pythonExecutable = env.getProperty("python.executable", "python");
+    private boolean usaMotorFrecuencias() {
+        return "frecuencias".equalsIgnoreCase(motor);
+    }
 
-        System.out.println("Working dir: " + System.getProperty("user.dir"));
+    // El entrenamiento corre en segundo plano; se devuelve el trabajo lanzado, o el que ya estaba en curso
+    @Override
+    public EntrenamientoDTO entrenarModelo() {
+        return entrenamientos.lanzar("manual", this::entrenar).toDTO();
+    }
 
-        // Creamos el proceso
-        ProcessBuilder pb = new ProcessBuilder(pythonExecutable, scriptPath);
-        pb.directory(new File(System.getProperty("user.dir")));
+    @Override
+    public Optional<EntrenamientoDTO> consultarEntrenamiento(String id) {
+        return entrenamientos.buscar(id).map(TrabajoEntrenamiento::toDTO);
+    }
 
-        Map<String, String> envs = pb.environment();
-        envs.put("DB_HOST", env.getProperty("python.db.host"));
-        envs.put("DB_PORT", env.getProperty("python.db.port"));
-        envs.put("DB_NAME", env.getProperty("python.db.name"));
-        envs.put("DB_USER", env.getProperty("python.db.user"));
-        envs.put("DB_PASSWORD", env.getProperty("python.db.password"));
+    @Override
+    public List<EntrenamientoDTO> entrenamientosRecientes() {
+        return entrenamientos.recientes().stream().map(TrabajoEntrenamiento::toDTO).toList();
+    }
 
-        Process process = pb.start();
+    // Solo se suman las reservas completadas nuevas. El bosque se reentrena sobre los conteos
+    // acumulados, y únicamente si no los recoge ya el modelo guardado (tras reiniciar o en otra instancia)
+    private String entrenar(TrabajoEntrenamiento trabajo) throws Exception {
+        trabajo.fase("conteos");
+        long nuevas = estadisticas.actualizar();
+        trabajo.log("Reservas nuevas: " + nuevas);
+        if (usaMotorFrecuencias()) {
+            return nuevas == 0
+                    ? "No hay nuevas reservas para entrenar. El modelo no se ha actualizado."
+                    : "Conteos actualizados con " + nuevas + " reservas nuevas.";
+        }
+        if (modeloAlDia()) {
+            return "No hay nuevas reservas para entrenar. El modelo no se ha actualizado.";
+        }
 
-        // Lectura de la salida estándar (stdout)
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream()));
-        StringBuilder output = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            output.append(line).append("\n");
+        trabajo.fase("entrenando");
+        // stdout y stderr se leen a la vez y quedan en el log del trabajo; pasado el límite se mata el proceso
+        EjecutorProcesos.Resultado resultado = ejecutor.ejecutar(
+                ejecutor.python(env.getProperty("python.script.modelo")),
+                Duration.ofMillis(timeoutEntrenamientoMs),
+                trabajo::log);
+        trabajo.log("Proceso terminado en " + resultado.duracionMs() + " ms"
+                + (resultado.truncado() ? " (salida recortada)" : ""));
+
+        if (resultado.agotado()) {
+            throw new RuntimeException("El entrenamiento superó " + timeoutEntrenamientoMs + " ms y se ha detenido");
+        }
+        if (resultado.codigo() != 0) {
+            System.err.println(resultado.errores());
+            throw new RuntimeException("Error al ejecutar modelo_recomendador.py:\n" + resultado.errores());
         }
 
-        // Lectura de errores (stderr)
-        BufferedReader errorReader = new BufferedReader(
-                new InputStreamReader(process.getErrorStream()));
-        StringBuilder errorOutput = new StringBuilder();
-        String errorLine;
-        while ((errorLine = errorReader.readLine()) != null) {
-            errorOutput.append(errorLine).append("\n");
+        // El script sustituye el modelo y el bosque exportado de una vez (renombrando un temporal):
+        // se recalcula la tabla y se cambia por la anterior
+        if (usaMotorJava()) {
+            trabajo.fase("cargando");
+            predictorJava.cargar();
         }
 
-        // Esperamos a que termine
-        int exitCode = process.waitFor();
+        return resultado.salida().trim();
+    }
 
-        // Mostramos errores por si falla
-        if (exitCode != 0) {
-            System.out.println(errorOutput.toString());
-            throw new RuntimeException("Error al ejecutar modelo_recomendador.py:\n" + errorOutput);
+    // El modelo en disco recoge todos los conteos si su marca coincide con el total guardado. Sin marca
+    // cuenta como 0 (aún no se ha entrenado con conteos); una marca ilegible obliga a reentrenar
+    boolean modeloAlDia() {
+        long contadas = conteoRepository.totalReservas();
+        Path ruta = Paths.get(marcaModelo);
+        if (!Files.exists(ruta)) {
+            return contadas == 0;
+        }
+        try {
+            return MAPPER.readTree(ruta.toFile()).path("reservas").asLong(-1) == contadas;
+        } catch (IOException e) {
+            System.err.println("[RECOMENDADOR] No se pudo leer " + marcaModelo + ": " + e.getMessage());
+            return false;
         }
-
-        return output.toString().trim();
     }
 
+    // Solo lanza el trabajo: el hilo del planificador no espera a que termine
     @Scheduled(cron = "0 */2 * * * *") // cada 2 minutos pruebas
     //@Scheduled(cron = "0 0 2 * * *") // 2:00:00 todos los días
     public void reentrenarAutomáticamente() {
-        try {
-            System.out.println("[SCHEDULED] Entrenamiento automático iniciado");
-            this.entrenarModelo();
-            System.out.println("[SCHEDULED] Entrenamiento automático completado");
-        } catch (Exception e) {
-            System.err.println("[SCHEDULED] Fallo al reentrenar modelo:");
-            e.printStackTrace();
-        }
+        TrabajoEntrenamiento trabajo = entrenamientos.lanzar("programado", this::entrenar);
+        System.out.println("[SCHEDULED] Entrenamiento automático " + trabajo.getId());
     }
 
 }
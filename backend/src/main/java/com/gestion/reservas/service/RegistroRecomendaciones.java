@@ -0,0 +1,92 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.EspacioRecomendadoDTO;
+import com.gestion.reservas.dto.RecomendacionRequestDTO;
+import com.gestion.reservas.dto.RecomendacionResponseDTO;
+import com.gestion.reservas.event.EspacioModificadoEvent;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.RecomendacionRepository;
+import com.gestion.reservas.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Parte común de los motores en Java: nombres, registro en recomendaciones y respuesta
+// con el mismo formato que devuelve predictor_postgresql.py
+@Component
+@RequiredArgsConstructor
+public class RegistroRecomendaciones {
+
+    private final UsuarioRepository usuarioRepository;
+    private final EspacioRepository espacioRepository;
+    private final RecomendacionRepository recomendacionRepository;
+
+    // Nombres ya resueltos; los que faltan se piden juntos con una consulta IN
+    private final Map<Long, String> nombresEspacio = new ConcurrentHashMap<>();
+
+    // Una respuesta por consulta, en el mismo orden. Los nombres de usuario salen de una sola consulta
+    // y todas las filas de recomendaciones se insertan en lote
+    public List<RecomendacionResponseDTO> responder(List<RecomendacionRequestDTO> consultas, List<List<EspacioPuntuado>> espacios) {
+        Set<Long> idsEspacio = new HashSet<>();
+        espacios.forEach(lista -> lista.forEach(e -> idsEspacio.add(e.idEspacio())));
+        Map<Long, String> nombres = nombresEspacio(idsEspacio);
+
+        Set<Long> idsUsuario = new HashSet<>();
+        consultas.forEach(c -> idsUsuario.add(c.getUsuarioId()));
+        Map<Long, String> nombresUsuario = new HashMap<>();
+        for (Object[] fila : usuarioRepository.findNombresByIdIn(idsUsuario)) {
+            nombresUsuario.put((Long) fila[0], (String) fila[1]);
+        }
+
+        List<RecomendacionResponseDTO> respuestas = new ArrayList<>(consultas.size());
+        for (int i = 0; i < consultas.size(); i++) {
+            RecomendacionRequestDTO consulta = consultas.get(i);
+            List<EspacioRecomendadoDTO> recomendaciones = new ArrayList<>(espacios.get(i).size());
+            for (EspacioPuntuado espacio : espacios.get(i)) {
+                EspacioRecomendadoDTO recomendacion = new EspacioRecomendadoDTO();
+                recomendacion.setEspacio_id(espacio.idEspacio());
+                recomendacion.setNombre_espacio(nombres.getOrDefault(espacio.idEspacio(), "Desconocido"));
+                recomendacion.setProbabilidad(espacio.probabilidad());
+                recomendaciones.add(recomendacion);
+            }
+
+            RecomendacionResponseDTO respuesta = new RecomendacionResponseDTO();
+            respuesta.setUsuario_id(consulta.getUsuarioId());
+            String nombreUsuario = nombresUsuario.get(consulta.getUsuarioId());
+            respuesta.setNombre_usuario(nombreUsuario != null ? nombreUsuario : "Desconocido");
+            respuesta.setDia_semana(consulta.getDiaSemana());
+            respuesta.setHora(consulta.getHora());
+            respuesta.setRecomendaciones(recomendaciones);
+            respuestas.add(respuesta);
+        }
+
+        recomendacionRepository.registrar(respuestas);
+        return respuestas;
+    }
+
+    @EventListener
+    public void alModificarEspacio(EspacioModificadoEvent evento) {
+        nombresEspacio.clear();
+    }
+
+    private Map<Long, String> nombresEspacio(Set<Long> ids) {
+        Set<Long> faltan = new HashSet<>(ids);
+        faltan.removeAll(nombresEspacio.keySet());
+        if (!faltan.isEmpty()) {
+            for (Object[] fila : espacioRepository.findNombresByIdIn(faltan)) {
+                if (fila[1] != null) {
+                    nombresEspacio.put((Long) fila[0], (String) fila[1]);
+                }
+            }
+        }
+        return nombresEspacio;
+    }
+}
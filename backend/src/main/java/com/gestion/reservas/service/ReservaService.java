@@ -1,18 +1,25 @@
 package com.gestion.reservas.service;
 
 import com.gestion.reservas.dto.ReservaCalendarioDTO;
+import com.gestion.reservas.dto.FiltroReservasDTO;
+import com.gestion.reservas.dto.PaginaDTO;
 import com.gestion.reservas.dto.ReservaDTO;
 import com.gestion.reservas.entity.Usuario;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReservaService {
     List<ReservaDTO> findAll();
+    PaginaDTO<ReservaDTO> buscarPagina(FiltroReservasDTO filtro, String cursor, Integer limite);
     Optional<ReservaDTO> findById(Long id);
     ReservaDTO save(ReservaDTO reservaDTO);
     void deleteById(Long id);
     List<ReservaCalendarioDTO> obtenerReservasEntreFechas(LocalDateTime desde, LocalDateTime hasta);
+    long exportar(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId,
+                  FormatoExportacion formato, OutputStream salida) throws IOException;
 
 }
@@ -1,16 +1,25 @@
 package com.gestion.reservas.service;
 
+import com.gestion.reservas.dto.FiltroReservasDTO;
 import com.gestion.reservas.dto.NotificacionDTO;
+import com.gestion.reservas.dto.PaginaDTO;
 import com.gestion.reservas.dto.ReservaCalendarioDTO;
 import com.gestion.reservas.dto.ReservaDTO;
+import com.gestion.reservas.dto.ReservaExportacionDTO;
 import com.gestion.reservas.entity.*;
+import com.gestion.reservas.event.ReservaModificadaEvent;
 import com.gestion.reservas.mapper.NotificacionMapper;
 import com.gestion.reservas.repository.*;
 import com.gestion.reservas.websocket.NotificacionWebSocketController;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -25,8 +34,17 @@ public class ReservaServiceImpl implements ReservaService {
     private final ReservaRepository reservaRepository;
     private final UsuarioRepository usuarioRepository;
     private final EspacioRepository espacioRepository;
-    private final EstadoReservaRepository estadoReservaRepository;
+    private final CatalogosReferencia catalogos;
     private final NotificacionService notificacionService;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final BloqueoEspacios bloqueoEspacios;
+    private final ApplicationEventPublisher eventos;
+    private final ObjectMapper objectMapper;
+
+    // Filas que el driver trae de la base de datos en cada viaje durante una exportación
+    @Value("${reservas.exportacion.tamano-lote:1000}")
+    private int tamanoLoteExportacion;
+
     @Override
     public List<ReservaDTO> findAll() {
         return reservaRepository.findAll()
@@ -35,6 +53,44 @@ public class ReservaServiceImpl implements ReservaService {
                 .collect(Collectors.toList());
     }
 
+    // Escribe las reservas a medida que llegan del cursor: la memoria no depende del número de filas
+    @Override
+    @Transactional(readOnly = true)
+    public long exportar(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long tipoEspacioId, Long estadoId,
+                         FormatoExportacion formato, OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+
+        if (formato == FormatoExportacion.CSV) {
+            escritor.write("idReserva,fechaInicio,fechaFin,ocupantes,idUsuario,usuario,email,idEspacio,espacio,tipoEspacio,estado\n");
+        }
+
+        long total;
+        try {
+            total = reservaRepository.recorrerPorFiltros(fechaInicio, fechaFin, tipoEspacioId, estadoId, tamanoLoteExportacion, fila -> {
+                try {
+                    escritor.write(formato == FormatoExportacion.CSV ? filaCsv(fila) : objectMapper.writeValueAsString(fila));
+                    escritor.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Fallo al escribir en la respuesta, normalmente porque el cliente cortó la descarga
+            throw e.getCause();
+        }
+
+        escritor.flush();
+        System.out.println("[EXPORTACION] " + total + " reservas exportadas en " + formato);
+        return total;
+    }
+
+    @Override
+    public PaginaDTO<ReservaDTO> buscarPagina(FiltroReservasDTO filtro, String cursor, Integer limite) {
+        return PaginaDTO.buscar(cursor, limite,
+                (idReservaAnterior, filas) -> reservaRepository.buscarPagina(filtro, idReservaAnterior, filas),
+                Reserva::getIdReserva, this::toDTO);
+    }
+
     @Override
     public Optional<ReservaDTO> findById(Long id) {
         return reservaRepository.findById(id)
@@ -48,11 +104,16 @@ public class ReservaServiceImpl implements ReservaService {
         Espacio espacio = espacioRepository.findById(dto.getIdEspacio())
                 .orElseThrow(() -> new IllegalArgumentException("Espacio no encontrado"));
 
-        EstadoReserva estado = estadoReservaRepository.findById(dto.getIdEstado())
+        EstadoReserva estado = catalogos.estadosReserva().porId(dto.getIdEstado())
                 .orElseThrow(() -> new IllegalArgumentException("Estado de reserva no encontrado"));
 
+        ReservaModificadaEvent anterior = cambioAnterior(dto.getIdReserva());
         Reserva reserva = toEntity(dto, usuario, espacio, estado);
-        Reserva saved = reservaRepository.save(reserva);
+
+        // Comprobación de solapamiento y guardado bajo el bloqueo del espacio
+        Reserva saved = bloqueoEspacios.guardarSinSolapar(reserva);
+        publicar(anterior);
+        publicarCambio(saved);
 
         // Crear notificación
        String mensaje = String.format(
@@ -65,10 +126,35 @@ public class ReservaServiceImpl implements ReservaService {
         return toDTO(saved);
     }
 
-
     @Override
     public void deleteById(Long id) {
+        ReservaModificadaEvent anterior = cambioAnterior(id);
         reservaRepository.deleteById(id);
+        indiceDisponibilidad.eliminar(id);
+        publicar(anterior);
+    }
+
+    // Fechas que ocupa la reserva guardada, copiadas antes de cambiarla: con open-in-view, findById devuelve
+    // la misma entidad gestionada en la que save() vuelca los valores nuevos
+    private ReservaModificadaEvent cambioAnterior(Long idReserva) {
+        if (idReserva == null) {
+            return null;
+        }
+        return reservaRepository.findById(idReserva)
+                .map(reserva -> new ReservaModificadaEvent(reserva.getFechaInicio(), reserva.getFechaFin()))
+                .orElse(null);
+    }
+
+    private void publicarCambio(Reserva reserva) {
+        if (reserva != null) {
+            publicar(new ReservaModificadaEvent(reserva.getFechaInicio(), reserva.getFechaFin()));
+        }
+    }
+
+    private void publicar(ReservaModificadaEvent evento) {
+        if (evento != null) {
+            eventos.publishEvent(evento);
+        }
     }
 
     public ReservaDTO toDTO(Reserva reserva) {
@@ -124,5 +210,32 @@ public class ReservaServiceImpl implements ReservaService {
     }
 
 
-}
 
+    private String filaCsv(ReservaExportacionDTO fila) {
+        return String.join(",",
+                campoCsv(fila.getIdReserva()),
+                campoCsv(fila.getFechaInicio()),
+                campoCsv(fila.getFechaFin()),
+                campoCsv(fila.getOcupantes()),
+                campoCsv(fila.getIdUsuario()),
+                campoCsv(fila.getUsuario()),
+                campoCsv(fila.getEmail()),
+                campoCsv(fila.getIdEspacio()),
+                campoCsv(fila.getEspacio()),
+                campoCsv(fila.getTipoEspacio()),
+                campoCsv(fila.getEstado()));
+    }
+
+    // RFC 4180: entre comillas si lleva separador, comillas o saltos de línea
+    private String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        // Mismo formato de fecha que el NDJSON: con segundos aunque sean cero
+        String texto = valor instanceof LocalDateTime fecha ? fecha.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : valor.toString();
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+}
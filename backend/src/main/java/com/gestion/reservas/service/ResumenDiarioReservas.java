@@ -0,0 +1,183 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.ResumenReservasDTO;
+import com.gestion.reservas.event.ReservaModificadaEvent;
+import com.gestion.reservas.repository.ReservaRepository;
+import com.gestion.reservas.repository.ResumenDiarioReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resumen diario de reservas (tabla resumen_diario_reservas, ver db/001_resumen_diario_reservas.sql) para el dashboard.
+// Los cambios de reservas marcan su día como pendiente y se recalcula desde la tabla reservas.
+// El día en curso siempre se calcula sobre las reservas, igual que todo si el resumen no está disponible
+@Component
+@RequiredArgsConstructor
+public class ResumenDiarioReservas {
+
+    private final ResumenDiarioReservaRepository resumenRepository;
+    private final ReservaRepository reservaRepository;
+
+    private final Set<LocalDate> diasPendientes = ConcurrentHashMap.newKeySet();
+    private volatile boolean disponible = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            System.err.println("[RESUMEN DIARIO] No se pudo preparar el resumen, se usarán las reservas: " + e.getMessage());
+        }
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    @EventListener
+    public void alModificarReserva(ReservaModificadaEvent evento) {
+        marcar(evento.fechaInicio());
+    }
+
+    public void marcar(LocalDateTime fechaInicio) {
+        if (fechaInicio != null) {
+            diasPendientes.add(fechaInicio.toLocalDate());
+        }
+    }
+
+    @Scheduled(cron = "30 */5 * * * *") // Cada 5 minutos
+    public void actualizarPendientes() {
+        try {
+            sincronizar();
+        } catch (Exception e) {
+            System.err.println("[RESUMEN DIARIO] Actualización fallida: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 0 4 * * *") // 4:00:00 todos los días
+    public void reconstruirProgramado() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            System.err.println("[RESUMEN DIARIO] Reconstrucción fallida: " + e.getMessage());
+        }
+    }
+
+    public synchronized void reconstruir() {
+        // Lo que se marque durante la reconstrucción se volverá a recalcular
+        diasPendientes.clear();
+        int filas = resumenRepository.reconstruirTodo();
+        disponible = true;
+        System.out.println("[RESUMEN DIARIO] Reconstruido con " + filas + " filas");
+    }
+
+    // Recalcula los días marcados desde la última vez
+    public synchronized void sincronizar() {
+        if (!disponible) {
+            return;
+        }
+
+        for (LocalDate dia : new ArrayList<>(diasPendientes)) {
+            diasPendientes.remove(dia);
+            try {
+                resumenRepository.recalcular(dia, dia.plusDays(1));
+            } catch (RuntimeException e) {
+                diasPendientes.add(dia);
+                throw e;
+            }
+        }
+    }
+
+    public ResumenReservasDTO resumir(LocalDateTime inicio, LocalDateTime fin, Long tipoEspacioId, Long estadoId) {
+        if (!prepararLectura()) {
+            return reservaRepository.resumirPorFiltros(inicio, fin, tipoEspacioId, estadoId);
+        }
+
+        LocalDate hoy = LocalDate.now();
+        ResumenReservasDTO resumen = resumenRepository.resumir(inicio.toLocalDate(), fin.toLocalDate(), hoy, tipoEspacioId, estadoId);
+
+        LocalDateTime[] tramoHoy = tramoHoy(inicio, fin, hoy);
+        if (tramoHoy != null) {
+            ResumenReservasDTO deHoy = reservaRepository.resumirPorFiltros(tramoHoy[0], tramoHoy[1], tipoEspacioId, estadoId);
+            resumen.setTotalReservas(resumen.getTotalReservas() + deHoy.getTotalReservas());
+            resumen.setMinutosReservados(resumen.getMinutosReservados() + deHoy.getMinutosReservados());
+        }
+
+        // Los usuarios distintos no son sumables entre días
+        resumen.setUsuariosActivos(reservaRepository.contarUsuariosActivosConFiltros(inicio, fin, tipoEspacioId, estadoId));
+        return resumen;
+    }
+
+    public Map<LocalDate, Long> contarPorDia(LocalDateTime inicio, LocalDateTime fin, Long tipoEspacioId, Long estadoId) {
+        if (!prepararLectura()) {
+            return reservaRepository.contarPorDiaConFiltros(inicio, fin, tipoEspacioId, estadoId);
+        }
+
+        LocalDate hoy = LocalDate.now();
+        Map<LocalDate, Long> conteo = new HashMap<>();
+        for (Object[] fila : resumenRepository.contarPorDia(inicio.toLocalDate(), fin.toLocalDate(), hoy, tipoEspacioId, estadoId)) {
+            conteo.put((LocalDate) fila[0], ((Number) fila[1]).longValue());
+        }
+
+        LocalDateTime[] tramoHoy = tramoHoy(inicio, fin, hoy);
+        if (tramoHoy != null) {
+            reservaRepository.contarPorDiaConFiltros(tramoHoy[0], tramoHoy[1], tipoEspacioId, estadoId)
+                    .forEach((dia, total) -> conteo.merge(dia, total, Long::sum));
+        }
+        return conteo;
+    }
+
+    public Map<String, Long> contarPorTipoEspacio(LocalDateTime inicio, LocalDateTime fin, Long tipoEspacioId, Long estadoId) {
+        if (!prepararLectura()) {
+            return reservaRepository.contarPorTipoEspacioConFiltros(inicio, fin, tipoEspacioId, estadoId);
+        }
+
+        LocalDate hoy = LocalDate.now();
+        Map<String, Long> conteo = new TreeMap<>();
+        for (Object[] fila : resumenRepository.contarPorTipoEspacio(inicio.toLocalDate(), fin.toLocalDate(), hoy, tipoEspacioId, estadoId)) {
+            conteo.put((String) fila[0], ((Number) fila[1]).longValue());
+        }
+
+        LocalDateTime[] tramoHoy = tramoHoy(inicio, fin, hoy);
+        if (tramoHoy != null) {
+            reservaRepository.contarPorTipoEspacioConFiltros(tramoHoy[0], tramoHoy[1], tipoEspacioId, estadoId)
+                    .forEach((tipo, total) -> conteo.merge(tipo, total, Long::sum));
+        }
+        return conteo;
+    }
+
+    // Aplica los días pendientes antes de leer; si falla, se responde desde las reservas
+    private boolean prepararLectura() {
+        if (!disponible) {
+            return false;
+        }
+        try {
+            sincronizar();
+            return true;
+        } catch (Exception e) {
+            System.err.println("[RESUMEN DIARIO] No se pudo actualizar, se usarán las reservas: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Parte del rango [inicio, fin] que cae en el día de hoy, o null si no lo toca
+    private LocalDateTime[] tramoHoy(LocalDateTime inicio, LocalDateTime fin, LocalDate hoy) {
+        LocalDateTime inicioHoy = hoy.atStartOfDay();
+        LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
+        if (inicio.isAfter(finHoy) || fin.isBefore(inicioHoy)) {
+            return null;
+        }
+        return new LocalDateTime[]{
+                inicio.isAfter(inicioHoy) ? inicio : inicioHoy,
+                fin.isBefore(finHoy) ? fin : finHoy
+        };
+    }
+}
@@ -2,7 +2,6 @@ package com.gestion.reservas.service;
 
 
 import com.gestion.reservas.entity.Rol;
-import com.gestion.reservas.repository.RolRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,15 +12,16 @@ import java.util.Optional;
 @Service
 public class RolServiceImpl implements RolService {
 
-    private final RolRepository rolRepository;
+    // Se sirven de la copia en memoria de las tablas de referencia
+    private final CatalogosReferencia catalogos;
 
     @Override
     public Optional<Rol> findById(Long id) {
-        return rolRepository.findById(id);
+        return catalogos.roles().porId(id);
     }
 
     @Override
     public List<Rol> findAll() {
-        return rolRepository.findAll();
+        return catalogos.roles().todos();
     }
 }
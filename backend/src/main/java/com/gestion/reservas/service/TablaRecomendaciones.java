@@ -0,0 +1,104 @@
+package com.gestion.reservas.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Top-K del bosque precalculado para cada (usuario, día de la semana, hora), en arrays planos.
+// Cada usuario ocupa un bloque de DIAS * HORAS huecos de K entradas; cada entrada guarda el índice
+// de clase del espacio y la probabilidad ya redondeada a milésimas
+public class TablaRecomendaciones {
+
+    public static final int DIAS = 7;
+    // -1 (sin hora) y 0..23
+    public static final int HORAS = 25;
+
+    private final long[] usuarios;
+    private final int k;
+    private final short[] espacios;
+    private final short[] milesimas;
+
+    private TablaRecomendaciones(long[] usuarios, int k, short[] espacios, short[] milesimas) {
+        this.usuarios = usuarios;
+        this.k = k;
+        this.espacios = espacios;
+        this.milesimas = milesimas;
+    }
+
+    public static TablaRecomendaciones vacia() {
+        return new TablaRecomendaciones(new long[0], 0, new short[0], new short[0]);
+    }
+
+    public static TablaRecomendaciones calcular(BosqueAleatorio bosque, long[] idsUsuario, int topK) {
+        if (bosque.getNumClases() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados espacios para la tabla: " + bosque.getNumClases());
+        }
+
+        long[] usuarios = Arrays.stream(idsUsuario).sorted().distinct().toArray();
+        int k = Math.min(topK, bosque.getNumClases());
+        int entradasPorUsuario = DIAS * HORAS * k;
+        short[] espacios = new short[usuarios.length * entradasPorUsuario];
+        short[] milesimas = new short[usuarios.length * entradasPorUsuario];
+
+        // Cada usuario escribe solo su bloque, así que se pueden calcular en paralelo
+        IntStream.range(0, usuarios.length).parallel().forEach(u -> {
+            double[] entrada = new double[bosque.getNumCaracteristicas()];
+            double[] salida = new double[bosque.getNumClases()];
+            int[] mejores = new int[k];
+
+            for (int dia = 0; dia < DIAS; dia++) {
+                for (int hora = -1; hora < HORAS - 1; hora++) {
+                    // Mismo orden de columnas que el entrenamiento: usuario_id, hora, dia_semana
+                    entrada[0] = usuarios[u];
+                    entrada[1] = hora;
+                    entrada[2] = dia;
+                    bosque.probabilidades(entrada, salida);
+                    BosqueAleatorio.mejores(salida, bosque.getNumClases(), mejores);
+
+                    int posicion = u * entradasPorUsuario + (dia * HORAS + hora + 1) * k;
+                    for (int i = 0; i < k; i++) {
+                        espacios[posicion + i] = (short) mejores[i];
+                        milesimas[posicion + i] = (short) Math.round(redondear(salida[mejores[i]]) * 1000);
+                    }
+                }
+            }
+        });
+
+        return new TablaRecomendaciones(usuarios, k, espacios, milesimas);
+    }
+
+    // Posición de la primera entrada del top-K, o -1 si la combinación no está precalculada
+    public int buscar(long usuarioId, int diaSemana, int hora) {
+        if (diaSemana < 0 || diaSemana >= DIAS || hora < -1 || hora >= HORAS - 1) {
+            return -1;
+        }
+        int u = Arrays.binarySearch(usuarios, usuarioId);
+        if (u < 0) {
+            return -1;
+        }
+        return u * DIAS * HORAS * k + (diaSemana * HORAS + hora + 1) * k;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int getNumUsuarios() {
+        return usuarios.length;
+    }
+
+    // Índice de clase del bosque
+    public int espacio(int posicion) {
+        return espacios[posicion];
+    }
+
+    public double probabilidad(int posicion) {
+        return milesimas[posicion] / 1000.0;
+    }
+
+    // round(prob, 3) de Python: redondeo del valor binario exacto, con empate a par
+    static double redondear(double probabilidad) {
+        return new BigDecimal(probabilidad).setScale(3, RoundingMode.HALF_EVEN).doubleValue();
+    }
+}
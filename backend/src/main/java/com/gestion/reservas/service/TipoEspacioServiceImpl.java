@@ -3,7 +3,6 @@ package com.gestion.reservas.service;
 
 
 import com.gestion.reservas.entity.TipoEspacio;
-import com.gestion.reservas.repository.TipoEspacioRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,15 +13,16 @@ import java.util.Optional;
 @Service
 public class TipoEspacioServiceImpl implements TipoEspacioService {
 
-    private final TipoEspacioRepository tipoEspacioRepository;
+    // Se sirven de la copia en memoria de las tablas de referencia
+    private final CatalogosReferencia catalogos;
 
     @Override
     public Optional<TipoEspacio> findById(Long id) {
-        return tipoEspacioRepository.findById(id);
+        return catalogos.tiposEspacio().porId(id);
     }
 
     @Override
     public List<TipoEspacio> findAll() {
-        return tipoEspacioRepository.findAll();
+        return catalogos.tiposEspacio().todos();
     }
 }
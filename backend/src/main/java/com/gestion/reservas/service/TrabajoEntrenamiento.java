@@ -0,0 +1,83 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.EntrenamientoDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.UUID;
+
+// Un entrenamiento en segundo plano: lo escribe el hilo que entrena y lo leen las peticiones de estado.
+// Del log se guardan solo las últimas líneas
+public class TrabajoEntrenamiento {
+
+    public enum Estado { EN_CURSO, COMPLETADO, FALLIDO }
+
+    private static final int MAX_LINEAS = 200;
+
+    private final String id = UUID.randomUUID().toString();
+    private final String origen;
+    private final LocalDateTime inicio = LocalDateTime.now();
+    private final Deque<String> log = new ArrayDeque<>();
+
+    private Estado estado = Estado.EN_CURSO;
+    private String fase = "en cola";
+    private LocalDateTime fin;
+    private String resultado;
+
+    public TrabajoEntrenamiento(String origen) {
+        this.origen = origen;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public synchronized boolean enCurso() {
+        return estado == Estado.EN_CURSO;
+    }
+
+    public synchronized void fase(String fase) {
+        this.fase = fase;
+        log("[" + fase + "]");
+    }
+
+    public synchronized void log(String linea) {
+        if (log.size() == MAX_LINEAS) {
+            log.removeFirst();
+        }
+        log.addLast(linea);
+    }
+
+    synchronized void completar(String resultado) {
+        terminar(Estado.COMPLETADO, resultado);
+    }
+
+    synchronized void fallar(String error) {
+        terminar(Estado.FALLIDO, error);
+    }
+
+    private void terminar(Estado estado, String resultado) {
+        this.estado = estado;
+        this.resultado = resultado;
+        this.fase = estado == Estado.COMPLETADO ? "terminado" : "error";
+        this.fin = LocalDateTime.now();
+    }
+
+    public synchronized EntrenamientoDTO toDTO() {
+        LocalDateTime hasta = fin != null ? fin : LocalDateTime.now();
+        return EntrenamientoDTO.builder()
+                .id(id)
+                .origen(origen)
+                .estado(estado.name())
+                .fase(fase)
+                .inicio(inicio)
+                .fin(fin)
+                .duracionMs(Duration.between(inicio, hasta).toMillis())
+                .resultado(resultado)
+                .log(new ArrayList<>(log))
+                .build();
+    }
+}
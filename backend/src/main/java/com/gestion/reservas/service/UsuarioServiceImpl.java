@@ -6,16 +6,19 @@ import com.gestion.reservas.dto.UsuarioRequestDTO;
 import com.gestion.reservas.dto.UsuarioResponseDTO;
 import com.gestion.reservas.entity.Usuario;
 import com.gestion.reservas.entity.EstadoUsuario;
+import com.gestion.reservas.event.UsuarioModificadoEvent;
 import com.gestion.reservas.mapper.UsuarioMapper;
 import com.gestion.reservas.repository.UsuarioRepository;
 import com.gestion.reservas.repository.EstadoUsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -27,6 +30,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     private final NotificacionService notificacionService;
     private final UsuarioMapper usuarioMapper;
     private final EstadoUsuarioRepository estadoUsuarioRepository;
+    private final ApplicationEventPublisher eventos;
 
     @Override
     public List<Usuario> findAll() {
@@ -40,12 +44,15 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     @Override
     public Usuario save(Usuario usuario) {
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        eventos.publishEvent(new UsuarioModificadoEvent(guardado.getIdUsuario(), false));
+        return guardado;
     }
 
     @Override
     public void deleteById(Long id) {
         usuarioRepository.deleteById(id);
+        eventos.publishEvent(new UsuarioModificadoEvent(id, true));
     }
 
     @Override
@@ -85,6 +92,8 @@ public class UsuarioServiceImpl implements UsuarioService {
             Usuario usuarioActualizado = toEntity(dto, existing);
             usuarioActualizado.setIdUsuario(id);
             Usuario guardado = usuarioRepository.save(usuarioActualizado);
+            // Un administrador puede haber cambiado rol, estado o contraseña
+            eventos.publishEvent(new UsuarioModificadoEvent(id, true));
 
             // Crear notificación
             String mensaje = String.format(
@@ -122,6 +131,7 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         usuario.setPassword(passwordEncoder.encode(newPassword));
         usuarioRepository.save(usuario);
+        eventos.publishEvent(new UsuarioModificadoEvent(id, true));
 
         // Crear notificación
         String mensaje = String.format(
@@ -135,12 +145,15 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     public Optional<UsuarioResponseDTO> actualizarPerfil(Long id, PerfilInfoDTO dto) {
         return usuarioRepository.findById(id).map(existing -> {
+            // Con otro email los tokens emitidos ya no corresponden al usuario
+            boolean emailCambiado = !Objects.equals(existing.getEmail(), dto.getEmail());
             existing.setNombre(dto.getNombre());
             existing.setEmail(dto.getEmail());
             existing.setTelefono(dto.getTelefono());
             existing.setDireccion(dto.getDireccion());
 
             Usuario actualizado = usuarioRepository.save(existing);
+            eventos.publishEvent(new UsuarioModificadoEvent(id, emailCambiado));
 
             String mensaje = String.format(
                     "El perfil se ha actualizado el día %s.",
@@ -162,6 +175,7 @@ public class UsuarioServiceImpl implements UsuarioService {
             if (estadoInactivoOpt.isPresent()) {
                 usuario.setEstado(estadoInactivoOpt.get());
                 usuarioRepository.save(usuario);
+                eventos.publishEvent(new UsuarioModificadoEvent(idUsuario, true));
 
                 String mensaje = String.format(
                         "El estado de la cuenta del usuario se ha inactivado el día %s.",
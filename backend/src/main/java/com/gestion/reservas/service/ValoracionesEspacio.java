@@ -0,0 +1,157 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.EspacioComentariosDTO;
+import com.gestion.reservas.dto.ValoracionAprobadaDTO;
+import com.gestion.reservas.entity.Comentario;
+import com.gestion.reservas.repository.ComentarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Suma, cantidad e histograma por estrellas de las valoraciones aprobadas de cada espacio.
+// Se actualiza al aprobar o anular comentarios; mientras no se haya cargado se calcula con una consulta agrupada
+@Component
+@RequiredArgsConstructor
+public class ValoracionesEspacio extends AgrupacionEnMemoria<ValoracionAprobadaDTO, ValoracionesEspacio.Agregado> {
+
+    private static final int MAX_ESTRELLAS = 5;
+    private static final int MAX_REINTENTOS = 3;
+
+    private final ComentarioRepository comentarioRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            System.err.println("[VALORACIONES] No se pudieron cargar las valoraciones: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // 3:30:00 todos los días
+    public void reconstruirProgramado() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            System.err.println("[VALORACIONES] Reconstrucción fallida: " + e.getMessage());
+        }
+    }
+
+    // Recalcula todo desde cero. Devuelve el número de espacios con alguna valoración
+    public int reconstruir() {
+        for (int intento = 1; intento <= MAX_REINTENTOS; intento++) {
+            long versionInicial = version();
+            List<ValoracionAprobadaDTO> valoraciones = comentarioRepository.obtenerValoracionesAprobadas().stream()
+                    .filter(valoracion -> valoracion.getValoracion() != null)
+                    .toList();
+
+            if (reemplazarSiSinCambios(versionInicial, valoraciones)) {
+                System.out.println("[VALORACIONES] Reconstruidas " + elementos().size() + " valoraciones de " + cantidadGrupos() + " espacios");
+                return cantidadGrupos();
+            }
+        }
+        throw new IllegalStateException("No se pudieron reconstruir las valoraciones por escrituras concurrentes");
+    }
+
+    // Refleja el estado actual del comentario: cuenta si está aprobado y deja de contar en otro caso
+    public synchronized void registrar(Comentario comentario) {
+        if (comentario.getIdComentario() == null) {
+            return;
+        }
+
+        if (comentario.getEstado() == null
+                || !"Aprobado".equalsIgnoreCase(comentario.getEstado().getDescripcion())
+                || comentario.getValoracion() == null
+                || comentario.getReserva() == null
+                || comentario.getReserva().getEspacio() == null) {
+            eliminar(comentario.getIdComentario());
+            return;
+        }
+
+        poner(new ValoracionAprobadaDTO(
+                comentario.getIdComentario(),
+                comentario.getReserva().getEspacio().getIdEspacio(),
+                comentario.getValoracion()
+        ));
+    }
+
+    // Rellena promedio, cantidad y distribución por estrellas de cada espacio del resumen
+    public void completar(List<EspacioComentariosDTO> resumen) {
+        if (isCargado()) {
+            resumen.forEach(dto -> completar(dto, grupo(dto.getIdEspacio())));
+            return;
+        }
+
+        // Antes del calentamiento no se reconstruye en la petición: basta con los totales agrupados
+        Map<Long, Agregado> desdeBaseDeDatos = new HashMap<>();
+        for (Object[] fila : comentarioRepository.contarValoracionesAprobadas()) {
+            desdeBaseDeDatos.computeIfAbsent(((Number) fila[0]).longValue(), id -> new Agregado())
+                    .sumar(((Number) fila[1]).intValue(), ((Number) fila[2]).longValue());
+        }
+        resumen.forEach(dto -> completar(dto, desdeBaseDeDatos.get(dto.getIdEspacio())));
+    }
+
+    private void completar(EspacioComentariosDTO dto, Agregado agregado) {
+        (agregado != null ? agregado : new Agregado()).completar(dto);
+    }
+
+    @Override
+    protected Long id(ValoracionAprobadaDTO valoracion) {
+        return valoracion.getIdComentario();
+    }
+
+    @Override
+    protected Long idGrupo(ValoracionAprobadaDTO valoracion) {
+        return valoracion.getIdEspacio();
+    }
+
+    @Override
+    protected Agregado nuevoGrupo() {
+        return new Agregado();
+    }
+
+    @Override
+    protected void agregar(Agregado agregado, ValoracionAprobadaDTO valoracion) {
+        agregado.sumar(valoracion.getValoracion(), 1);
+    }
+
+    @Override
+    protected void quitar(Agregado agregado, ValoracionAprobadaDTO valoracion) {
+        agregado.sumar(valoracion.getValoracion(), -1);
+    }
+
+    static class Agregado {
+
+        private long suma = 0;
+        private long cantidad = 0;
+        // Posición 0 = 1 estrella ... posición 4 = 5 estrellas
+        private final long[] histograma = new long[MAX_ESTRELLAS];
+
+        // veces negativo resta
+        synchronized void sumar(int valoracion, long veces) {
+            suma += valoracion * veces;
+            cantidad += veces;
+            if (valoracion >= 1 && valoracion <= MAX_ESTRELLAS) {
+                histograma[valoracion - 1] += veces;
+            }
+        }
+
+        synchronized void completar(EspacioComentariosDTO dto) {
+            Map<Integer, Long> distribucion = new LinkedHashMap<>();
+            for (int estrellas = 1; estrellas <= MAX_ESTRELLAS; estrellas++) {
+                distribucion.put(estrellas, histograma[estrellas - 1]);
+            }
+
+            dto.setValoracionPromedio(cantidad > 0 ? (double) suma / cantidad : 0.0);
+            dto.setCantidadResenas(cantidad);
+            dto.setDistribucionValoraciones(distribucion);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.gestion.reservas.controller;
+
+import com.gestion.reservas.security.JwtAuthenticationFilter;
+import com.gestion.reservas.service.CatalogosReferencia;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(
+        controllers = CatalogoController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtAuthenticationFilter.class)
+)
+class CatalogoControllerTest {
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class SeguridadMetodos {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CatalogosReferencia catalogos;
+
+    @Test
+    @WithMockUser(roles = "Usuario")
+    void refrescarSoloLoPuedeHacerUnAdministrador() throws Exception {
+        mockMvc.perform(post("/api/catalogos/refrescar").with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verify(catalogos, never()).refrescar();
+    }
+
+    @Test
+    @WithMockUser(roles = "Administrador")
+    void unAdministradorRecargaElCatalogo() throws Exception {
+        when(catalogos.estado()).thenReturn(Map.of("recargas", 2L));
+
+        mockMvc.perform(post("/api/catalogos/refrescar").with(csrf()))
+                .andExpect(status().isOk());
+
+        verify(catalogos).refrescar();
+    }
+}
@@ -17,7 +17,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -236,4 +238,22 @@ public class DashboardControllerTest {
                 eq(fechaInicio), eq(fechaFin), eq(null), eq(null)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void estadisticasCache() throws Exception {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("aciertos", 8L);
+        estadisticas.put("fallos", 2L);
+        estadisticas.put("tasaAciertos", 0.8);
+        estadisticas.put("entradas", 2);
+
+        when(dashboardService.estadisticasCache()).thenReturn(estadisticas);
+
+        mockMvc.perform(get("/api/dashboard/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aciertos").value(8))
+                .andExpect(jsonPath("$.fallos").value(2))
+                .andExpect(jsonPath("$.tasaAciertos").value(0.8))
+                .andExpect(jsonPath("$.entradas").value(2));
+    }
+}
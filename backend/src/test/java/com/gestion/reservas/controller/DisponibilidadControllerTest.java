@@ -0,0 +1,120 @@
+package com.gestion.reservas.controller;
+
+import com.gestion.reservas.dto.EspacioResponseDTO;
+import com.gestion.reservas.dto.HuecoLibreDTO;
+import com.gestion.reservas.security.JwtAuthenticationFilter;
+import com.gestion.reservas.service.DisponibilidadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(
+        controllers = DisponibilidadController.class,
+        excludeAutoConfiguration = {SecurityAutoConfiguration.class},
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtAuthenticationFilter.class)
+)
+class DisponibilidadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DisponibilidadService disponibilidadService;
+
+    @Test
+    void buscarEspaciosLibres_devuelveEspaciosOrdenados() throws Exception {
+        EspacioResponseDTO pequena = EspacioResponseDTO.builder().idEspacio(2L).nombre("Sala Beta").capacidad(8).build();
+        EspacioResponseDTO grande = EspacioResponseDTO.builder().idEspacio(1L).nombre("Sala Alpha").capacidad(20).build();
+
+        when(disponibilidadService.buscarEspaciosLibres(any())).thenReturn(List.of(pequena, grande));
+
+        mockMvc.perform(post("/api/disponibilidad/espacios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                              "inicio": "2025-06-10T10:00:00",
+                              "fin": "2025-06-10T12:00:00",
+                              "capacidad": 8,
+                              "equipamientos": [1, 5]
+                            }
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].idEspacio").value(2))
+                .andExpect(jsonPath("$[1].idEspacio").value(1));
+    }
+
+    @Test
+    void buscarEspaciosLibres_rangoInvalido() throws Exception {
+        when(disponibilidadService.buscarEspaciosLibres(any()))
+                .thenThrow(new IllegalArgumentException("Rango de fechas no válido"));
+
+        mockMvc.perform(post("/api/disponibilidad/espacios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                              "inicio": "2025-06-10T12:00:00",
+                              "fin": "2025-06-10T10:00:00"
+                            }
+                        """))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void buscarHuecosLibres_devuelveHuecos() throws Exception {
+        HuecoLibreDTO hueco = HuecoLibreDTO.builder()
+                .idEspacio(1L)
+                .nombreEspacio("Sala Alpha")
+                .inicio(LocalDateTime.of(2025, 6, 10, 8, 0))
+                .fin(LocalDateTime.of(2025, 6, 10, 9, 59))
+                .build();
+
+        when(disponibilidadService.buscarHuecosLibres(any())).thenReturn(List.of(hueco));
+
+        mockMvc.perform(post("/api/disponibilidad/huecos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                              "espacios": [1],
+                              "duracionMinutos": 60,
+                              "horizonteDias": 30,
+                              "maxResultados": 3
+                            }
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].idEspacio").value(1))
+                .andExpect(jsonPath("$[0].nombreEspacio").value("Sala Alpha"));
+    }
+
+    @Test
+    void buscarHuecosLibres_duracionInvalida() throws Exception {
+        when(disponibilidadService.buscarHuecosLibres(any()))
+                .thenThrow(new IllegalArgumentException("La duración debe ser mayor que cero"));
+
+        mockMvc.perform(post("/api/disponibilidad/huecos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                              "espacios": [1],
+                              "duracionMinutos": 0
+                            }
+                        """))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -25,10 +25,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import com.gestion.reservas.security.JwtAuthenticationFilter;
 
 
+@Import(RespuestaCatalogo.class)
 @WebMvcTest(
         controllers = EquipamientoController.class,
         excludeAutoConfiguration = {SecurityAutoConfiguration.class},
@@ -19,11 +19,15 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
@@ -165,4 +169,40 @@ public class EspacioComentariosControllerTest {
 
         verify(espacioComentariosService, times(1)).obtenerResumenComentarios();
     }
-}
\ No newline at end of file
+
+    @Test
+    void obtenerComentariosEspacio() throws Exception {
+        when(espacioComentariosService.obtenerComentariosEspacio(1L, 5, 2)).thenReturn(Arrays.asList(comentario1, comentario2));
+
+        mockMvc.perform(get("/api/espacios/1/comentarios")
+                        .param("desde", "5")
+                        .param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].idComentario").value(comentario1.getIdComentario()))
+                .andExpect(jsonPath("$[1].idComentario").value(comentario2.getIdComentario()));
+
+        verify(espacioComentariosService, times(1)).obtenerComentariosEspacio(1L, 5, 2);
+    }
+
+    @Test
+    void obtenerComentariosEspacio_limiteNoValido() throws Exception {
+        when(espacioComentariosService.obtenerComentariosEspacio(eq(1L), any(), eq(0)))
+                .thenThrow(new IllegalArgumentException("El límite debe estar entre 1 y 100"));
+
+        mockMvc.perform(get("/api/espacios/1/comentarios")
+                        .param("limite", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reconstruirValoraciones() throws Exception {
+        when(espacioComentariosService.reconstruirValoraciones()).thenReturn(2);
+
+        mockMvc.perform(post("/api/espacios/comentarios/reconstruir-valoraciones"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Valoraciones reconstruidas para 2 espacios"));
+
+        verify(espacioComentariosService, times(1)).reconstruirValoraciones();
+    }
+}
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
@@ -24,13 +25,17 @@ import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import com.gestion.reservas.security.JwtAuthenticationFilter;
 
 
+@Import(RespuestaCatalogo.class)
 @WebMvcTest(
         controllers = EstadoReservaController.class,
         excludeAutoConfiguration = {SecurityAutoConfiguration.class},
@@ -142,4 +147,26 @@ public class EstadoReservaControllerTest {
         // Verifica que findById() fue llamado exactamente una vez con el ID correcto
         verify(estadoReservaService, times(1)).findById(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllEstadosReserva_304SiElEtagCoincide() throws Exception {
+        when(estadoReservaService.findAll()).thenReturn(Arrays.asList(estadoPendiente, estadoAprobado));
+
+        String etag = mockMvc.perform(get("/api/estadosreservas"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        // SHA-256 en hexadecimal entre comillas
+        assertTrue(etag.matches("\"[0-9a-f]{64}\""));
+
+        mockMvc.perform(get("/api/estadosreservas").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Con otro contenido cambia el ETag y se devuelve la lista
+        when(estadoReservaService.findAll()).thenReturn(List.of(estadoPendiente));
+        mockMvc.perform(get("/api/estadosreservas").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+}
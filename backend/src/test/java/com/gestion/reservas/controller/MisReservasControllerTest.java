@@ -1,6 +1,8 @@
 package com.gestion.reservas.controller;
 
 import com.gestion.reservas.dto.MisReservasDTO;
+import com.gestion.reservas.dto.PaginaDTO;
+import com.gestion.reservas.exception.ReservaSolapadaException;
 import com.gestion.reservas.security.JwtAuthenticationFilter;
 import com.gestion.reservas.service.MisReservasService;
 import org.junit.jupiter.api.Test;
@@ -57,6 +59,32 @@ class MisReservasControllerTest {
                 .andExpect(jsonPath("$[0].idReserva").value(1));
     }
 
+    @Test
+    void testGetPagina() throws Exception {
+        MisReservasDTO dto = MisReservasDTO.builder().idReserva(40L).build();
+
+        Mockito.when(reservaService.buscarPagina(any(), eq("NDE"), eq(1)))
+                .thenReturn(new PaginaDTO<>(List.of(dto), "NDA"));
+
+        mockMvc.perform(get("/api/misreservas/pagina")
+                        .param("cursor", "NDE")
+                        .param("limite", "1")
+                        .param("idUsuario", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.size()", is(1)))
+                .andExpect(jsonPath("$.contenido[0].idReserva").value(40))
+                .andExpect(jsonPath("$.siguienteCursor").value("NDA"));
+    }
+
+    @Test
+    void testGetPagina_cursorInvalido() throws Exception {
+        Mockito.when(reservaService.buscarPagina(any(), eq("xx"), any()))
+                .thenThrow(new IllegalArgumentException("Cursor no válido"));
+
+        mockMvc.perform(get("/api/misreservas/pagina").param("cursor", "xx"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetById_found() throws Exception {
         MisReservasDTO dto = MisReservasDTO.builder().idReserva(1L).build();
@@ -94,6 +122,25 @@ class MisReservasControllerTest {
                 .andExpect(jsonPath("$.idReserva").value(10));
     }
 
+    @Test
+    void testCreateReserva_solapada() throws Exception {
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 10, 10, 0);
+        LocalDateTime fin = LocalDateTime.of(2025, 6, 10, 12, 0);
+
+        Mockito.when(reservaService.save(any())).thenThrow(new ReservaSolapadaException(7L, inicio, fin));
+
+        mockMvc.perform(post("/api/misreservas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                              "ocupantes": 3
+                            }
+                        """))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.idEspacio").value(7));
+    }
+
     @Test
     void testUpdateReserva_notFound() throws Exception {
         Mockito.when(reservaService.findById(5L)).thenReturn(Optional.empty());
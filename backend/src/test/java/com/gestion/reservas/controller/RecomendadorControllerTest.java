@@ -1,8 +1,10 @@
 package com.gestion.reservas.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.reservas.dto.EntrenamientoDTO;
 import com.gestion.reservas.dto.RecomendacionRequestDTO;
 import com.gestion.reservas.dto.RecomendacionResponseDTO;
+import com.gestion.reservas.exception.RecomendadorNoDisponibleException;
 import com.gestion.reservas.security.JwtAuthenticationFilter;
 import com.gestion.reservas.service.RecomendadorService;
 import org.junit.jupiter.api.Test;
@@ -17,8 +19,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -48,7 +54,8 @@ class RecomendadorControllerTest {
         mockResponse.setHora(10);
         mockResponse.setRecomendaciones(Collections.emptyList());
 
-        Mockito.when(recomendadorService.obtenerRecomendaciones(eq(1L), eq(3), eq(10)))
+        Mockito.when(recomendadorService.obtenerRecomendaciones(argThat((RecomendacionRequestDTO c) ->
+                        c.getUsuarioId() == 1L && c.getDiaSemana() == 3 && c.getHora() == 10)))
                 .thenReturn(mockResponse);
 
         RecomendacionRequestDTO request = new RecomendacionRequestDTO();
@@ -66,7 +73,7 @@ class RecomendadorControllerTest {
 
     @Test
     void testRecomendar_error() throws Exception {
-        Mockito.when(recomendadorService.obtenerRecomendaciones(anyLong(), anyInt(), anyInt()))
+        Mockito.when(recomendadorService.obtenerRecomendaciones(any(RecomendacionRequestDTO.class)))
                 .thenThrow(new RuntimeException("Error interno"));
 
         RecomendacionRequestDTO request = new RecomendacionRequestDTO();
@@ -81,22 +88,86 @@ class RecomendadorControllerTest {
     }
 
     @Test
-    void testEntrenarModelo_success() throws Exception {
-        Mockito.when(recomendadorService.entrenarModelo())
-                .thenReturn("Modelo entrenado correctamente");
+    void testRecomendar_saturado() throws Exception {
+        Mockito.when(recomendadorService.obtenerRecomendaciones(any(RecomendacionRequestDTO.class)))
+                .thenThrow(new RecomendadorNoDisponibleException("Recomendador saturado"));
 
-        mockMvc.perform(post("/api/recomendador/entrenar"))
+        RecomendacionRequestDTO request = new RecomendacionRequestDTO();
+        request.setUsuarioId(1L);
+        request.setDiaSemana(2);
+        request.setHora(12);
+
+        mockMvc.perform(post("/api/recomendador")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testRecomendarLote_success() throws Exception {
+        RecomendacionResponseDTO respuesta = new RecomendacionResponseDTO();
+        respuesta.setUsuario_id(2L);
+        respuesta.setNombre_usuario("Lucía");
+        respuesta.setRecomendaciones(Collections.emptyList());
+
+        Mockito.when(recomendadorService.obtenerRecomendaciones(anyList()))
+                .thenReturn(List.of(respuesta, respuesta));
+
+        mockMvc.perform(post("/api/recomendador/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"usuarioId\": 2, \"diaSemana\": 1, \"hora\": 9}, {\"usuarioId\": 2, \"diaSemana\": 3}]"))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Modelo entrenado correctamente"));
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].nombre_usuario").value("Lucía"));
     }
 
     @Test
-    void testEntrenarModelo_error() throws Exception {
+    void testRecomendarLote_invalido() throws Exception {
+        Mockito.when(recomendadorService.obtenerRecomendaciones(anyList()))
+                .thenThrow(new IllegalArgumentException("Cada consulta necesita usuarioId"));
+
+        mockMvc.perform(post("/api/recomendador/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"diaSemana\": 1}]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testEstadoPredictor() throws Exception {
+        Mockito.when(recomendadorService.estadoPredictor())
+                .thenReturn(Map.of("trabajadores", 2, "listos", 1));
+
+        mockMvc.perform(get("/api/recomendador/estado"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trabajadores").value(2))
+                .andExpect(jsonPath("$.listos").value(1));
+    }
+
+    @Test
+    void testEntrenarModelo_lanzado() throws Exception {
         Mockito.when(recomendadorService.entrenarModelo())
-                .thenThrow(new RuntimeException("Fallo al entrenar"));
+                .thenReturn(EntrenamientoDTO.builder().id("abc").estado("EN_CURSO").fase("conteos").build());
 
         mockMvc.perform(post("/api/recomendador/entrenar"))
-                .andExpect(status().isInternalServerError())
-                .andExpect(content().string("Error: Fallo al entrenar"));
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/recomendador/entrenamientos/abc"))
+                .andExpect(jsonPath("$.id").value("abc"))
+                .andExpect(jsonPath("$.estado").value("EN_CURSO"));
+    }
+
+    @Test
+    void testConsultarEntrenamiento() throws Exception {
+        Mockito.when(recomendadorService.consultarEntrenamiento("abc"))
+                .thenReturn(Optional.of(EntrenamientoDTO.builder().id("abc").estado("FALLIDO").resultado("Fallo al entrenar").build()));
+        Mockito.when(recomendadorService.consultarEntrenamiento("otro"))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/recomendador/entrenamientos/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("FALLIDO"))
+                .andExpect(jsonPath("$.resultado").value("Fallo al entrenar"));
+
+        mockMvc.perform(get("/api/recomendador/entrenamientos/otro"))
+                .andExpect(status().isNotFound());
     }
 }
@@ -0,0 +1,69 @@
+package com.gestion.reservas.controller;
+
+import com.gestion.reservas.security.JwtAuthenticationFilter;
+import com.gestion.reservas.service.FormatoExportacion;
+import com.gestion.reservas.service.ReservaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+        controllers = ReservaController.class,
+        excludeAutoConfiguration = {SecurityAutoConfiguration.class},
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtAuthenticationFilter.class),
+        properties = "reservas.exportacion.timeout-ms=1234"
+)
+class ReservaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReservaService reservaService;
+
+    @Test
+    void exportarConFormatoDesconocidoDevuelve400() throws Exception {
+        mockMvc.perform(get("/api/reservas/exportar").param("formato", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(reservaService, never()).exportar(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void exportarEscribeEnSegundoPlanConSuPropioTimeout() throws Exception {
+        when(reservaService.exportar(any(), any(), any(), eq(3L), eq(FormatoExportacion.NDJSON), any())).thenAnswer(inv -> {
+            OutputStream salida = inv.getArgument(5);
+            salida.write("{\"idReserva\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult resultado = mockMvc.perform(get("/api/reservas/exportar").param("formato", "ndjson").param("estadoId", "3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Solo esta petición usa el timeout de exportación; el resto sigue con el global
+        assertEquals(1234L, resultado.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"reservas.ndjson\""))
+                .andExpect(content().string("{\"idReserva\":1}\n"));
+    }
+}
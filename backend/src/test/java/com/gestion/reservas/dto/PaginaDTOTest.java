@@ -0,0 +1,57 @@
+package com.gestion.reservas.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginaDTOTest {
+
+    // Ids 300..1 en orden descendente, como los devuelve el repositorio
+    private final List<Long> tabla = LongStream.iterate(300, i -> i >= 1, i -> i - 1).boxed().toList();
+    private final List<Integer> filasPedidas = new ArrayList<>();
+
+    private List<Long> consulta(Long idAnterior, Integer filas) {
+        filasPedidas.add(filas);
+        return tabla.stream().filter(id -> idAnterior == null || id < idAnterior).limit(filas).toList();
+    }
+
+    @Test
+    void limiteNuloOInvalidoUsaElDefectoYElExcesivoSeRecorta() {
+        PaginaDTO.buscar(null, null, this::consulta, Function.identity(), String::valueOf);
+        PaginaDTO.buscar(null, 0, this::consulta, Function.identity(), String::valueOf);
+        PaginaDTO<String> grande = PaginaDTO.buscar(null, 10_000, this::consulta, Function.identity(), String::valueOf);
+
+        // Siempre una fila de más para saber si hay siguiente página
+        assertEquals(List.of(PaginaDTO.LIMITE_DEFECTO + 1, PaginaDTO.LIMITE_DEFECTO + 1, PaginaDTO.LIMITE_MAXIMO + 1), filasPedidas);
+        assertEquals(PaginaDTO.LIMITE_MAXIMO, grande.getContenido().size());
+    }
+
+    @Test
+    void elCursorEncadenaPaginasHastaLaUltima() {
+        List<String> vistos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaDTO<String> pagina = PaginaDTO.buscar(cursor, 120, this::consulta, Function.identity(), String::valueOf);
+            vistos.addAll(pagina.getContenido());
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(3, paginas);
+        assertEquals(300, vistos.size());
+        assertEquals("300", vistos.get(0));
+        assertEquals("1", vistos.get(299));
+    }
+
+    @Test
+    void cursorMalFormadoSeRechaza() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PaginaDTO.buscar("no-es-un-cursor!", 10, this::consulta, Function.identity(), String::valueOf));
+    }
+}
@@ -0,0 +1,297 @@
+package com.gestion.reservas.repository;
+
+import com.gestion.reservas.dto.FiltroReservasDTO;
+import com.gestion.reservas.dto.ReservaExportacionDTO;
+import com.gestion.reservas.dto.ResumenReservasDTO;
+import com.gestion.reservas.entity.*;
+import com.gestion.reservas.mapper.MisReservasMapper;
+import com.gestion.reservas.mapper.UsuarioMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({MisReservasMapper.class, UsuarioMapper.class})
+class ReservaRepositoryTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 6, 10, 10, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ResumenDiarioReservaRepository resumenDiarioReservaRepository;
+
+    @Autowired
+    private ConteoRecomendacionRepository conteoRecomendacionRepository;
+
+    @Autowired
+    private MisReservasMapper misReservasMapper;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    private Statistics statistics;
+    private Usuario usuarioFijo;
+    private TipoEspacio tipo;
+    private EstadoEspacio estadoEspacio;
+    private EstadoReserva pendiente;
+    private int creadas = 0;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        tipo = TipoEspacio.builder().descripcion("Sala de Reuniones").build();
+        estadoEspacio = EstadoEspacio.builder().descripcion("Disponible").build();
+        pendiente = EstadoReserva.builder().descripcion("Pendiente").color("#000").bgcolor("#fff").build();
+        entityManager.persist(tipo);
+        entityManager.persist(estadoEspacio);
+        entityManager.persist(pendiente);
+
+        usuarioFijo = crearUsuario();
+    }
+
+    // Los listados deben resolverse con una sola sentencia, tengan 3 o 12 reservas
+    @Test
+    void listadosConNumeroDeSentenciasConstante() {
+        crearReservas(3);
+        comprobarListados();
+
+        crearReservas(9);
+        comprobarListados();
+    }
+
+    @Test
+    void agregadosDashboardCalculadosEnBaseDeDatos() {
+        // Lunes 10:00 (1h30), martes 10:00 (2h30), lunes 10:00 (59 min) y martes 10:00 (2h)
+        int[] minutos = {90, 150, 59, 120};
+        for (int i = 0; i < minutos.length; i++) {
+            LocalDateTime inicio = INICIO.minusDays(INICIO.getDayOfWeek().getValue() - 1).plusDays(i % 2);
+            crearReserva(i == 0 ? crearUsuario() : usuarioFijo, inicio, inicio.plusMinutes(minutos[i]));
+        }
+        entityManager.flush();
+
+        ResumenReservasDTO resumen = reservaRepository.resumirPorFiltros(null, null, null, null);
+        assertEquals(4, resumen.getTotalReservas());
+        assertEquals(2, resumen.getUsuariosActivos());
+        assertEquals(90 + 150 + 59 + 120, resumen.getMinutosReservados());
+
+        Map<LocalDate, Long> porDia = reservaRepository.contarPorDiaConFiltros(null, null, null, null);
+        assertEquals(2, porDia.size());
+        porDia.forEach((dia, total) -> assertEquals(2L, total));
+
+        assertEquals(Map.of("Sala de Reuniones", 4L), reservaRepository.contarPorTipoEspacioConFiltros(null, null, tipo.getIdTipoEspacio(), null));
+        assertEquals(0, reservaRepository.resumirPorFiltros(null, null, null, -1L).getTotalReservas());
+
+        List<Reserva> ultimas = reservaRepository.buscarUltimasPorFiltros(null, null, null, null, 3);
+        assertEquals(3, ultimas.size());
+        assertTrue(ultimas.get(0).getIdReserva() > ultimas.get(1).getIdReserva());
+    }
+
+    @Test
+    void resumenDiarioCoincideConLasReservas() {
+        LocalDateTime lunes = INICIO.minusDays(INICIO.getDayOfWeek().getValue() - 1);
+        crearReserva(usuarioFijo, lunes, lunes.plusMinutes(90));
+        crearReserva(crearUsuario(), lunes.plusHours(3), lunes.plusHours(5));
+        crearReserva(usuarioFijo, lunes.plusDays(1), lunes.plusDays(1).plusMinutes(59));
+        entityManager.flush();
+
+        resumenDiarioReservaRepository.reconstruirTodo();
+
+        LocalDate desde = lunes.toLocalDate();
+        LocalDate hasta = desde.plusDays(6);
+        LocalDate ningunDia = desde.minusDays(1);
+
+        ResumenReservasDTO resumen = resumenDiarioReservaRepository.resumir(desde, hasta, ningunDia, null, null);
+        ResumenReservasDTO esperado = reservaRepository.resumirPorFiltros(null, null, null, null);
+        assertEquals(esperado.getTotalReservas(), resumen.getTotalReservas());
+        assertEquals(esperado.getMinutosReservados(), resumen.getMinutosReservados());
+
+        List<ResumenDiarioReserva> filas = resumenDiarioReservaRepository.findAll();
+        assertEquals(90 + 120 + 59, filas.stream().mapToLong(ResumenDiarioReserva::getMinutosReservados).sum());
+        assertEquals(2, filas.stream().filter(f -> f.getId().getDia().equals(desde)).mapToLong(ResumenDiarioReserva::getNumReservas).sum());
+
+        // El día excluido (hoy, en el servicio) no se suma
+        assertEquals(1, resumenDiarioReservaRepository.resumir(desde, hasta, desde, null, null).getTotalReservas());
+        assertEquals(1, resumenDiarioReservaRepository.contarPorTipoEspacio(desde, hasta, ningunDia, tipo.getIdTipoEspacio(), null).size());
+
+        // Recalcular un día solo sustituye las filas de ese día
+        crearReserva(usuarioFijo, lunes.plusHours(8), lunes.plusHours(9));
+        entityManager.flush();
+        resumenDiarioReservaRepository.recalcular(desde, desde.plusDays(1));
+
+        Map<LocalDate, Long> porDia = new java.util.HashMap<>();
+        for (Object[] fila : resumenDiarioReservaRepository.contarPorDia(desde, hasta, ningunDia, null, null)) {
+            porDia.put((LocalDate) fila[0], ((Number) fila[1]).longValue());
+        }
+        assertEquals(Map.of(desde, 3L, desde.plusDays(1), 1L), porDia);
+    }
+
+    @Test
+    void exportacionRecorreLasFilasSinCargarEntidades() {
+        crearReservas(5);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ReservaExportacionDTO> filas = new ArrayList<>();
+        long total = reservaRepository.recorrerPorFiltros(null, null, tipo.getIdTipoEspacio(), pendiente.getIdEstado(), 2, filas::add);
+
+        assertEquals(5, total);
+        assertEquals(5, filas.size());
+        assertTrue(filas.get(0).getIdReserva() < filas.get(1).getIdReserva());
+        assertEquals("Sala de Reuniones", filas.get(0).getTipoEspacio());
+        assertEquals("Pendiente", filas.get(0).getEstado());
+        assertEquals(usuarioFijo.getIdUsuario(), filas.get(0).getIdUsuario());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+
+        assertEquals(0, reservaRepository.recorrerPorFiltros(INICIO.plusDays(1), null, null, null, 2, filas::add));
+    }
+
+    @Test
+    void conteosIncrementalesCoincidenConReconstruirTodo() {
+        EstadoReserva completada = EstadoReserva.builder().descripcion("Completada").color("#000").bgcolor("#fff").build();
+        entityManager.persist(completada);
+        Espacio espacio = Espacio.builder().nombre("Sala conteos").capacidad(10).tipoEspacio(tipo).estado(estadoEspacio).build();
+        entityManager.persist(espacio);
+
+        // INICIO es martes a las 10:00; el domingo siguiente a las 18:00
+        LocalDateTime domingo = INICIO.plusDays(5).withHour(18);
+        persistirReserva(usuarioFijo, espacio, completada, INICIO, INICIO.plusHours(1));
+        persistirReserva(usuarioFijo, espacio, completada, INICIO.plusWeeks(1), INICIO.plusWeeks(1).plusHours(1));
+        persistirReserva(usuarioFijo, espacio, completada, domingo, domingo.plusHours(1));
+        persistirReserva(usuarioFijo, espacio, pendiente, INICIO, INICIO.plusHours(1));
+        entityManager.flush();
+
+        ConteoRecomendacionId martes = new ConteoRecomendacionId(usuarioFijo.getIdUsuario(), 2, 10, espacio.getIdEspacio());
+        ConteoRecomendacionId alDomingo = new ConteoRecomendacionId(usuarioFijo.getIdUsuario(), 0, 18, espacio.getIdEspacio());
+
+        assertFalse(conteoRecomendacionRepository.hayCompletadasSinContar());
+        assertEquals(Map.of(martes, 2L), conteoRecomendacionRepository.acumularPendientes(2));
+        assertTrue(conteoRecomendacionRepository.hayCompletadasSinContar());
+        assertEquals(Map.of(alDomingo, 1L), conteoRecomendacionRepository.acumularPendientes(10));
+        assertTrue(conteoRecomendacionRepository.acumularPendientes(10).isEmpty());
+        entityManager.flush();
+        entityManager.clear();
+        Map<ConteoRecomendacionId, Long> incrementales = conteos();
+
+        assertEquals(2, conteoRecomendacionRepository.reconstruirTodo());
+        entityManager.clear();
+        assertEquals(incrementales, conteos());
+        assertEquals(Map.of(martes, 2L, alDomingo, 1L), conteos());
+    }
+
+    private Map<ConteoRecomendacionId, Long> conteos() {
+        Map<ConteoRecomendacionId, Long> conteos = new java.util.HashMap<>();
+        conteoRecomendacionRepository.findAll().forEach(c -> conteos.put(c.getId(), c.getReservas()));
+        return conteos;
+    }
+
+    private void comprobarListados() {
+        assertEquals(1, sentencias(() -> reservaRepository.findAll()));
+        assertEquals(1, sentencias(() -> reservaRepository.findAllByOrderByIdReservaDesc()));
+        assertEquals(1, sentencias(() -> reservaRepository.findByUsuarioIdUsuario(usuarioFijo.getIdUsuario())));
+        assertEquals(1, sentencias(() -> reservaRepository.findByFechaInicioBetween(INICIO.minusDays(1), INICIO.plusDays(1))));
+        assertEquals(1, sentencias(() -> reservaRepository.findByEstadoAndFechaFinBefore(pendiente, INICIO.plusDays(1))));
+        assertEquals(1, sentencias(() -> reservaRepository.buscarPorFiltros(null, null, null, null)));
+        assertEquals(1, sentencias(() -> reservaRepository.buscarPagina(new FiltroReservasDTO(), null, 50)));
+    }
+
+    // Cuenta las sentencias de la consulta más las que provoque el mapeo a DTO
+    private long sentencias(Supplier<List<Reserva>> consulta) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        consulta.get().forEach(misReservasMapper::toDTO);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void crearReservas(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            // Cada reserva con su propio espacio, rol y estado de usuario para que un N+1 se note
+            Espacio espacio = Espacio.builder()
+                    .nombre("Sala " + creadas)
+                    .capacidad(10)
+                    .tipoEspacio(tipo)
+                    .estado(estadoEspacio)
+                    .build();
+            entityManager.persist(espacio);
+
+            Usuario usuario = i % 2 == 0 ? usuarioFijo : crearUsuario();
+
+            persistirReserva(usuario, espacio, INICIO, INICIO.plusHours(2));
+        }
+    }
+
+    private void crearReserva(Usuario usuario, LocalDateTime inicio, LocalDateTime fin) {
+        Espacio espacio = Espacio.builder()
+                .nombre("Sala " + creadas++)
+                .capacidad(10)
+                .tipoEspacio(tipo)
+                .estado(estadoEspacio)
+                .build();
+        entityManager.persist(espacio);
+
+        persistirReserva(usuario, espacio, inicio, fin);
+    }
+
+    private void persistirReserva(Usuario usuario, Espacio espacio, LocalDateTime inicio, LocalDateTime fin) {
+        persistirReserva(usuario, espacio, pendiente, inicio, fin);
+    }
+
+    private void persistirReserva(Usuario usuario, Espacio espacio, EstadoReserva estado, LocalDateTime inicio, LocalDateTime fin) {
+        entityManager.persist(Reserva.builder()
+                .usuario(usuario)
+                .espacio(espacio)
+                .estado(estado)
+                .fechaInicio(inicio)
+                .fechaFin(fin)
+                .sincronizado(false)
+                .recomendadaia(false)
+                .usadaenmodelo(false)
+                .build());
+    }
+
+    private Usuario crearUsuario() {
+        int n = creadas++;
+
+        Rol rol = Rol.builder().descripcion("ROL_" + n).build();
+        EstadoUsuario estado = EstadoUsuario.builder().descripcion("ESTADO_" + n).build();
+        entityManager.persist(rol);
+        entityManager.persist(estado);
+
+        Usuario usuario = Usuario.builder()
+                .nombre("Usuario " + n)
+                .email("usuario" + n + "@test.com")
+                .password("secreto")
+                .rol(rol)
+                .estado(estado)
+                .build();
+        entityManager.persist(usuario);
+        return usuario;
+    }
+}
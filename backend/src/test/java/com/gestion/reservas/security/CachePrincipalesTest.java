@@ -0,0 +1,59 @@
+package com.gestion.reservas.security;
+
+import com.gestion.reservas.event.UsuarioModificadoEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CachePrincipalesTest {
+
+    private CachePrincipales cache;
+    private AtomicInteger cargas;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CachePrincipales(60, 10);
+        cargas = new AtomicInteger();
+    }
+
+    @Test
+    void unCambioEnUnUsuarioSoloQuitaSuEntrada() {
+        UserDetails primero = obtener(1L);
+        UserDetails segundo = obtener(2L);
+
+        cache.alModificarUsuario(new UsuarioModificadoEvent(1L, false));
+
+        assertNotSame(primero, obtener(1L));
+        assertSame(segundo, obtener(2L));
+        assertEquals(3, cargas.get());
+    }
+
+    @Test
+    void unCambioSinUsuarioQuitaTodas() {
+        obtener(1L);
+        obtener(2L);
+
+        cache.alModificarUsuario(new UsuarioModificadoEvent(null, false));
+
+        assertEquals(0, cache.estadisticas().get("entradas"));
+        assertEquals(2L, cache.estadisticas().get("invalidadas"));
+    }
+
+    private UserDetails obtener(Long id) {
+        return cache.obtener(id, () -> {
+            cargas.incrementAndGet();
+            return User.builder()
+                    .username("usuario" + id + "@uni.es")
+                    .password("")
+                    .roles("Usuario")
+                    .build();
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.gestion.reservas.security;
+
+import com.gestion.reservas.entity.Rol;
+import com.gestion.reservas.entity.Usuario;
+import com.gestion.reservas.event.UsuarioModificadoEvent;
+import com.gestion.reservas.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private CustomUserDetailsService userDetailsService;
+    private UsuarioRepository usuarioRepository;
+    private RevocacionTokens revocacionTokens;
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        CacheTokens cacheTokens = new CacheTokens(100);
+        usuarioRepository = mock(UsuarioRepository.class);
+        revocacionTokens = new RevocacionTokens(usuarioRepository);
+        userDetailsService = mock(CustomUserDetailsService.class);
+        arrancar(cacheTokens, revocacionTokens);
+    }
+
+    private void arrancar(CacheTokens cacheTokens, RevocacionTokens revocacionTokens) {
+        jwtService = new JwtService(cacheTokens);
+        ReflectionTestUtils.setField(jwtService, "secretKeyEncoded", Base64.getEncoder().encodeToString(new byte[32]));
+        jwtService.init();
+        filtro = new JwtAuthenticationFilter(jwtService, userDetailsService, revocacionTokens, true);
+    }
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sinEstadoAutenticaConLosClaimsSinCargarElUsuario() throws Exception {
+        String token = jwtService.generateToken(usuario(0));
+
+        MockHttpServletResponse respuesta = filtrar(token);
+
+        assertEquals(200, respuesta.getStatus());
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("ana@uni.es", autenticacion.getName());
+        assertEquals("ROLE_Administrador", autenticacion.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void rechazaLosTokensEmitidosAntesDeUnaRevocacion() throws Exception {
+        String anterior = jwtService.generateToken(usuario(0));
+        when(usuarioRepository.findVersionTokens(7L)).thenReturn(Optional.of(1));
+        revocacionTokens.alModificarUsuario(new UsuarioModificadoEvent(7L, true));
+        // Un cambio que no revoca no afecta a los tokens
+        revocacionTokens.alModificarUsuario(new UsuarioModificadoEvent(7L, false));
+        String nuevo = jwtService.generateToken(usuario(1));
+
+        assertEquals(401, filtrar(anterior).getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        assertEquals(200, filtrar(nuevo).getStatus());
+        assertEquals("ana@uni.es", SecurityContextHolder.getContext().getAuthentication().getName());
+        assertEquals(1L, revocacionTokens.estadisticas().get("tokensRechazados"));
+        verify(usuarioRepository).incrementarVersionTokens(7L);
+    }
+
+    @Test
+    void lasRevocacionesGuardadasSobrevivenAUnReinicio() throws Exception {
+        String anterior = jwtService.generateToken(usuario(0));
+        String actual = jwtService.generateToken(usuario(1));
+        String posterior = jwtService.generateToken(usuario(2));
+
+        // Otra instancia (o la misma tras reiniciar) que solo ha leído la primera revocación
+        when(usuarioRepository.findVersionesTokens()).thenReturn(List.<Object[]>of(new Object[]{7L, 1}));
+        RevocacionTokens otra = new RevocacionTokens(usuarioRepository);
+        otra.calentar();
+        arrancar(new CacheTokens(100), otra);
+
+        assertEquals(401, filtrar(anterior).getStatus());
+        assertEquals(200, filtrar(actual).getStatus());
+        // Un token emitido con una versión más nueva que la conocida no se rechaza
+        assertEquals(200, filtrar(posterior).getStatus());
+    }
+
+    private MockHttpServletResponse filtrar(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/espacios");
+        peticion.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        filtro.doFilter(peticion, respuesta, new MockFilterChain());
+        return respuesta;
+    }
+
+    private static Usuario usuario(int versionTokens) {
+        Rol rol = new Rol();
+        rol.setDescripcion("Administrador");
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(7L);
+        usuario.setNombre("Ana");
+        usuario.setEmail("ana@uni.es");
+        usuario.setRol(rol);
+        usuario.setVersionTokens(versionTokens);
+        return usuario;
+    }
+}
@@ -0,0 +1,108 @@
+package com.gestion.reservas.security;
+
+import com.gestion.reservas.entity.Rol;
+import com.gestion.reservas.entity.Usuario;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    private static final byte[] CLAVE = new byte[32];
+
+    private CacheTokens cacheTokens;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        cacheTokens = new CacheTokens(2);
+        jwtService = new JwtService(cacheTokens);
+        ReflectionTestUtils.setField(jwtService, "secretKeyEncoded", Base64.getEncoder().encodeToString(CLAVE));
+        jwtService.init();
+    }
+
+    @Test
+    void verificaUnaVezYDespuesSirveDeLaCache() {
+        String token = jwtService.generateToken(usuario(7L, "ana@uni.es"));
+
+        TokenVerificado verificado = jwtService.verificar(token).orElseThrow();
+        assertEquals(7L, verificado.idUsuario());
+        assertEquals("ana@uni.es", verificado.email());
+        assertEquals("Ana", verificado.nombre());
+        assertEquals("Administrador", verificado.rol());
+
+        assertEquals(verificado, jwtService.verificar(token).orElseThrow());
+        assertEquals(7L, jwtService.verificar(token).orElseThrow().idUsuario());
+        assertEquals(1L, cacheTokens.estadisticas().get("fallos"));
+        assertEquals(2L, cacheTokens.estadisticas().get("aciertos"));
+    }
+
+    @Test
+    void laVersionDelTokenSaleDeLaFilaDelUsuario() {
+        Usuario usuario = usuario(7L, "ana@uni.es");
+        usuario.setVersionTokens(3);
+
+        assertEquals(3, jwtService.verificar(jwtService.generateToken(usuario)).orElseThrow().version());
+    }
+
+    @Test
+    void rechazaTokensAlteradosCaducadosYAjenos() {
+        String token = jwtService.generateToken(usuario(7L, "ana@uni.es"));
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String caducado = Jwts.builder()
+                .claim("idUsuario", 7L)
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(CLAVE), SignatureAlgorithm.HS256)
+                .compact();
+        byte[] otraClave = new byte[32];
+        otraClave[0] = 1;
+        String ajeno = Jwts.builder()
+                .claim("idUsuario", 7L)
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(otraClave), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertTrue(jwtService.verificar(alterado).isEmpty());
+        assertTrue(jwtService.verificar(caducado).isEmpty());
+        assertTrue(jwtService.verificar(ajeno).isEmpty());
+        assertTrue(jwtService.verificar("no-es-un-jwt").isEmpty());
+        assertTrue(jwtService.verificar(null).isEmpty());
+        assertEquals(0, cacheTokens.estadisticas().get("entradas"));
+    }
+
+    @Test
+    void laCacheNoPasaDelMaximo() {
+        String primero = jwtService.generateToken(usuario(1L, "a@uni.es"));
+        String segundo = jwtService.generateToken(usuario(2L, "b@uni.es"));
+        String tercero = jwtService.generateToken(usuario(3L, "c@uni.es"));
+
+        jwtService.verificar(primero);
+        jwtService.verificar(segundo);
+        jwtService.verificar(tercero);
+
+        assertEquals(2, cacheTokens.estadisticas().get("entradas"));
+        // El primero se descartó: vuelve a verificarse y sigue siendo válido
+        assertEquals(1L, jwtService.verificar(primero).orElseThrow().idUsuario());
+        assertEquals(4L, cacheTokens.estadisticas().get("fallos"));
+    }
+
+    private static Usuario usuario(Long id, String email) {
+        Rol rol = new Rol();
+        rol.setDescripcion("Administrador");
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(id);
+        usuario.setNombre("Ana");
+        usuario.setEmail(email);
+        usuario.setRol(rol);
+        return usuario;
+    }
+}
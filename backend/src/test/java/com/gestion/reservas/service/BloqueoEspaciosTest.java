@@ -0,0 +1,137 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.entity.Espacio;
+import com.gestion.reservas.entity.EstadoReserva;
+import com.gestion.reservas.entity.Reserva;
+import com.gestion.reservas.exception.ReservaSolapadaException;
+import com.gestion.reservas.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BloqueoEspaciosTest {
+
+    private static final LocalDateTime NUEVE = LocalDateTime.of(2025, 6, 10, 9, 0);
+
+    private ReservaRepository reservaRepository;
+    private IndiceDisponibilidad indice;
+    private BloqueoEspacios bloqueo;
+
+    // Reservas guardadas, como si fueran la tabla
+    private final List<Reserva> guardadas = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        indice = mock(IndiceDisponibilidad.class);
+        bloqueo = new BloqueoEspacios(reservaRepository, indice);
+
+        when(reservaRepository.existeSolapamiento(anyLong(), any(), any(), any())).thenAnswer(inv -> guardadas.stream()
+                .anyMatch(r -> r.getEspacio().getIdEspacio().equals(inv.getArgument(0))
+                        && !r.getFechaInicio().isAfter(inv.getArgument(2))
+                        && !r.getFechaFin().isBefore(inv.getArgument(1))
+                        && !r.getIdReserva().equals(inv.getArgument(3))));
+        when(reservaRepository.save(any())).thenAnswer(inv -> {
+            Reserva reserva = inv.getArgument(0);
+            // Deja pasar tiempo entre la comprobación y el guardado para que se note si no hay bloqueo
+            Thread.sleep(50);
+            if (reserva.getIdReserva() == null) {
+                reserva.setIdReserva(ids.incrementAndGet());
+            }
+            guardadas.add(reserva);
+            return reserva;
+        });
+    }
+
+    @Test
+    void rechazaElSolapamientoSinGuardar() {
+        bloqueo.guardarSinSolapar(reserva(1L, NUEVE, NUEVE.plusHours(1), "Pendiente"));
+
+        ReservaSolapadaException e = assertThrows(ReservaSolapadaException.class,
+                () -> bloqueo.guardarSinSolapar(reserva(1L, NUEVE.plusHours(1), NUEVE.plusHours(2), "Pendiente")));
+        assertEquals(1L, e.getIdEspacio());
+        assertEquals(1, guardadas.size());
+        verify(indice, times(1)).registrar(any());
+
+        // Otro espacio y las canceladas no se comprueban contra ella
+        bloqueo.guardarSinSolapar(reserva(2L, NUEVE, NUEVE.plusHours(1), "Pendiente"));
+        bloqueo.guardarSinSolapar(reserva(1L, NUEVE, NUEVE.plusHours(1), "Cancelada"));
+        assertEquals(3, guardadas.size());
+    }
+
+    @Test
+    void dosReservasSimultaneasDelMismoEspacioSoloGuardanUna() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<Reserva>> intentos = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                intentos.add(hilos.submit(() -> {
+                    salida.await();
+                    return bloqueo.guardarSinSolapar(reserva(1L, NUEVE, NUEVE.plusHours(1), "Pendiente"));
+                }));
+            }
+            salida.countDown();
+
+            int conflictos = 0;
+            for (Future<Reserva> intento : intentos) {
+                try {
+                    intento.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ReservaSolapadaException.class, e.getCause());
+                    conflictos++;
+                }
+            }
+            assertEquals(3, conflictos);
+            assertEquals(1, guardadas.size());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void otroEspacioNoEsperaAlBloqueoDelPrimero() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        when(reservaRepository.existeSolapamiento(eq(1L), any(), any(), any())).thenAnswer(inv -> {
+            dentro.countDown();
+            soltar.await();
+            return false;
+        });
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<Reserva> primero = hilos.submit(() -> bloqueo.guardarSinSolapar(reserva(1L, NUEVE, NUEVE.plusHours(1), "Pendiente")));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+            Future<Reserva> segundo = hilos.submit(() -> bloqueo.guardarSinSolapar(reserva(2L, NUEVE, NUEVE.plusHours(1), "Pendiente")));
+            assertNotNull(segundo.get(5, TimeUnit.SECONDS));
+            assertFalse(primero.isDone());
+
+            soltar.countDown();
+            assertNotNull(primero.get(5, TimeUnit.SECONDS));
+        } finally {
+            soltar.countDown();
+            hilos.shutdownNow();
+        }
+    }
+
+    static Reserva reserva(Long idEspacio, LocalDateTime inicio, LocalDateTime fin, String estado) {
+        return Reserva.builder()
+                .espacio(Espacio.builder().idEspacio(idEspacio).nombre("Sala " + idEspacio).build())
+                .estado(EstadoReserva.builder().descripcion(estado).build())
+                .fechaInicio(inicio)
+                .fechaFin(fin)
+                .build();
+    }
+}
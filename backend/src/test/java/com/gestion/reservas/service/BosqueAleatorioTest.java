@@ -0,0 +1,129 @@
+package com.gestion.reservas.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BosqueAleatorioTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Primeros 10 árboles de ml/modelo.pkl y las recomendaciones de scikit-learn para ellos.
+    // Se regeneran con "python ml/exportar_bosque.py --test"
+    private static final String BOSQUE_EXPORTADO = "/ml/modelo_bosque.json";
+    private static final String CASOS_PARIDAD = "/ml/paridad_bosque.json";
+
+    // Dos árboles sobre (usuario_id, hora, dia_semana) y tres espacios
+    static final String BOSQUE = """
+        {
+          "caracteristicas": ["usuario_id", "hora", "dia_semana"],
+          "clases": [10, 20, 30],
+          "arboles": [
+            {
+              "izquierda": [1, -1, -1],
+              "derecha": [2, -1, -1],
+              "caracteristica": [1, -2, -2],
+              "umbral": [12.5, -2.0, -2.0],
+              "valores": [[0.4, 0.3, 0.3], [1.0, 0.0, 0.0], [0.0, 0.5, 0.5]]
+            },
+            {
+              "izquierda": [1, 3, -1, -1, -1],
+              "derecha": [2, 4, -1, -1, -1],
+              "caracteristica": [2, 0, -2, -2, -2],
+              "umbral": [2.5, 5.5, -2.0, -2.0, -2.0],
+              "valores": [[0.3, 0.3, 0.4], [0.2, 0.5, 0.3], [0.0, 0.0, 1.0], [0.0, 1.0, 0.0], [0.5, 0.0, 0.5]]
+            }
+          ]
+        }
+        """;
+
+    @Test
+    void mediaDeLasHojasDeCadaArbol() throws Exception {
+        BosqueAleatorio bosque = BosqueAleatorio.desdeJson(MAPPER.readTree(BOSQUE));
+        double[] salida = new double[bosque.getNumClases()];
+
+        bosque.probabilidades(new double[]{3, 10, 1}, salida);
+        assertArrayEquals(new double[]{0.5, 0.5, 0.0}, salida, 1e-12);
+
+        bosque.probabilidades(new double[]{7, 10, 1}, salida);
+        assertArrayEquals(new double[]{0.75, 0.0, 0.25}, salida, 1e-12);
+
+        bosque.probabilidades(new double[]{7, 14, 5}, salida);
+        assertArrayEquals(new double[]{0.0, 0.25, 0.75}, salida, 1e-12);
+    }
+
+    @Test
+    void losEmpatesSeResuelvenPorOrdenDeClase() throws Exception {
+        BosqueAleatorio bosque = BosqueAleatorio.desdeJson(MAPPER.readTree(BOSQUE));
+        double[] salida = new double[bosque.getNumClases()];
+        int[] indices = new int[3];
+
+        bosque.probabilidades(new double[]{3, 10, 1}, salida);
+        assertEquals(3, BosqueAleatorio.mejores(salida, bosque.getNumClases(), indices));
+        assertArrayEquals(new int[]{0, 1, 2}, indices);
+
+        bosque.probabilidades(new double[]{7, 14, 5}, salida);
+        BosqueAleatorio.mejores(salida, bosque.getNumClases(), indices);
+        assertEquals(30L, bosque.clase(indices[0]));
+        assertEquals(20L, bosque.clase(indices[1]));
+        assertEquals(10L, bosque.clase(indices[2]));
+    }
+
+    @Test
+    void comparaComoFloat32IgualQueScikitLearn() throws Exception {
+        String bosqueUmbral = """
+            {
+              "clases": [1, 2],
+              "arboles": [{
+                "izquierda": [1, -1, -1],
+                "derecha": [2, -1, -1],
+                "caracteristica": [0, -2, -2],
+                "umbral": [0.1, -2.0, -2.0],
+                "valores": [[0.5, 0.5], [1.0, 0.0], [0.0, 1.0]]
+              }]
+            }
+            """;
+        BosqueAleatorio bosque = BosqueAleatorio.desdeJson(MAPPER.readTree(bosqueUmbral));
+        double[] salida = new double[2];
+
+        // (float) 0.1 es algo mayor que el double 0.1, así que va a la derecha
+        bosque.probabilidades(new double[]{0.1, 0, 0}, salida);
+        assertArrayEquals(new double[]{0.0, 1.0}, salida);
+    }
+
+    @Test
+    void mismasRecomendacionesQueElPredictorPython() throws Exception {
+        BosqueAleatorio bosque = BosqueAleatorio.desdeJson(leer(BOSQUE_EXPORTADO));
+        double[] salida = new double[bosque.getNumClases()];
+        int[] indices = new int[3];
+
+        JsonNode casos = leer(CASOS_PARIDAD);
+        assertEquals(20 * 7 * 8, casos.size());
+        for (JsonNode caso : casos) {
+            bosque.probabilidades(new double[]{
+                    caso.get("usuario_id").asDouble(),
+                    caso.get("hora").asDouble(),
+                    caso.get("dia_semana").asDouble()
+            }, salida);
+            int total = BosqueAleatorio.mejores(salida, bosque.getNumClases(), indices);
+
+            JsonNode esperadas = caso.get("recomendaciones");
+            assertEquals(esperadas.size(), total, caso.toString());
+            for (int i = 0; i < total; i++) {
+                assertEquals(esperadas.get(i).get("espacio_id").asLong(), bosque.clase(indices[i]), caso.toString());
+                assertEquals(esperadas.get(i).get("probabilidad").asDouble(), salida[indices[i]], 1e-12, caso.toString());
+            }
+        }
+    }
+
+    private static JsonNode leer(String recurso) throws Exception {
+        try (InputStream entrada = BosqueAleatorioTest.class.getResourceAsStream(recurso)) {
+            return MAPPER.readTree(entrada);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.DashBoardDTO;
+import com.gestion.reservas.event.EspacioModificadoEvent;
+import com.gestion.reservas.event.ReservaModificadaEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CacheDashboardTest {
+
+    private static final LocalDate JUNIO = LocalDate.of(2025, 6, 1);
+    private static final LocalDate JULIO = LocalDate.of(2025, 7, 1);
+
+    private CacheDashboard cache;
+    private AtomicInteger calculos;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheDashboard(300, 2);
+        calculos = new AtomicInteger();
+    }
+
+    @Test
+    void reutilizaLaRespuestaParaLosMismosFiltros() {
+        DashBoardDTO primera = obtener(JUNIO, JUNIO.plusDays(29), null);
+        DashBoardDTO segunda = obtener(JUNIO, JUNIO.plusDays(29), null);
+
+        assertSame(primera, segunda);
+        assertEquals(1, calculos.get());
+        assertEquals(1L, cache.estadisticas().get("aciertos"));
+        assertEquals(1L, cache.estadisticas().get("fallos"));
+    }
+
+    @Test
+    void unaReservaSoloInvalidaLosRangosQueLaIncluyen() {
+        obtener(JUNIO, JUNIO.plusDays(29), null);
+        obtener(JULIO, JULIO.plusDays(30), null);
+
+        cache.alModificarReserva(new ReservaModificadaEvent(
+                LocalDateTime.of(2025, 7, 10, 9, 0), LocalDateTime.of(2025, 7, 10, 11, 0)));
+
+        obtener(JUNIO, JUNIO.plusDays(29), null);
+        obtener(JULIO, JULIO.plusDays(30), null);
+
+        assertEquals(3, calculos.get());
+        assertEquals(1L, cache.estadisticas().get("invalidadas"));
+    }
+
+    @Test
+    void losRangosAbiertosSeInvalidanSiempre() {
+        obtener(null, null, null);
+
+        cache.alModificarReserva(new ReservaModificadaEvent(
+                LocalDateTime.of(2030, 1, 1, 9, 0), LocalDateTime.of(2030, 1, 1, 10, 0)));
+        obtener(null, null, null);
+
+        assertEquals(2, calculos.get());
+    }
+
+    @Test
+    void unCambioDeEspacioInvalidaTodo() {
+        obtener(JUNIO, JUNIO.plusDays(29), null);
+        obtener(JULIO, JULIO.plusDays(30), 1L);
+
+        cache.alModificarEspacio(new EspacioModificadoEvent(3L));
+
+        assertEquals(0, cache.estadisticas().get("entradas"));
+    }
+
+    private DashBoardDTO obtener(LocalDate desde, LocalDate hasta, Long tipoEspacioId) {
+        return cache.obtener(desde, hasta, tipoEspacioId, null, () -> {
+            calculos.incrementAndGet();
+            return new DashBoardDTO();
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.gestion.reservas.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CacheLruTest {
+
+    private CacheLru<Long, Object> cache;
+    private AtomicInteger calculos;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheLru<>(2, 60_000);
+        calculos = new AtomicInteger();
+    }
+
+    @Test
+    void reutilizaElValorYCuentaAciertosYFallos() {
+        Object primero = obtener(1L);
+        assertSame(primero, obtener(1L));
+        assertEquals(1, calculos.get());
+
+        cache.invalidar(1L);
+        obtener(1L);
+
+        assertEquals(2, calculos.get());
+        assertEquals(1L, cache.estadisticas().get("aciertos"));
+        assertEquals(2L, cache.estadisticas().get("fallos"));
+        assertEquals(0.3333, (double) cache.estadisticas().get("tasaAciertos"), 1e-3);
+        assertEquals(1L, cache.estadisticas().get("invalidadas"));
+    }
+
+    @Test
+    void descartaLaMenosUsadaAlSuperarElMaximo() {
+        obtener(1L);
+        obtener(2L);
+        obtener(1L);
+        obtener(3L);
+
+        assertEquals(2, cache.estadisticas().get("entradas"));
+        obtener(1L);
+        assertEquals(3, calculos.get());
+        obtener(2L);
+        assertEquals(4, calculos.get());
+    }
+
+    @Test
+    void noDevuelveEntradasCaducadas() {
+        cache = new CacheLru<>(2, 0);
+        obtener(1L);
+        obtener(1L);
+        assertEquals(2, calculos.get());
+
+        cache.guardar(2L, "caducado", System.currentTimeMillis() - 1);
+        assertNull(cache.buscar(2L));
+    }
+
+    @Test
+    void invalidaSoloLasClavesQueCumplenLaCondicion() {
+        obtener(1L);
+        obtener(2L);
+
+        cache.invalidarSi(clave -> clave % 2 == 0);
+
+        obtener(1L);
+        obtener(2L);
+        assertEquals(3, calculos.get());
+        assertEquals(1L, cache.estadisticas().get("invalidadas"));
+    }
+
+    @Test
+    void noGuardaValoresCalculadosDuranteUnaInvalidacion() {
+        cache.obtener(1L, () -> {
+            cache.invalidarTodo();
+            return new Object();
+        });
+
+        assertEquals(0, cache.estadisticas().get("entradas"));
+    }
+
+    private Object obtener(Long clave) {
+        return cache.obtener(clave, () -> {
+            calculos.incrementAndGet();
+            return new Object();
+        });
+    }
+}
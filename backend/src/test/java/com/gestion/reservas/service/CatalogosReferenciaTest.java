@@ -0,0 +1,74 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.entity.EstadoComentario;
+import com.gestion.reservas.entity.EstadoReserva;
+import com.gestion.reservas.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class CatalogosReferenciaTest {
+
+    private EstadoReservaRepository estadoReservaRepository;
+    private EstadoComentarioRepository estadoComentarioRepository;
+    private CatalogosReferencia catalogos;
+
+    @BeforeEach
+    void setUp() {
+        estadoReservaRepository = mock(EstadoReservaRepository.class);
+        estadoComentarioRepository = mock(EstadoComentarioRepository.class);
+        catalogos = new CatalogosReferencia(estadoReservaRepository, mock(EstadoEspacioRepository.class),
+                estadoComentarioRepository, mock(TipoEspacioRepository.class), mock(RolRepository.class),
+                mock(EquipamientoRepository.class));
+
+        when(estadoReservaRepository.findAll()).thenReturn(List.of(
+                estadoReserva(3L, "Completada"), estadoReserva(1L, "Pendiente"), estadoReserva(2L, "No Utilizada")));
+        when(estadoComentarioRepository.findAll()).thenReturn(List.of(new EstadoComentario(1L, "Aprobado")));
+    }
+
+    @Test
+    void indexaPorIdYPorDescripcionSinMayusculas() {
+        assertEquals(List.of(1L, 2L, 3L), catalogos.estadosReserva().todos().stream().map(EstadoReserva::getIdEstado).toList());
+        assertEquals(2L, catalogos.estadosReserva().porDescripcion("no utilizada").orElseThrow().getIdEstado());
+        assertEquals("Completada", catalogos.estadosReserva().porId(3L).orElseThrow().getDescripcion());
+        assertEquals(Optional.empty(), catalogos.estadosReserva().porDescripcion("Cancelada"));
+        assertEquals(Optional.empty(), catalogos.estadosReserva().porId(null));
+        assertEquals(1L, catalogos.estadosComentario().porDescripcion("APROBADO").orElseThrow().getIdEstado());
+        assertThrows(UnsupportedOperationException.class, () -> catalogos.estadosReserva().todos().clear());
+    }
+
+    @Test
+    void modificarUnaFilaDevueltaNoCambiaElCatalogo() {
+        catalogos.estadosReserva().porId(1L).orElseThrow().setDescripcion("Otra");
+        catalogos.estadosReserva().todos().get(0).setDescripcion("Otra");
+
+        assertEquals("Pendiente", catalogos.estadosReserva().porId(1L).orElseThrow().getDescripcion());
+        assertTrue(catalogos.estadosReserva().porDescripcion("Pendiente").isPresent());
+    }
+
+    @Test
+    void cargaUnaVezYSoloRecargaAlRefrescar() {
+        for (int i = 0; i < 5; i++) {
+            catalogos.estadosReserva().porDescripcion("Pendiente");
+        }
+        verify(estadoReservaRepository, times(1)).findAll();
+
+        when(estadoReservaRepository.findAll()).thenReturn(List.of(estadoReserva(4L, "Cancelada")));
+        catalogos.refrescar();
+
+        assertTrue(catalogos.estadosReserva().porDescripcion("Pendiente").isEmpty());
+        assertEquals(4L, catalogos.estadosReserva().porDescripcion("cancelada").orElseThrow().getIdEstado());
+        assertEquals(2L, catalogos.estado().get("recargas"));
+    }
+
+    private static EstadoReserva estadoReserva(Long id, String descripcion) {
+        return EstadoReserva.builder().idEstado(id).descripcion(descripcion).build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.RecomendacionRequestDTO;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DisponibilidadRecomendacionesTest {
+
+    // Martes 10 de junio de 2025 a las 12:00
+    private static final LocalDateTime AHORA = LocalDateTime.of(2025, 6, 10, 12, 0);
+    private static final Duration HORA = Duration.ofHours(1);
+
+    private static final List<EspacioPuntuado> CANDIDATOS = List.of(
+            new EspacioPuntuado(10L, 0.5), new EspacioPuntuado(20L, 0.2), new EspacioPuntuado(30L, 0.1),
+            new EspacioPuntuado(40L, 0.1), new EspacioPuntuado(50L, 0.05));
+
+    private EspacioRepository espacioRepository;
+    private ReservaRepository reservaRepository;
+    private IndiceDisponibilidad indice;
+    private DisponibilidadRecomendaciones disponibilidad;
+
+    @BeforeEach
+    void setUp() {
+        espacioRepository = mock(EspacioRepository.class);
+        reservaRepository = mock(ReservaRepository.class);
+        indice = mock(IndiceDisponibilidad.class);
+        disponibilidad = new DisponibilidadRecomendaciones(espacioRepository, reservaRepository, indice, 60);
+
+        // 20 en mantenimiento, 30 con aforo para 4 y 40 reservado en la franja
+        when(espacioRepository.findCapacidadYEstadoByIdIn(anyCollection())).thenReturn(List.of(
+                new Object[]{10L, 10, "Disponible"},
+                new Object[]{20L, 10, "Mantenimiento"},
+                new Object[]{30L, 4, "Disponible"},
+                new Object[]{40L, 10, "Disponible"},
+                new Object[]{50L, null, "Disponible"}));
+    }
+
+    @Test
+    void descartaNoDisponiblesSinAforoYOcupados() {
+        when(indice.isCargado()).thenReturn(true);
+        when(indice.haySolapamiento(eq(40L), any(), any())).thenReturn(true);
+
+        RecomendacionRequestDTO grupo = consulta(LocalDateTime.of(2025, 6, 12, 9, 0), 6);
+        RecomendacionRequestDTO sinHora = new RecomendacionRequestDTO();
+        sinHora.setUsuarioId(1L);
+        sinHora.setDiaSemana(4);
+
+        List<List<EspacioPuntuado>> resultado = disponibilidad.filtrar(
+                List.of(grupo, sinHora), List.of(CANDIDATOS, CANDIDATOS), 3);
+
+        assertEquals(List.of(10L, 50L), ids(resultado.get(0)));
+        // Sin franja solo cuentan estado y aforo; se corta en k
+        assertEquals(List.of(10L, 30L, 40L), ids(resultado.get(1)));
+        verify(espacioRepository, times(1)).findCapacidadYEstadoByIdIn(anyCollection());
+        verifyNoInteractions(reservaRepository);
+    }
+
+    @Test
+    void sinIndiceUnaConsultaPorFranja() {
+        when(indice.isCargado()).thenReturn(false);
+        when(reservaRepository.findEspaciosOcupados(anyCollection(), any(), any())).thenReturn(List.of(10L));
+
+        LocalDateTime jueves = LocalDateTime.of(2025, 6, 12, 9, 0);
+        List<List<EspacioPuntuado>> resultado = disponibilidad.filtrar(
+                List.of(consulta(jueves, null), consulta(jueves, null)), List.of(CANDIDATOS, CANDIDATOS), 2);
+
+        assertEquals(List.of(30L, 40L), ids(resultado.get(0)));
+        assertEquals(List.of(30L, 40L), ids(resultado.get(1)));
+        verify(reservaRepository, times(1)).findEspaciosOcupados(anyCollection(), eq(jueves), eq(jueves.plusHours(1)));
+    }
+
+    @Test
+    void franjaEsLaProximaConEseDiaYHora() {
+        assertEquals(LocalDateTime.of(2025, 6, 10, 14, 0), franja(2, 14).inicio());
+        assertEquals(LocalDateTime.of(2025, 6, 17, 10, 0), franja(2, 10).inicio());
+        assertEquals(LocalDateTime.of(2025, 6, 15, 9, 0), franja(0, 9).inicio());
+        assertEquals(LocalDateTime.of(2025, 6, 15, 10, 0), franja(0, 9).fin());
+        assertNull(franja(3, -1));
+    }
+
+    private static DisponibilidadRecomendaciones.Franja franja(int dia, int hora) {
+        RecomendacionRequestDTO consulta = new RecomendacionRequestDTO();
+        consulta.setDiaSemana(dia);
+        consulta.setHora(hora);
+        return DisponibilidadRecomendaciones.franja(consulta, AHORA, HORA);
+    }
+
+    private static RecomendacionRequestDTO consulta(LocalDateTime inicio, Integer personas) {
+        RecomendacionRequestDTO consulta = new RecomendacionRequestDTO();
+        consulta.setUsuarioId(1L);
+        consulta.setDiaSemana(inicio.getDayOfWeek().getValue() % 7);
+        consulta.setHora(inicio.getHour());
+        consulta.setFechaInicio(inicio);
+        consulta.setPersonas(personas);
+        return consulta;
+    }
+
+    private static List<Long> ids(List<EspacioPuntuado> espacios) {
+        return espacios.stream().map(EspacioPuntuado::idEspacio).toList();
+    }
+}
@@ -0,0 +1,203 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.BusquedaDisponibilidadDTO;
+import com.gestion.reservas.dto.BusquedaHuecosDTO;
+import com.gestion.reservas.dto.EspacioResponseDTO;
+import com.gestion.reservas.dto.HuecoLibreDTO;
+import com.gestion.reservas.dto.IntervaloReservaDTO;
+import com.gestion.reservas.entity.Equipamiento;
+import com.gestion.reservas.entity.Espacio;
+import com.gestion.reservas.entity.EstadoEspacio;
+import com.gestion.reservas.entity.TipoEspacio;
+import com.gestion.reservas.mapper.EspacioMapper;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DisponibilidadServiceImplTest {
+
+    // Lunes a las 10:00
+    private static final LocalDateTime LUNES = LocalDateTime.of(2025, 6, 2, 10, 0);
+
+    private EspacioRepository espacioRepository;
+    private ReservaRepository reservaRepository;
+    private IndiceDisponibilidad indice;
+    private DisponibilidadServiceImpl servicio;
+
+    @BeforeEach
+    void setUp() {
+        espacioRepository = mock(EspacioRepository.class);
+        reservaRepository = mock(ReservaRepository.class);
+        indice = mock(IndiceDisponibilidad.class);
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("reservas.horario.espacios.2", "09:00-13:00");
+        HorarioApertura horario = new HorarioApertura(environment);
+        ReflectionTestUtils.setField(horario, "aperturaTexto", "08:00");
+        ReflectionTestUtils.setField(horario, "cierreTexto", "20:00");
+        ReflectionTestUtils.setField(horario, "diasCerradosTexto", "SATURDAY,SUNDAY");
+        horario.init();
+
+        servicio = new DisponibilidadServiceImpl(espacioRepository, reservaRepository, indice, new EspacioMapper(), horario);
+    }
+
+    @Test
+    void ordenaPorMejorAjusteYDescartaOcupadosYSinEquipamiento() {
+        // El 1 no tiene el proyector; el 4 está ocupado; 2 y 5 empatan en capacidad y el 5 tiene equipamiento de más
+        when(espacioRepository.buscarCandidatosDisponibles(6, null)).thenReturn(List.of(
+                espacio(1L, "Aula 1", 6, 2L),
+                espacio(2L, "Sala B", 8, 1L),
+                espacio(3L, "Auditorio", 100, 1L),
+                espacio(4L, "Aula 4", 6, 1L),
+                espacio(5L, "Sala A", 8, 1L, 2L)));
+        when(indice.isCargado()).thenReturn(true);
+        when(indice.haySolapamiento(eq(4L), any(), any())).thenReturn(true);
+
+        List<EspacioResponseDTO> libres = servicio.buscarEspaciosLibres(filtro(6, List.of(1L)));
+
+        assertEquals(List.of(2L, 5L, 3L), ids(libres));
+        verifyNoInteractions(reservaRepository);
+    }
+
+    @Test
+    void sinIndiceConsultaLosOcupadosDeUnaVez() {
+        when(espacioRepository.buscarCandidatosDisponibles(null, null)).thenReturn(List.of(
+                espacio(1L, "Sala B", 10), espacio(2L, "sala a", 10), espacio(3L, "Aula", null)));
+        when(indice.isCargado()).thenReturn(false);
+        when(reservaRepository.findEspaciosOcupados(anyCollection(), eq(LUNES), eq(LUNES.plusHours(1))))
+                .thenReturn(List.of(1L));
+
+        // Sin capacidad va al final; a igualdad, por nombre sin distinguir mayúsculas
+        assertEquals(List.of(2L, 3L), ids(servicio.buscarEspaciosLibres(filtro(null, null))));
+        verify(reservaRepository, times(1)).findEspaciosOcupados(anyCollection(), any(), any());
+    }
+
+    @Test
+    void rechazaRangosVacios() {
+        BusquedaDisponibilidadDTO filtro = filtro(null, null);
+        filtro.setFin(filtro.getInicio());
+
+        assertThrows(IllegalArgumentException.class, () -> servicio.buscarEspaciosLibres(filtro));
+    }
+
+    @Test
+    void huecosAjustadosAlHorarioConUnMinutoDeMargen() {
+        LocalDateTime lunes = LUNES.withHour(7);
+        huecos(1L, List.of(
+                reserva(1L, lunes.withHour(10), lunes.withHour(11)),
+                // Seguida de la anterior: entre las dos no queda hueco
+                reserva(1L, lunes.withHour(11), lunes.withHour(12)),
+                reserva(1L, lunes.withHour(12).withMinute(30), lunes.withHour(13))));
+
+        // De 12:01 a 12:29 hay 28 minutos: no caben 30
+        assertEquals(List.of(
+                        franja(lunes.withHour(8), lunes.withHour(9).withMinute(59)),
+                        franja(lunes.withHour(13).withMinute(1), lunes.withHour(20))),
+                franjas(servicio.buscarHuecosLibres(busqueda(1L, lunes, 30, 1))));
+
+        // Con 28 minutos justos sí cabe
+        assertEquals(franja(lunes.withHour(12).withMinute(1), lunes.withHour(12).withMinute(29)),
+                franjas(servicio.buscarHuecosLibres(busqueda(1L, lunes, 28, 1))).get(1));
+    }
+
+    @Test
+    void unaReservaQuePasaLaNocheOcupaElPrincipioDelDiaSiguiente() {
+        LocalDateTime lunes = LUNES.withHour(8);
+        huecos(1L, List.of(reserva(1L, lunes.withHour(19), lunes.plusDays(1).withHour(9))));
+
+        assertEquals(List.of(
+                        franja(lunes, lunes.withHour(18).withMinute(59)),
+                        franja(lunes.plusDays(1).withHour(9).withMinute(1), lunes.plusDays(1).withHour(20))),
+                franjas(servicio.buscarHuecosLibres(busqueda(1L, lunes, 60, 2))));
+    }
+
+    @Test
+    void saltaLosDiasCerradosYUsaElHorarioDelEspacio() {
+        // El espacio 2 abre de 9 a 13; la búsqueda empieza el viernes a las 12 y acaba el lunes a las 12
+        LocalDateTime viernes = LUNES.minusDays(3).withHour(12);
+        huecos(2L, List.of(reserva(2L, LUNES.withHour(8), LUNES.withHour(9).withMinute(30))));
+
+        assertEquals(List.of(
+                        franja(viernes, viernes.withHour(13)),
+                        franja(LUNES.withHour(9).withMinute(31), LUNES.withHour(12))),
+                franjas(servicio.buscarHuecosLibres(busqueda(2L, viernes, 60, 3))));
+    }
+
+    @Test
+    void cortaEnElMaximoDeResultadosYRedondeaElInicio() {
+        LocalDateTime lunes = LUNES.withHour(8);
+        huecos(1L, List.of(reserva(1L, lunes.withHour(12), lunes.withHour(13))));
+        BusquedaHuecosDTO busqueda = busqueda(1L, lunes.plusSeconds(10), 60, 5);
+        busqueda.setMaxResultados(1);
+
+        assertEquals(List.of(franja(lunes.plusMinutes(1), lunes.withHour(11).withMinute(59))),
+                franjas(servicio.buscarHuecosLibres(busqueda)));
+    }
+
+    private void huecos(Long idEspacio, List<IntervaloReservaDTO> reservas) {
+        when(espacioRepository.findAllById(List.of(idEspacio))).thenReturn(List.of(espacio(idEspacio, "Sala " + idEspacio, 10)));
+        when(indice.isCargado()).thenReturn(true);
+        when(indice.intervalos(eq(idEspacio), any(), any())).thenReturn(reservas);
+    }
+
+    private static BusquedaHuecosDTO busqueda(Long idEspacio, LocalDateTime desde, int minutos, int dias) {
+        return BusquedaHuecosDTO.builder()
+                .espacios(List.of(idEspacio))
+                .duracionMinutos(minutos)
+                .desde(desde)
+                .horizonteDias(dias)
+                .build();
+    }
+
+    private static IntervaloReservaDTO reserva(Long idEspacio, LocalDateTime inicio, LocalDateTime fin) {
+        return new IntervaloReservaDTO(null, idEspacio, inicio, fin);
+    }
+
+    private static List<LocalDateTime> franja(LocalDateTime inicio, LocalDateTime fin) {
+        return List.of(inicio, fin);
+    }
+
+    private static List<List<LocalDateTime>> franjas(List<HuecoLibreDTO> huecos) {
+        return huecos.stream().map(h -> franja(h.getInicio(), h.getFin())).toList();
+    }
+
+    private static BusquedaDisponibilidadDTO filtro(Integer capacidad, List<Long> equipamientos) {
+        BusquedaDisponibilidadDTO filtro = new BusquedaDisponibilidadDTO();
+        filtro.setInicio(LUNES);
+        filtro.setFin(LUNES.plusHours(1));
+        filtro.setCapacidad(capacidad);
+        filtro.setEquipamientos(equipamientos);
+        return filtro;
+    }
+
+    private static Espacio espacio(Long id, String nombre, Integer capacidad, Long... equipamientos) {
+        List<Equipamiento> lista = new ArrayList<>();
+        for (Long idEquipamiento : equipamientos) {
+            lista.add(Equipamiento.builder().idEquipamiento(idEquipamiento).descripcion("E" + idEquipamiento).build());
+        }
+        return Espacio.builder()
+                .idEspacio(id)
+                .nombre(nombre)
+                .capacidad(capacidad)
+                .tipoEspacio(TipoEspacio.builder().idTipoEspacio(1L).descripcion("Aula").build())
+                .estado(EstadoEspacio.builder().idEstado(1L).descripcion("Disponible").build())
+                .equipamientos(lista)
+                .build();
+    }
+
+    private static List<Long> ids(List<EspacioResponseDTO> espacios) {
+        return espacios.stream().map(EspacioResponseDTO::getIdEspacio).toList();
+    }
+}
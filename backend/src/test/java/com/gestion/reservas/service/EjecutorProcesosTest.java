@@ -0,0 +1,72 @@
+package com.gestion.reservas.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class EjecutorProcesosTest {
+
+    private EjecutorProcesos ejecutor;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(Files.isExecutable(Paths.get("/bin/sh")), "Sin /bin/sh");
+        ejecutor = new EjecutorProcesos(new MockEnvironment(), 1000, 2000);
+    }
+
+    @Test
+    void leeStderrMientrasElProcesoSigueEscribiendo() throws Exception {
+        // 200 KB por stderr antes de escribir en stdout: leyendo los flujos de uno en uno se bloquearía
+        List<String> lineas = new CopyOnWriteArrayList<>();
+        EjecutorProcesos.Resultado resultado = ejecutor.ejecutar(
+                List.of("/bin/sh", "-c", "i=0; while [ $i -lt 2000 ]; do echo aviso-$i-....................................................................................... >&2; i=$((i+1)); done; echo fin; exit 3"),
+                Duration.ofSeconds(30),
+                lineas::add);
+
+        assertFalse(resultado.agotado());
+        assertEquals(3, resultado.codigo());
+        assertEquals("fin\n", resultado.salida());
+        assertTrue(resultado.truncado());
+        assertTrue(resultado.errores().length() <= 1000);
+        assertTrue(resultado.errores().endsWith("aviso-1999-.......................................................................................\n"));
+        assertEquals(2001, lineas.size());
+        assertEquals(1L, ejecutor.estado().get("ejecucionesFallidas"));
+    }
+
+    @Test
+    void recortaLaSalidaSinSaltosDeLinea() throws Exception {
+        // 100 KB en una sola línea y una barra de progreso con \r
+        List<String> lineas = new CopyOnWriteArrayList<>();
+        EjecutorProcesos.Resultado resultado = ejecutor.ejecutar(
+                List.of("/bin/sh", "-c", "head -c 100000 /dev/zero | tr '\\0' x; printf '\\n10%%\\r50%%\\r\\nfin'"),
+                Duration.ofSeconds(30),
+                lineas::add);
+
+        assertEquals(0, resultado.codigo());
+        assertTrue(resultado.truncado());
+        assertEquals(1000, resultado.salida().length());
+        assertTrue(resultado.salida().endsWith("xxx\n10%\r50%\r\nfin"));
+        assertEquals(List.of("x".repeat(1000), "10%", "50%", "fin"), lineas);
+    }
+
+    @Test
+    void mataElProcesoAlAgotarElLimite() throws Exception {
+        long inicio = System.currentTimeMillis();
+        EjecutorProcesos.Resultado resultado = ejecutor.ejecutar(
+                List.of("/bin/sh", "-c", "echo empezando; sleep 30"), Duration.ofMillis(300), linea -> { });
+
+        assertTrue(resultado.agotado());
+        assertEquals("empezando\n", resultado.salida());
+        assertTrue(System.currentTimeMillis() - inicio < 10_000);
+        assertEquals(1L, ejecutor.estado().get("ejecucionesAgotadas"));
+    }
+}
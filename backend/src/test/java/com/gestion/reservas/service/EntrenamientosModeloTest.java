@@ -0,0 +1,77 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.EntrenamientoDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntrenamientosModeloTest {
+
+    private final EntrenamientosModelo entrenamientos = new EntrenamientosModelo();
+
+    @AfterEach
+    void tearDown() {
+        entrenamientos.detener();
+    }
+
+    @Test
+    void unSoloEntrenamientoALaVez() throws Exception {
+        CountDownLatch empezado = new CountDownLatch(1);
+        CountDownLatch seguir = new CountDownLatch(1);
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        EntrenamientosModelo.Tarea tarea = trabajo -> {
+            ejecuciones.incrementAndGet();
+            trabajo.fase("entrenando");
+            trabajo.log("Entrenando con 10 reservas");
+            empezado.countDown();
+            seguir.await();
+            return "Modelo entrenado";
+        };
+
+        TrabajoEntrenamiento primero = entrenamientos.lanzar("manual", tarea);
+        assertTrue(empezado.await(5, TimeUnit.SECONDS));
+        // Mientras el primero sigue, el programado se une a él en lugar de lanzar otro
+        assertSame(primero, entrenamientos.lanzar("programado", tarea));
+        assertEquals("entrenando", primero.toDTO().getFase());
+
+        seguir.countDown();
+        EntrenamientoDTO terminado = esperar(primero);
+        assertEquals("COMPLETADO", terminado.getEstado());
+        assertEquals("Modelo entrenado", terminado.getResultado());
+        assertTrue(terminado.getLog().contains("Entrenando con 10 reservas"));
+        assertEquals(1, ejecuciones.get());
+
+        // Terminado el anterior, se puede lanzar uno nuevo
+        TrabajoEntrenamiento segundo = entrenamientos.lanzar("manual", trabajo -> "otra vez");
+        assertNotEquals(primero.getId(), segundo.getId());
+        esperar(segundo);
+        assertEquals(segundo, entrenamientos.recientes().get(0));
+    }
+
+    @Test
+    void elErrorQuedaEnElTrabajo() throws Exception {
+        TrabajoEntrenamiento trabajo = entrenamientos.lanzar("manual", t -> {
+            throw new RuntimeException("Error al ejecutar modelo_recomendador.py");
+        });
+
+        EntrenamientoDTO fallido = esperar(trabajo);
+        assertEquals("FALLIDO", fallido.getEstado());
+        assertEquals("Error al ejecutar modelo_recomendador.py", fallido.getResultado());
+        assertSame(trabajo, entrenamientos.buscar(trabajo.getId()).orElseThrow());
+    }
+
+    private static EntrenamientoDTO esperar(TrabajoEntrenamiento trabajo) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (trabajo.enCurso() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertFalse(trabajo.enCurso());
+        return trabajo.toDTO();
+    }
+}
@@ -0,0 +1,98 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.entity.ConteoRecomendacion;
+import com.gestion.reservas.entity.ConteoRecomendacionId;
+import com.gestion.reservas.repository.ConteoRecomendacionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EstadisticasRecomendadorTest {
+
+    // Usuario 1: espacio 10 dos veces el martes a las 10 y espacio 20 dos veces el miércoles a las 9.
+    // Usuario 2: espacio 30 cuatro veces el martes a las 10
+    private static final Map<ConteoRecomendacionId, Long> CONTEOS = Map.of(
+            new ConteoRecomendacionId(1L, 2, 10, 10L), 2L,
+            new ConteoRecomendacionId(1L, 3, 9, 20L), 2L,
+            new ConteoRecomendacionId(2L, 2, 10, 30L), 4L
+    );
+
+    @Test
+    void suavizaDeLaHoraAlDiaAlUsuarioYAlTotal() {
+        EstadisticasRecomendador estadisticas = cargar(CONTEOS);
+
+        // Global (con un conteo de más): 3/11, 3/11, 5/11; usuario: 14/33, 14/33, 5/33;
+        // martes: 47/66, 7/33, 5/66; martes a las 10: 113/132, 7/66, 5/132
+        assertEquals(List.of(new EspacioPuntuado(10L, 0.856), new EspacioPuntuado(20L, 0.106), new EspacioPuntuado(30L, 0.038)),
+                estadisticas.recomendar(1L, 2, 10, 3));
+        assertEquals(List.of(new EspacioPuntuado(10L, 0.712), new EspacioPuntuado(20L, 0.212), new EspacioPuntuado(30L, 0.076)),
+                estadisticas.recomendar(1L, 2, -1, 3));
+
+        // Sin conteos propios solo queda la distribución global; a igualdad, el id menor
+        assertEquals(List.of(new EspacioPuntuado(30L, 0.455), new EspacioPuntuado(10L, 0.273)),
+                estadisticas.recomendar(99L, 2, 10, 2));
+    }
+
+    @Test
+    void actualizarPorIncrementosDaLoMismoQueCargarTodo() {
+        ConteoRecomendacionRepository repository = mock(ConteoRecomendacionRepository.class);
+        when(repository.count()).thenReturn(1L);
+        when(repository.findAll()).thenReturn(List.of(new ConteoRecomendacion(new ConteoRecomendacionId(1L, 2, 10, 10L), 1L)));
+        when(repository.acumularPendientes(anyInt())).thenReturn(
+                Map.of(new ConteoRecomendacionId(1L, 2, 10, 10L), 1L, new ConteoRecomendacionId(1L, 3, 9, 20L), 1L),
+                Map.of(new ConteoRecomendacionId(1L, 3, 9, 20L), 1L, new ConteoRecomendacionId(2L, 2, 10, 30L), 4L),
+                Map.of()
+        );
+        EstadisticasRecomendador incremental = new EstadisticasRecomendador(repository, 2, 2.0);
+
+        // Dos lotes llenos y uno vacío: 2 + 5 reservas nuevas
+        assertEquals(7, incremental.actualizar());
+        assertEquals(0, incremental.actualizar());
+        verify(repository, never()).reconstruirTodo();
+
+        EstadisticasRecomendador completo = cargar(CONTEOS);
+        for (long usuario = 1; usuario <= 3; usuario++) {
+            for (int dia = 0; dia < 7; dia++) {
+                for (int hora = -1; hora < 24; hora++) {
+                    assertEquals(completo.recomendar(usuario, dia, hora, 3), incremental.recomendar(usuario, dia, hora, 3));
+                }
+            }
+        }
+        assertEquals(completo.estado(), incremental.estado());
+    }
+
+    @Test
+    void conLaTablaVaciaSoloSeReconstruyeSiHayReservasYaMarcadas() {
+        ConteoRecomendacionRepository repository = mock(ConteoRecomendacionRepository.class);
+        when(repository.count()).thenReturn(0L);
+        when(repository.findAll()).thenReturn(List.of());
+
+        // Sin nada marcado, los incrementos bastan y no se toca el histórico
+        new EstadisticasRecomendador(repository, 1000, 2.0).cargar();
+        verify(repository, never()).reconstruirTodo();
+
+        when(repository.hayCompletadasSinContar()).thenReturn(true);
+        new EstadisticasRecomendador(repository, 1000, 2.0).cargar();
+        verify(repository).reconstruirTodo();
+    }
+
+    private static EstadisticasRecomendador cargar(Map<ConteoRecomendacionId, Long> conteos) {
+        ConteoRecomendacionRepository repository = mock(ConteoRecomendacionRepository.class);
+        when(repository.count()).thenReturn((long) conteos.size());
+        when(repository.findAll()).thenReturn(new HashMap<>(conteos).entrySet().stream()
+                .map(c -> new ConteoRecomendacion(c.getKey(), c.getValue()))
+                .toList());
+        EstadisticasRecomendador estadisticas = new EstadisticasRecomendador(repository, 1000, 2.0);
+        estadisticas.cargar();
+        return estadisticas;
+    }
+}
@@ -0,0 +1,121 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.IntervaloReservaDTO;
+import com.gestion.reservas.entity.Espacio;
+import com.gestion.reservas.entity.EstadoReserva;
+import com.gestion.reservas.entity.Reserva;
+import com.gestion.reservas.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceDisponibilidadTest {
+
+    private static final LocalDateTime NUEVE = LocalDateTime.of(2025, 6, 10, 9, 0);
+
+    private ReservaRepository reservaRepository;
+    private IndiceDisponibilidad indice;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        indice = new IndiceDisponibilidad(reservaRepository);
+        when(reservaRepository.obtenerIntervalosActivos()).thenReturn(List.of());
+        indice.cargar();
+    }
+
+    @Test
+    void losExtremosQueSeTocanCuentanComoSolapamiento() {
+        indice.registrar(reserva(1L, 10L, NUEVE, NUEVE.plusHours(1), "Confirmada"));
+
+        // Misma semántica que la consulta: fechaInicio <= fin y fechaFin >= inicio
+        assertTrue(indice.haySolapamiento(10L, NUEVE.plusHours(1), NUEVE.plusHours(2)));
+        assertTrue(indice.haySolapamiento(10L, NUEVE.minusHours(1), NUEVE));
+        assertTrue(indice.haySolapamiento(10L, NUEVE.plusMinutes(15), NUEVE.plusMinutes(30)));
+        assertFalse(indice.haySolapamiento(10L, NUEVE.plusHours(1).plusMinutes(1), NUEVE.plusHours(2)));
+        assertFalse(indice.haySolapamiento(10L, NUEVE.minusHours(1), NUEVE.minusMinutes(1)));
+        assertFalse(indice.haySolapamiento(20L, NUEVE, NUEVE.plusHours(1)));
+    }
+
+    @Test
+    void unaReservaLargaSeEncuentraAunqueEmpieceMuchoAntes() {
+        // La de tres días empieza antes que la corta; la búsqueda debe retroceder la duración máxima
+        indice.registrar(reserva(1L, 10L, NUEVE.minusDays(3), NUEVE.plusHours(8), "Confirmada"));
+        indice.registrar(reserva(2L, 10L, NUEVE.minusHours(2), NUEVE.minusHours(1), "Pendiente"));
+
+        assertTrue(indice.haySolapamiento(10L, NUEVE.plusHours(4), NUEVE.plusHours(5)));
+        assertEquals(List.of(1L), ids(indice.intervalos(10L, NUEVE.plusHours(4), NUEVE.plusHours(5))));
+        assertEquals(List.of(1L, 2L), ids(indice.intervalos(10L, NUEVE.minusHours(1), NUEVE)));
+        assertFalse(indice.haySolapamiento(10L, NUEVE.plusHours(8).plusMinutes(1), NUEVE.plusHours(9)));
+    }
+
+    @Test
+    void registrarMueveYLaCancelacionElimina() {
+        indice.registrar(reserva(1L, 10L, NUEVE, NUEVE.plusHours(1), "Pendiente"));
+
+        // Cambio de espacio y de hora de la misma reserva
+        indice.registrar(reserva(1L, 20L, NUEVE.plusHours(3), NUEVE.plusHours(4), "Confirmada"));
+        assertFalse(indice.haySolapamiento(10L, NUEVE, NUEVE.plusHours(1)));
+        assertTrue(indice.haySolapamiento(20L, NUEVE.plusHours(3), NUEVE.plusHours(4)));
+
+        indice.registrar(reserva(1L, 20L, NUEVE.plusHours(3), NUEVE.plusHours(4), "Cancelada"));
+        assertFalse(indice.haySolapamiento(20L, NUEVE.plusHours(3), NUEVE.plusHours(4)));
+
+        indice.registrar(reserva(2L, 20L, NUEVE, NUEVE.plusHours(1), "Confirmada"));
+        indice.eliminar(2L);
+        assertFalse(indice.haySolapamiento(20L, NUEVE, NUEVE.plusHours(1)));
+    }
+
+    @Test
+    void laReconciliacionCorrigeDiferenciasSalvoSiHayEscriturasDuranteLaLectura() {
+        indice.registrar(reserva(1L, 10L, NUEVE, NUEVE.plusHours(1), "Confirmada"));
+        IntervaloReservaDTO enBaseDeDatos = new IntervaloReservaDTO(2L, 10L, NUEVE.plusHours(2), NUEVE.plusHours(3));
+
+        // Mientras se lee la base de datos llega una escritura: la foto puede estar desfasada y no se aplica
+        when(reservaRepository.obtenerIntervalosActivos()).thenAnswer(inv -> {
+            indice.registrar(reserva(3L, 10L, NUEVE.plusHours(5), NUEVE.plusHours(6), "Pendiente"));
+            return List.of(enBaseDeDatos);
+        });
+        indice.reconciliar();
+        assertTrue(indice.haySolapamiento(10L, NUEVE, NUEVE.plusHours(1)));
+        assertFalse(indice.haySolapamiento(10L, NUEVE.plusHours(2), NUEVE.plusHours(3)));
+
+        // Sin escrituras concurrentes la siguiente pasada deja el índice igual que la base de datos
+        when(reservaRepository.obtenerIntervalosActivos()).thenReturn(List.of(enBaseDeDatos));
+        indice.reconciliar();
+        assertFalse(indice.haySolapamiento(10L, NUEVE, NUEVE.plusHours(1)));
+        assertFalse(indice.haySolapamiento(10L, NUEVE.plusHours(5), NUEVE.plusHours(6)));
+        assertTrue(indice.haySolapamiento(10L, NUEVE.plusHours(2), NUEVE.plusHours(3)));
+    }
+
+    @Test
+    void sinCargarNoResponde() {
+        IndiceDisponibilidad sinCargar = new IndiceDisponibilidad(reservaRepository);
+        when(reservaRepository.obtenerIntervalosActivos()).thenThrow(new RuntimeException("sin conexión"));
+
+        sinCargar.cargar();
+        assertFalse(sinCargar.isCargado());
+    }
+
+    private static Reserva reserva(Long id, Long idEspacio, LocalDateTime inicio, LocalDateTime fin, String estado) {
+        return Reserva.builder()
+                .idReserva(id)
+                .espacio(Espacio.builder().idEspacio(idEspacio).build())
+                .estado(EstadoReserva.builder().descripcion(estado).build())
+                .fechaInicio(inicio)
+                .fechaFin(fin)
+                .build();
+    }
+
+    private static List<Long> ids(List<IntervaloReservaDTO> intervalos) {
+        return intervalos.stream().map(IntervaloReservaDTO::getIdReserva).toList();
+    }
+}
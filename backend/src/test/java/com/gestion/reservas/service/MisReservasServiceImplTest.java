@@ -0,0 +1,176 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.DashBoardDTO;
+import com.gestion.reservas.dto.EspacioResponseDTO;
+import com.gestion.reservas.dto.EstadoReservaDTO;
+import com.gestion.reservas.dto.MisReservasDTO;
+import com.gestion.reservas.dto.UsuarioResponseDTO;
+import com.gestion.reservas.entity.EstadoReserva;
+import com.gestion.reservas.entity.Espacio;
+import com.gestion.reservas.entity.Reserva;
+import com.gestion.reservas.entity.Usuario;
+import com.gestion.reservas.event.ReservaModificadaEvent;
+import com.gestion.reservas.exception.ReservaSolapadaException;
+import com.gestion.reservas.mapper.MisReservasMapper;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.ReservaRepository;
+import com.gestion.reservas.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MisReservasServiceImplTest {
+
+    private static final LocalDateTime NUEVE = LocalDateTime.of(2025, 6, 10, 9, 0);
+
+    private ReservaRepository reservaRepository;
+    private MisReservasMapper mapper;
+    private GoogleCalendarService calendario;
+    private NotificacionService notificaciones;
+    private BloqueoEspacios bloqueo;
+    private List<Object> publicados;
+    private MisReservasServiceImpl servicio;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        EspacioRepository espacioRepository = mock(EspacioRepository.class);
+        CatalogosReferencia catalogos = mock(CatalogosReferencia.class);
+        mapper = mock(MisReservasMapper.class);
+        calendario = mock(GoogleCalendarService.class);
+        notificaciones = mock(NotificacionService.class);
+        IndiceDisponibilidad indice = mock(IndiceDisponibilidad.class);
+        bloqueo = new BloqueoEspacios(reservaRepository, indice);
+
+        EstadoReserva pendiente = EstadoReserva.builder().idEstado(1L).descripcion("Pendiente").build();
+        when(usuarioRepository.findById(5L)).thenReturn(Optional.of(new Usuario()));
+        when(espacioRepository.findById(1L)).thenReturn(Optional.of(Espacio.builder().idEspacio(1L).nombre("Sala 1").build()));
+        when(catalogos.estadosReserva()).thenReturn(new CatalogosReferencia.Tabla<>(
+                List.of(pendiente), EstadoReserva::getIdEstado, EstadoReserva::getDescripcion, e -> e));
+        when(mapper.toEntity(any(), any(), any(), any())).thenAnswer(inv -> {
+            MisReservasDTO dto = inv.getArgument(0);
+            return Reserva.builder()
+                    .usuario(inv.getArgument(1))
+                    .espacio(inv.getArgument(2))
+                    .estado(inv.getArgument(3))
+                    .fechaInicio(dto.getFechaInicio())
+                    .fechaFin(dto.getFechaFin())
+                    .sincronizado(dto.isSincronizado())
+                    .build();
+        });
+        when(mapper.toDTO(any())).thenReturn(new MisReservasDTO());
+        when(reservaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        publicados = new ArrayList<>();
+        ApplicationEventPublisher eventos = publicados::add;
+
+        servicio = new MisReservasServiceImpl(reservaRepository, usuarioRepository, espacioRepository, catalogos,
+                notificaciones, mapper, calendario, indice, bloqueo, eventos);
+    }
+
+    @Test
+    void sincronizaConGoogleCalendarFueraDelBloqueo() {
+        when(calendario.insertarEvento(any())).thenAnswer(inv -> {
+            // Otra reserva del mismo espacio puede guardarse mientras dura la llamada externa
+            CompletableFuture.supplyAsync(() -> bloqueo.guardarSinSolapar(
+                            BloqueoEspaciosTest.reserva(1L, NUEVE.plusHours(3), NUEVE.plusHours(4), "Pendiente")))
+                    .get(5, TimeUnit.SECONDS);
+            return "evento-1";
+        });
+
+        servicio.save(dto(true));
+
+        verify(reservaRepository, times(3)).save(any());
+        verify(reservaRepository, atLeastOnce()).save(argThat(r -> "evento-1".equals(r.getEventid())));
+    }
+
+    @Test
+    void siGoogleCalendarFallaLaReservaSeQuedaSinSincronizar() {
+        when(calendario.insertarEvento(any())).thenThrow(new RuntimeException("sin token"));
+
+        servicio.save(dto(true));
+
+        verify(reservaRepository, times(2)).save(argThat(r -> r.getEventid() == null));
+        verify(reservaRepository, atLeastOnce()).save(argThat(r -> Boolean.FALSE.equals(r.getSincronizado())));
+        verify(notificaciones).crearYEnviarNotificacion(any(), anyString());
+    }
+
+    @Test
+    void unaReservaSolapadaNoLlegaAGoogleCalendarNiANotificarse() {
+        when(reservaRepository.existeSolapamiento(eq(1L), any(), any(), any())).thenReturn(true);
+
+        assertThrows(ReservaSolapadaException.class, () -> servicio.save(dto(true)));
+
+        verify(reservaRepository, never()).save(any());
+        verifyNoInteractions(calendario, notificaciones);
+    }
+
+    @Test
+    void moverUnaReservaDeDiaInvalidaElDiaAnteriorYElNuevo() {
+        // Como con open-in-view: findById y save comparten la entidad gestionada, y save le vuelca los valores nuevos
+        Reserva guardada = BloqueoEspaciosTest.reserva(1L, NUEVE, NUEVE.plusHours(1), "Pendiente");
+        guardada.setIdReserva(9L);
+        when(reservaRepository.findById(9L)).thenReturn(Optional.of(guardada));
+        when(reservaRepository.save(any())).thenAnswer(inv -> {
+            Reserva cambios = inv.getArgument(0);
+            guardada.setFechaInicio(cambios.getFechaInicio());
+            guardada.setFechaFin(cambios.getFechaFin());
+            return guardada;
+        });
+
+        CacheDashboard cache = new CacheDashboard(300, 10);
+        AtomicInteger calculos = new AtomicInteger();
+        LocalDate diaAnterior = NUEVE.toLocalDate();
+        LocalDate diaNuevo = diaAnterior.plusDays(2);
+        Runnable consultar = () -> {
+            for (LocalDate dia : List.of(diaAnterior, diaNuevo)) {
+                cache.obtener(dia, dia, null, null, () -> {
+                    calculos.incrementAndGet();
+                    return new DashBoardDTO();
+                });
+            }
+        };
+        consultar.run();
+
+        MisReservasDTO dto = dto(false);
+        dto.setIdReserva(9L);
+        dto.setFechaInicio(NUEVE.plusDays(2));
+        dto.setFechaFin(NUEVE.plusDays(2).plusHours(1));
+        servicio.save(dto);
+        publicados.forEach(evento -> cache.alModificarReserva((ReservaModificadaEvent) evento));
+
+        consultar.run();
+        assertEquals(4, calculos.get());
+    }
+
+    private static MisReservasDTO dto(boolean sincronizado) {
+        UsuarioResponseDTO usuario = new UsuarioResponseDTO();
+        usuario.setIdUsuario(5L);
+        EspacioResponseDTO espacio = new EspacioResponseDTO();
+        espacio.setIdEspacio(1L);
+        EstadoReservaDTO estado = EstadoReservaDTO.builder().idEstado(1L).build();
+
+        MisReservasDTO dto = new MisReservasDTO();
+        dto.setUsuario(usuario);
+        dto.setEspacio(espacio);
+        dto.setEstado(estado);
+        dto.setFechaInicio(NUEVE);
+        dto.setFechaFin(NUEVE.plusHours(1));
+        dto.setSincronizado(sincronizado);
+        return dto;
+    }
+}
@@ -0,0 +1,108 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.IntervaloReservaDTO;
+import com.gestion.reservas.dto.OcupacionDTO;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MotorOcupacionTest {
+
+    // Lunes
+    private static final LocalDateTime LUNES = LocalDateTime.of(2025, 6, 2, 0, 0);
+
+    private EspacioRepository espacioRepository;
+    private ReservaRepository reservaRepository;
+    private MotorOcupacion motor;
+
+    @BeforeEach
+    void setUp() {
+        espacioRepository = mock(EspacioRepository.class);
+        reservaRepository = mock(ReservaRepository.class);
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("reservas.horario.espacios.2", "09:00-13:00");
+        HorarioApertura horario = new HorarioApertura(environment);
+        ReflectionTestUtils.setField(horario, "aperturaTexto", "08:00");
+        ReflectionTestUtils.setField(horario, "cierreTexto", "20:00");
+        ReflectionTestUtils.setField(horario, "diasCerradosTexto", "SATURDAY,SUNDAY");
+        horario.init();
+
+        motor = new MotorOcupacion(espacioRepository, reservaRepository, horario);
+    }
+
+    @Test
+    void cuentaMinutosSinTruncarAHoras() {
+        espacios(1L);
+        intervalos(reserva(1L, LUNES.plusHours(10), LUNES.plusHours(11).plusMinutes(30)));
+
+        OcupacionDTO ocupacion = motor.calcular(LUNES, LUNES.plusDays(1), null, null);
+
+        assertEquals(90, ocupacion.getMinutosReservados());
+        assertEquals(12 * 60, ocupacion.getMinutosDisponibles());
+        assertEquals(13, ocupacion.getPorcentaje());
+    }
+
+    @Test
+    void recortaAlHorarioYALaVentanaSinContarSolapesDosVeces() {
+        espacios(1L);
+        intervalos(
+                reserva(1L, LUNES.plusHours(7), LUNES.plusHours(9)),                   // 8:00-9:00 dentro del horario
+                reserva(1L, LUNES.plusHours(8).plusMinutes(30), LUNES.plusHours(10)),  // solapa 30 min con la anterior
+                reserva(1L, LUNES.plusHours(19), LUNES.plusHours(23))                  // corta la ventana a las 19:30
+        );
+
+        OcupacionDTO ocupacion = motor.calcular(LUNES, LUNES.plusHours(19).plusMinutes(30), null, null);
+
+        assertEquals(60 + 60 + 30, ocupacion.getMinutosReservados());
+        assertEquals(11 * 60 + 30, ocupacion.getMinutosDisponibles());
+    }
+
+    @Test
+    void usaElHorarioDeCadaEspacioYLosDiasCerrados() {
+        espacios(1L, 2L);
+        intervalos(
+                reserva(1L, LUNES.plusDays(5).plusHours(10), LUNES.plusDays(5).plusHours(12)), // sábado, cerrado
+                reserva(2L, LUNES.plusHours(12), LUNES.plusHours(14))                          // el espacio 2 cierra a las 13:00
+        );
+
+        OcupacionDTO ocupacion = motor.calcular(LUNES, LUNES.plusDays(7), null, null);
+
+        assertEquals(60, ocupacion.getMinutosReservados());
+        assertEquals(5 * 12 * 60 + 5 * 4 * 60, ocupacion.getMinutosDisponibles());
+    }
+
+    @Test
+    void sinEspaciosReservablesLaOcupacionEsCero() {
+        espacios();
+
+        OcupacionDTO ocupacion = motor.calcular(LUNES, LUNES.plusDays(1), 3L, null);
+
+        assertEquals(0, ocupacion.getMinutosDisponibles());
+        assertEquals(0, ocupacion.getPorcentaje());
+    }
+
+    private void espacios(Long... ids) {
+        when(espacioRepository.findIdsReservables(any())).thenReturn(List.of(ids));
+    }
+
+    private void intervalos(IntervaloReservaDTO... intervalos) {
+        when(reservaRepository.findIntervalosOcupacion(any(), any(), any(), eq(null))).thenReturn(List.of(intervalos));
+    }
+
+    private IntervaloReservaDTO reserva(Long idEspacio, LocalDateTime inicio, LocalDateTime fin) {
+        return new IntervaloReservaDTO(null, idEspacio, inicio, fin);
+    }
+}
@@ -0,0 +1,140 @@
+package com.gestion.reservas.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gestion.reservas.dto.RecomendacionRequestDTO;
+import com.gestion.reservas.exception.RecomendadorNoDisponibleException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Pool real contra un trabajador falso en Python (src/test/resources/ml/trabajador_falso.py)
+class PoolPredictorPythonTest {
+
+    private PoolPredictorPython pool;
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(python3Disponible(), "Sin python3");
+        String script = Paths.get(getClass().getResource("/ml/trabajador_falso.py").toURI()).toString();
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("python.executable", "python3")
+                .withProperty("python.script.trabajador", script);
+        pool = new PoolPredictorPython(env, new EjecutorProcesos(env, 65536, 1000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hilos.shutdownNow();
+        if (pool != null) {
+            pool.detener();
+        }
+    }
+
+    @Test
+    void cadaPeticionRecibeSuRespuestaAunqueLleguenDesordenadas() throws Exception {
+        configurar(1, 8, 5000);
+
+        // La primera petición es la que más tarda: el proceso responde en orden inverso
+        List<Future<JsonNode>> respuestas = new ArrayList<>();
+        for (long usuario = 1; usuario <= 8; usuario++) {
+            long u = usuario;
+            respuestas.add(hilos.submit(() -> puntuar(u, (int) (9 - u) * 40)));
+        }
+
+        Set<Long> procesos = new HashSet<>();
+        for (int i = 0; i < respuestas.size(); i++) {
+            JsonNode respuesta = respuestas.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(i + 1, respuesta.get("usuarios").get(0).asLong());
+            procesos.add(respuesta.get("pid").asLong());
+        }
+        // Todas en el mismo proceso, a la vez
+        assertEquals(1, procesos.size());
+        assertEquals(8, pool.estado().get("plazasLibres"));
+    }
+
+    @Test
+    void sinPlazaLibreATiempoSeRechazaComoNoDisponible() throws Exception {
+        configurar(1, 1, 5000);
+        Future<JsonNode> lenta = hilos.submit(() -> puntuar(1L, 1000));
+        esperarHasta(() -> (int) pool.estado().get("plazasLibres") == 0);
+
+        // La única plaza está ocupada más tiempo del que esta petición está dispuesta a esperar
+        ReflectionTestUtils.setField(pool, "timeoutMs", 200L);
+        RecomendadorNoDisponibleException e = assertThrows(RecomendadorNoDisponibleException.class, () -> puntuar(2L, 0));
+        assertEquals("Recomendador saturado", e.getMessage());
+
+        assertEquals(1L, lenta.get(10, TimeUnit.SECONDS).get("usuarios").get(0).asLong());
+        assertEquals(1, pool.estado().get("plazasLibres"));
+    }
+
+    @Test
+    void unProcesoQueMuereSeReinicia() throws Exception {
+        configurar(1, 4, 5000);
+        long pidInicial = puntuar(1L, 0).get("pid").asLong();
+
+        // Muere con la petición en curso: quien la hizo recibe el error en lugar de esperar al timeout
+        long inicio = System.currentTimeMillis();
+        assertThrows(IOException.class, () -> puntuar(-1L, 0));
+        assertTrue(System.currentTimeMillis() - inicio < 5000);
+
+        // La comprobación periódica lo relanza y la siguiente petición espera a que esté listo
+        pool.comprobar();
+        JsonNode respuesta = puntuar(2L, 0);
+        assertEquals(2L, respuesta.get("usuarios").get(0).asLong());
+        assertNotEquals(pidInicial, respuesta.get("pid").asLong());
+        assertEquals(1, pool.estado().get("listos"));
+    }
+
+    private void configurar(int trabajadores, int peticionesPorTrabajador, long timeoutMs) {
+        ReflectionTestUtils.setField(pool, "numTrabajadores", trabajadores);
+        ReflectionTestUtils.setField(pool, "peticionesPorTrabajador", peticionesPorTrabajador);
+        ReflectionTestUtils.setField(pool, "timeoutMs", timeoutMs);
+        ReflectionTestUtils.setField(pool, "arranqueMs", 10000L);
+        ReflectionTestUtils.setField(pool, "esperaReinicioMs", 0L);
+        pool.inicializar();
+        pool.arrancar();
+    }
+
+    // "top" es la espera del trabajador falso en milisegundos
+    private JsonNode puntuar(Long usuario, int esperaMs) throws Exception {
+        RecomendacionRequestDTO consulta = new RecomendacionRequestDTO();
+        consulta.setUsuarioId(usuario);
+        consulta.setDiaSemana(2);
+        consulta.setHora(10);
+        return pool.puntuarLote(List.of(consulta), esperaMs);
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "La condición no se cumplió a tiempo");
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean python3Disponible() {
+        try {
+            return new ProcessBuilder("python3", "--version").start().waitFor(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
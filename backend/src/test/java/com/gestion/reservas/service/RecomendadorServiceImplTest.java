@@ -0,0 +1,60 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.repository.ConteoRecomendacionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.Environment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecomendadorServiceImplTest {
+
+    @TempDir
+    Path directorio;
+
+    private ConteoRecomendacionRepository conteoRepository;
+    private RecomendadorServiceImpl servicio;
+    private Path marca;
+
+    @BeforeEach
+    void setUp() {
+        conteoRepository = mock(ConteoRecomendacionRepository.class);
+        servicio = new RecomendadorServiceImpl(mock(Environment.class), mock(PoolPredictorPython.class),
+                mock(PredictorBosqueJava.class), mock(EstadisticasRecomendador.class), mock(RegistroRecomendaciones.class),
+                mock(DisponibilidadRecomendaciones.class), mock(EntrenamientosModelo.class), mock(EjecutorProcesos.class),
+                conteoRepository);
+        marca = directorio.resolve("modelo_entrenado.json");
+        ReflectionTestUtils.setField(servicio, "marcaModelo", marca.toString());
+    }
+
+    @Test
+    void noReentrenaSiElModeloGuardadoRecogeTodosLosConteos() throws Exception {
+        Files.writeString(marca, "{\"reservas\": 120}");
+
+        when(conteoRepository.totalReservas()).thenReturn(120L);
+        assertTrue(servicio.modeloAlDia());
+
+        when(conteoRepository.totalReservas()).thenReturn(121L);
+        assertFalse(servicio.modeloAlDia());
+    }
+
+    @Test
+    void sinMarcaSoloEstaAlDiaSiNoHayConteos() throws Exception {
+        when(conteoRepository.totalReservas()).thenReturn(0L);
+        assertTrue(servicio.modeloAlDia());
+
+        when(conteoRepository.totalReservas()).thenReturn(5L);
+        assertFalse(servicio.modeloAlDia());
+
+        Files.writeString(marca, "no es json");
+        assertFalse(servicio.modeloAlDia());
+    }
+}
@@ -0,0 +1,86 @@
+package com.gestion.reservas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gestion.reservas.dto.ReservaExportacionDTO;
+import com.gestion.reservas.repository.EspacioRepository;
+import com.gestion.reservas.repository.ReservaRepository;
+import com.gestion.reservas.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservaServiceImplTest {
+
+    private static final LocalDateTime NUEVE = LocalDateTime.of(2025, 6, 10, 9, 0);
+
+    private ReservaRepository reservaRepository;
+    private ReservaServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        // Configurado como el ObjectMapper de Spring Boot: fechas ISO en lugar de arrays
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        service = new ReservaServiceImpl(reservaRepository, mock(UsuarioRepository.class), mock(EspacioRepository.class),
+                mock(CatalogosReferencia.class), mock(NotificacionService.class), mock(IndiceDisponibilidad.class),
+                mock(BloqueoEspacios.class), mock(ApplicationEventPublisher.class), objectMapper);
+        ReflectionTestUtils.setField(service, "tamanoLoteExportacion", 2);
+    }
+
+    @Test
+    void csvEntrecomillaComasComillasYSaltosDeLinea() throws Exception {
+        filas(new ReservaExportacionDTO(1L, NUEVE, NUEVE.plusHours(1), 3, 7L, "Pérez, Ana", "ana@x.com",
+                        10L, "Sala \"Azul\"", "Aula", "Confirmada"),
+                new ReservaExportacionDTO(2L, NUEVE, null, null, 8L, "Luis\nGarcía", null,
+                        11L, "Sala 2", null, "Pendiente"));
+
+        String csv = exportar(FormatoExportacion.CSV);
+
+        assertEquals("idReserva,fechaInicio,fechaFin,ocupantes,idUsuario,usuario,email,idEspacio,espacio,tipoEspacio,estado\n"
+                + "1,2025-06-10T09:00:00,2025-06-10T10:00:00,3,7,\"Pérez, Ana\",ana@x.com,10,\"Sala \"\"Azul\"\"\",Aula,Confirmada\n"
+                + "2,2025-06-10T09:00:00,,,8,\"Luis\nGarcía\",,11,Sala 2,,Pendiente\n", csv);
+    }
+
+    @Test
+    void ndjsonEscribeUnObjetoPorLineaConFechasIso() throws Exception {
+        filas(new ReservaExportacionDTO(1L, NUEVE, NUEVE.plusMinutes(90).plusSeconds(5), 3, 7L, "Ana\nPérez", "ana@x.com",
+                10L, "Sala", "Aula", "Confirmada"));
+
+        String ndjson = exportar(FormatoExportacion.NDJSON);
+
+        assertEquals("{\"idReserva\":1,\"fechaInicio\":\"2025-06-10T09:00:00\",\"fechaFin\":\"2025-06-10T10:30:05\","
+                + "\"ocupantes\":3,\"idUsuario\":7,\"usuario\":\"Ana\\nPérez\",\"email\":\"ana@x.com\",\"idEspacio\":10,"
+                + "\"espacio\":\"Sala\",\"tipoEspacio\":\"Aula\",\"estado\":\"Confirmada\"}\n", ndjson);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void filas(ReservaExportacionDTO... filas) {
+        when(reservaRepository.recorrerPorFiltros(any(), any(), any(), any(), eq(2), any())).thenAnswer(inv -> {
+            Consumer<ReservaExportacionDTO> consumidor = inv.getArgument(5);
+            List.of(filas).forEach(consumidor);
+            return (long) filas.length;
+        });
+    }
+
+    private String exportar(FormatoExportacion formato) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        service.exportar(null, null, null, null, formato, salida);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+}
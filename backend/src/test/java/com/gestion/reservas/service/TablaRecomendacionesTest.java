@@ -0,0 +1,47 @@
+package com.gestion.reservas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TablaRecomendacionesTest {
+
+    @Test
+    void laTablaDaLoMismoQuePuntuarAlMomento() throws Exception {
+        BosqueAleatorio bosque = BosqueAleatorio.desdeJson(new ObjectMapper().readTree(BosqueAleatorioTest.BOSQUE));
+        TablaRecomendaciones tabla = TablaRecomendaciones.calcular(bosque, new long[]{7, 3, 7}, 3);
+
+        assertEquals(2, tabla.getNumUsuarios());
+        assertEquals(3, tabla.getK());
+
+        double[] salida = new double[bosque.getNumClases()];
+        int[] mejores = new int[3];
+        for (long usuario : new long[]{3, 7}) {
+            for (int dia = 0; dia < TablaRecomendaciones.DIAS; dia++) {
+                for (int hora = -1; hora <= 23; hora++) {
+                    bosque.probabilidades(new double[]{usuario, hora, dia}, salida);
+                    BosqueAleatorio.mejores(salida, bosque.getNumClases(), mejores);
+
+                    int posicion = tabla.buscar(usuario, dia, hora);
+                    for (int i = 0; i < 3; i++) {
+                        assertEquals(mejores[i], tabla.espacio(posicion + i));
+                        assertEquals(TablaRecomendaciones.redondear(salida[mejores[i]]), tabla.probabilidad(posicion + i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void fueraDeLaTablaNoHayPosicion() throws Exception {
+        BosqueAleatorio bosque = BosqueAleatorio.desdeJson(new ObjectMapper().readTree(BosqueAleatorioTest.BOSQUE));
+        TablaRecomendaciones tabla = TablaRecomendaciones.calcular(bosque, new long[]{3}, 3);
+
+        assertEquals(-1, tabla.buscar(4, 1, 10));
+        assertEquals(-1, tabla.buscar(3, 7, 10));
+        assertEquals(-1, tabla.buscar(3, 1, 24));
+        assertEquals(-1, tabla.buscar(3, 1, -2));
+        assertEquals(-1, TablaRecomendaciones.vacia().buscar(3, 1, 10));
+    }
+}
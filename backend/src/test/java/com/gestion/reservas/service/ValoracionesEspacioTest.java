@@ -0,0 +1,109 @@
+package com.gestion.reservas.service;
+
+import com.gestion.reservas.dto.EspacioComentariosDTO;
+import com.gestion.reservas.dto.ValoracionAprobadaDTO;
+import com.gestion.reservas.entity.Comentario;
+import com.gestion.reservas.entity.Espacio;
+import com.gestion.reservas.entity.EstadoComentario;
+import com.gestion.reservas.entity.Reserva;
+import com.gestion.reservas.repository.ComentarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.*;
+
+class ValoracionesEspacioTest {
+
+    private ComentarioRepository comentarioRepository;
+    private ValoracionesEspacio valoraciones;
+
+    @BeforeEach
+    void setUp() {
+        comentarioRepository = mock(ComentarioRepository.class);
+        valoraciones = new ValoracionesEspacio(comentarioRepository);
+    }
+
+    @Test
+    void sumaCantidadEHistogramaSiguenAprobacionesYAnulaciones() {
+        when(comentarioRepository.obtenerValoracionesAprobadas()).thenReturn(List.of(
+                new ValoracionAprobadaDTO(1L, 10L, 5),
+                new ValoracionAprobadaDTO(2L, 10L, 3),
+                new ValoracionAprobadaDTO(3L, 20L, null)));
+        valoraciones.cargar();
+
+        valoraciones.registrar(comentario(4L, 10L, 4, "Aprobado"));
+        // Aprobar otra vez el mismo comentario no cuenta doble
+        valoraciones.registrar(comentario(4L, 10L, 4, "Aprobado"));
+        // Cambio de valoración: sale del 5 y entra en el 1
+        valoraciones.registrar(comentario(1L, 10L, 1, "Aprobado"));
+        // Anulado: deja de contar
+        valoraciones.registrar(comentario(2L, 10L, 3, "Rechazado"));
+        valoraciones.eliminar(99L);
+
+        EspacioComentariosDTO dto = resumen(10L);
+        assertEquals(2L, dto.getCantidadResenas());
+        assertEquals(2.5, dto.getValoracionPromedio());
+        assertEquals(Map.of(1, 1L, 2, 0L, 3, 0L, 4, 1L, 5, 0L), dto.getDistribucionValoraciones());
+
+        valoraciones.eliminar(1L);
+        valoraciones.eliminar(4L);
+        dto = resumen(10L);
+        assertEquals(0L, dto.getCantidadResenas());
+        assertEquals(0.0, dto.getValoracionPromedio());
+
+        // Sin valoración no cuenta y un espacio desconocido sale a cero
+        assertEquals(0L, resumen(20L).getCantidadResenas());
+        assertEquals(0L, resumen(30L).getCantidadResenas());
+    }
+
+    @Test
+    void antesDeCargarSeUsaLaConsultaAgrupadaSinReconstruir() {
+        when(comentarioRepository.contarValoracionesAprobadas()).thenReturn(List.of(
+                new Object[]{10L, 5, 3L},
+                new Object[]{10L, 2, 1L}));
+
+        EspacioComentariosDTO dto = resumen(10L);
+
+        assertFalse(valoraciones.isCargado());
+        assertEquals(4L, dto.getCantidadResenas());
+        assertEquals(17.0 / 4, dto.getValoracionPromedio());
+        assertEquals(Map.of(1, 0L, 2, 1L, 3, 0L, 4, 0L, 5, 3L), dto.getDistribucionValoraciones());
+        verify(comentarioRepository, never()).obtenerValoracionesAprobadas();
+    }
+
+    @Test
+    void unaReconstruccionQueCoincideConUnaAprobacionSeReintenta() {
+        // La primera lectura no ve el comentario 2, que se aprueba mientras tanto
+        when(comentarioRepository.obtenerValoracionesAprobadas())
+                .thenAnswer(inv -> {
+                    valoraciones.registrar(comentario(2L, 10L, 4, "Aprobado"));
+                    return List.of(new ValoracionAprobadaDTO(1L, 10L, 5));
+                })
+                .thenReturn(List.of(new ValoracionAprobadaDTO(1L, 10L, 5), new ValoracionAprobadaDTO(2L, 10L, 4)));
+
+        assertEquals(1, valoraciones.reconstruir());
+
+        assertEquals(2L, resumen(10L).getCantidadResenas());
+        verify(comentarioRepository, times(2)).obtenerValoracionesAprobadas();
+    }
+
+    private EspacioComentariosDTO resumen(Long idEspacio) {
+        EspacioComentariosDTO dto = new EspacioComentariosDTO(idEspacio, "Sala", null, null, null);
+        valoraciones.completar(List.of(dto));
+        return dto;
+    }
+
+    private static Comentario comentario(Long id, Long idEspacio, Integer valoracion, String estado) {
+        return Comentario.builder()
+                .idComentario(id)
+                .valoracion(valoracion)
+                .estado(new EstadoComentario(null, estado))
+                .reserva(Reserva.builder().espacio(Espacio.builder().idEspacio(idEspacio).build()).build())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+import json
+import os
+import sys
+import threading
+import time
+
+# Trabajador de prueba para PoolPredictorPython, con el mismo protocolo que ml/trabajador_postgresql.py.
+# Atiende cada petición en su propio hilo para que las respuestas puedan llegar desordenadas.
+#   "top": milisegundos de espera antes de responder
+#   usuario_id -1 en alguna consulta: el proceso muere sin responder
+
+escritura = threading.Lock()
+
+
+def responder(mensaje):
+    with escritura:
+        sys.stdout.write(json.dumps(mensaje) + "\n")
+        sys.stdout.flush()
+
+
+def atender(peticion):
+    if peticion.get("tipo") == "ping":
+        responder({"id": peticion["id"], "ok": True, "resultado": "pong"})
+        return
+
+    time.sleep(peticion.get("top", 0) / 1000)
+    usuarios = [c["usuario_id"] for c in peticion["consultas"]]
+    if -1 in usuarios:
+        os._exit(3)
+    responder({"id": peticion["id"], "ok": True, "resultado": {"usuarios": usuarios, "pid": os.getpid()}})
+
+
+responder({"id": 0, "ok": True})
+for linea in sys.stdin:
+    threading.Thread(target=atender, args=(json.loads(linea),), daemon=True).start()